@@ -2,13 +2,20 @@ package io.github.af19git5;
 
 import io.github.af19git5.builder.ExcelStreamWriteBuilder;
 import io.github.af19git5.builder.ExcelWriteBuilder;
+import io.github.af19git5.entity.ExcelReadOptions;
+import io.github.af19git5.entity.ExcelRow;
 import io.github.af19git5.entity.ExcelSheet;
 import io.github.af19git5.exception.ExcelException;
+import io.github.af19git5.handler.ExcelRowHandler;
 import io.github.af19git5.service.ReadExcelService;
+import io.github.af19git5.service.SnapshotExcelService;
+import io.github.af19git5.service.StreamReadExcelService;
 
 import java.io.File;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * EasyExcel可用功能及方法
@@ -64,6 +71,33 @@ public class EasyExcel {
         return new ReadExcelService().read(excelFile, password);
     }
 
+    /**
+     * 讀取excel資料
+     *
+     * @param excelFile excel檔案
+     * @param options 讀取設定
+     * @return excel資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    public static List<ExcelSheet> readWithOptions(File excelFile, ExcelReadOptions options)
+            throws ExcelException {
+        return new ReadExcelService().readWithOptions(excelFile, options);
+    }
+
+    /**
+     * 讀取excel資料
+     *
+     * @param excelFile excel檔案
+     * @param password 密碼
+     * @param options 讀取設定
+     * @return excel資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    public static List<ExcelSheet> readWithOptions(
+            File excelFile, String password, ExcelReadOptions options) throws ExcelException {
+        return new ReadExcelService().readWithOptions(excelFile, password, options);
+    }
+
     /**
      * 讀取excel資料
      *
@@ -88,6 +122,273 @@ public class EasyExcel {
         return new ReadExcelService().read(inputStream, password);
     }
 
+    /**
+     * 讀取excel資料
+     *
+     * @param inputStream InputStream
+     * @param options 讀取設定
+     * @return excel資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    public static List<ExcelSheet> readWithOptions(
+            InputStream inputStream, ExcelReadOptions options) throws ExcelException {
+        return new ReadExcelService().readWithOptions(inputStream, options);
+    }
+
+    /**
+     * 讀取excel資料
+     *
+     * @param inputStream InputStream
+     * @param password 密碼
+     * @param options 讀取設定
+     * @return excel資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    public static List<ExcelSheet> readWithOptions(
+            InputStream inputStream, String password, ExcelReadOptions options)
+            throws ExcelException {
+        return new ReadExcelService().readWithOptions(inputStream, password, options);
+    }
+
+    /**
+     * 讀取excel資料並轉為物件(讀取第一個工作表, 第一列為標題列)
+     *
+     * @param excelFile excel檔案
+     * @param type 物件類別(以@ExcelColumn標示對應欄位)
+     * @return 物件資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    public static <T> List<T> readBeans(File excelFile, Class<T> type) throws ExcelException {
+        return new StreamReadExcelService().readBeans(excelFile, type);
+    }
+
+    /**
+     * 讀取excel資料並轉為物件(讀取符合設定的第一個工作表, 第一列為標題列)
+     *
+     * @param excelFile excel檔案
+     * @param options 讀取設定
+     * @param type 物件類別(以@ExcelColumn標示對應欄位)
+     * @return 物件資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    public static <T> List<T> readBeans(
+            File excelFile, ExcelReadOptions options, Class<T> type) throws ExcelException {
+        return new StreamReadExcelService().readBeans(excelFile, options, type);
+    }
+
+    /**
+     * 讀取excel資料並轉為物件(讀取第一個工作表, 第一列為標題列)
+     *
+     * @param inputStream InputStream
+     * @param type 物件類別(以@ExcelColumn標示對應欄位)
+     * @return 物件資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    public static <T> List<T> readBeans(InputStream inputStream, Class<T> type)
+            throws ExcelException {
+        return new StreamReadExcelService().readBeans(inputStream, type);
+    }
+
+    /**
+     * 讀取excel資料並轉為物件(讀取符合設定的第一個工作表, 第一列為標題列)
+     *
+     * @param inputStream InputStream
+     * @param options 讀取設定
+     * @param type 物件類別(以@ExcelColumn標示對應欄位)
+     * @return 物件資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    public static <T> List<T> readBeans(
+            InputStream inputStream, ExcelReadOptions options, Class<T> type)
+            throws ExcelException {
+        return new StreamReadExcelService().readBeans(inputStream, options, type);
+    }
+
+    /**
+     * 讀取excel資料(資料流讀取, 逐列回呼, 可以用在大檔匯入)
+     *
+     * @param excelFilePath excel檔案路徑
+     * @param rowHandler 橫列資料處理
+     * @throws ExcelException Excel處理錯誤
+     */
+    public static void readStream(String excelFilePath, ExcelRowHandler rowHandler)
+            throws ExcelException {
+        new StreamReadExcelService().read(excelFilePath, rowHandler);
+    }
+
+    /**
+     * 讀取excel資料(資料流讀取, 逐列回呼, 可以用在大檔匯入)
+     *
+     * @param excelFile excel檔案
+     * @param rowHandler 橫列資料處理
+     * @throws ExcelException Excel處理錯誤
+     */
+    public static void readStream(File excelFile, ExcelRowHandler rowHandler)
+            throws ExcelException {
+        new StreamReadExcelService().read(excelFile, rowHandler);
+    }
+
+    /**
+     * 讀取excel資料(資料流讀取, 逐列回呼, 可以用在大檔匯入)
+     *
+     * @param excelFile excel檔案
+     * @param options 讀取設定
+     * @param rowHandler 橫列資料處理
+     * @throws ExcelException Excel處理錯誤
+     */
+    public static void readStream(
+            File excelFile, ExcelReadOptions options, ExcelRowHandler rowHandler)
+            throws ExcelException {
+        new StreamReadExcelService().read(excelFile, options, rowHandler);
+    }
+
+    /**
+     * 讀取excel資料(資料流讀取, 逐列回呼, 可以用在大檔匯入)
+     *
+     * @param inputStream InputStream
+     * @param rowHandler 橫列資料處理
+     * @throws ExcelException Excel處理錯誤
+     */
+    public static void readStream(InputStream inputStream, ExcelRowHandler rowHandler)
+            throws ExcelException {
+        new StreamReadExcelService().read(inputStream, rowHandler);
+    }
+
+    /**
+     * 讀取excel資料(資料流讀取, 逐列回呼, 可以用在大檔匯入)
+     *
+     * @param inputStream InputStream
+     * @param options 讀取設定
+     * @param rowHandler 橫列資料處理
+     * @throws ExcelException Excel處理錯誤
+     */
+    public static void readStream(
+            InputStream inputStream, ExcelReadOptions options, ExcelRowHandler rowHandler)
+            throws ExcelException {
+        new StreamReadExcelService().read(inputStream, options, rowHandler);
+    }
+
+    /**
+     * 取得excel橫列資料流(取用時才解析, 可搭配limit、filter提早結束, 使用完畢須關閉)
+     *
+     * @param excelFile excel檔案
+     * @return 所有工作表的橫列資料流
+     * @throws ExcelException Excel處理錯誤
+     */
+    public static Stream<ExcelRow> rows(File excelFile) throws ExcelException {
+        return new StreamReadExcelService().rowsWithOptions(excelFile, new ExcelReadOptions());
+    }
+
+    /**
+     * 取得excel橫列資料流(取用時才解析, 可搭配limit、filter提早結束, 使用完畢須關閉)
+     *
+     * @param excelFile excel檔案
+     * @param sheetName 工作表名稱
+     * @return 指定工作表的橫列資料流
+     * @throws ExcelException Excel處理錯誤
+     */
+    public static Stream<ExcelRow> rows(File excelFile, String sheetName) throws ExcelException {
+        return new StreamReadExcelService().rows(excelFile, sheetName);
+    }
+
+    /**
+     * 取得excel橫列資料流(取用時才解析, 可搭配limit、filter提早結束, 使用完畢須關閉)
+     *
+     * @param excelFile excel檔案
+     * @param options 讀取設定
+     * @return 符合讀取設定的橫列資料流
+     * @throws ExcelException Excel處理錯誤
+     */
+    public static Stream<ExcelRow> rowsWithOptions(File excelFile, ExcelReadOptions options)
+            throws ExcelException {
+        return new StreamReadExcelService().rowsWithOptions(excelFile, options);
+    }
+
+    /**
+     * 取得excel橫列資料流(取用時才解析, 可搭配limit、filter提早結束, 使用完畢須關閉)
+     *
+     * @param excelFilePath excel檔案路徑
+     * @param sheetName 工作表名稱
+     * @return 指定工作表的橫列資料流
+     * @throws ExcelException Excel處理錯誤
+     */
+    public static Stream<ExcelRow> rows(String excelFilePath, String sheetName)
+            throws ExcelException {
+        return new StreamReadExcelService().rows(new File(excelFilePath), sheetName);
+    }
+
+    /**
+     * 取得excel橫列資料流(取用時才解析, 可搭配limit、filter提早結束, 使用完畢須關閉)
+     *
+     * @param inputStream InputStream
+     * @param sheetName 工作表名稱
+     * @return 指定工作表的橫列資料流
+     * @throws ExcelException Excel處理錯誤
+     */
+    public static Stream<ExcelRow> rows(InputStream inputStream, String sheetName)
+            throws ExcelException {
+        return new StreamReadExcelService().rows(inputStream, sheetName);
+    }
+
+    /**
+     * 取得excel橫列資料流(取用時才解析, 可搭配limit、filter提早結束, 使用完畢須關閉)
+     *
+     * @param inputStream InputStream
+     * @param options 讀取設定
+     * @return 符合讀取設定的橫列資料流
+     * @throws ExcelException Excel處理錯誤
+     */
+    public static Stream<ExcelRow> rowsWithOptions(
+            InputStream inputStream, ExcelReadOptions options) throws ExcelException {
+        return new StreamReadExcelService().rowsWithOptions(inputStream, options);
+    }
+
+    /**
+     * 寫出excel資料快照(精簡二進位格式, 可用readSnapshot載入而不須重新解析Excel)
+     *
+     * @param sheetList excel資料
+     * @param snapshotFile 快照檔案
+     * @throws ExcelException Excel處理錯誤
+     */
+    public static void writeSnapshot(List<ExcelSheet> sheetList, File snapshotFile)
+            throws ExcelException {
+        new SnapshotExcelService().write(sheetList, snapshotFile);
+    }
+
+    /**
+     * 寫出excel資料快照(精簡二進位格式, 可用readSnapshot載入而不須重新解析Excel)
+     *
+     * @param sheetList excel資料
+     * @param outputStream OutputStream
+     * @throws ExcelException Excel處理錯誤
+     */
+    public static void writeSnapshot(List<ExcelSheet> sheetList, OutputStream outputStream)
+            throws ExcelException {
+        new SnapshotExcelService().write(sheetList, outputStream);
+    }
+
+    /**
+     * 載入excel資料快照
+     *
+     * @param snapshotFile 快照檔案
+     * @return excel資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    public static List<ExcelSheet> readSnapshot(File snapshotFile) throws ExcelException {
+        return new SnapshotExcelService().read(snapshotFile);
+    }
+
+    /**
+     * 載入excel資料快照
+     *
+     * @param inputStream InputStream
+     * @return excel資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    public static List<ExcelSheet> readSnapshot(InputStream inputStream) throws ExcelException {
+        return new SnapshotExcelService().read(inputStream);
+    }
+
     /**
      * 寫出excel資料
      *
@@ -0,0 +1,32 @@
+package io.github.af19git5.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Excel欄位對應(標示物件欄位對應的直行, 讀取時第一列為標題列)
+ *
+ * @author Jimmy Kang
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface ExcelColumn {
+
+    /**
+     * 標題名稱, 未設定時使用欄位名稱
+     *
+     * @return 標題名稱
+     */
+    String value() default "";
+
+    /**
+     * 直行(從0開始), 未設定時寫出依欄位宣告順序排列, 讀取依標題名稱對應
+     *
+     * @return 直行
+     */
+    int index() default -1;
+}
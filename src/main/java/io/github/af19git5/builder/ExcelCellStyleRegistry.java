@@ -0,0 +1,70 @@
+package io.github.af19git5.builder;
+
+import io.github.af19git5.entity.ExcelStyleKey;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * workbook樣式登記表(內容相同的樣式只建立一個workbook樣式, 每個workbook各自使用一份)
+ *
+ * @param <S> 樣式資料類別
+ * @param <C> workbook樣式類別
+ * @author Jimmy Kang
+ */
+class ExcelCellStyleRegistry<S, C> {
+
+    /** 取得樣式比對key的方式 */
+    private final Function<S, ExcelStyleKey> keyFunction;
+
+    /** 建立workbook樣式的方式 */
+    private final Function<S, C> cellStyleFactory;
+
+    /** 已建立的workbook樣式(key: 樣式比對key) */
+    private final Map<ExcelStyleKey, C> cellStyleMap = new HashMap<>();
+
+    /** 已查詢過的樣式物件(同一物件不須重新計算key) */
+    private final Map<S, C> identityCellStyleMap = new IdentityHashMap<>();
+
+    /**
+     * @param keyFunction 取得樣式比對key的方式
+     * @param cellStyleFactory 建立workbook樣式的方式
+     */
+    ExcelCellStyleRegistry(
+            Function<S, ExcelStyleKey> keyFunction, Function<S, C> cellStyleFactory) {
+        this.keyFunction = keyFunction;
+        this.cellStyleFactory = cellStyleFactory;
+    }
+
+    /**
+     * 取得workbook樣式(內容相同的樣式已建立時直接回傳)
+     *
+     * @param style 樣式資料
+     * @return workbook樣式
+     */
+    C get(S style) {
+        C cellStyle = identityCellStyleMap.get(style);
+        if (null != cellStyle) return cellStyle;
+        cellStyle =
+                cellStyleMap.computeIfAbsent(
+                        keyFunction.apply(style), key -> cellStyleFactory.apply(style));
+        identityCellStyleMap.put(style, cellStyle);
+        return cellStyle;
+    }
+
+    /** 清除已查詢過的樣式物件(樣式物件可能被修改時呼叫) */
+    void clearIdentityCache() {
+        identityCellStyleMap.clear();
+    }
+
+    /**
+     * 已建立的workbook樣式數量
+     *
+     * @return 樣式數量
+     */
+    int size() {
+        return cellStyleMap.size();
+    }
+}
@@ -0,0 +1,218 @@
+package io.github.af19git5.builder;
+
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 欄位寬度估算器(依字體字寬表估算文字顯示寬度, 記錄每欄最大寬度後一次設定)
+ *
+ * <p>不使用AWT字體量測, 寬度以workbook預設字體的數字寬度為單位, 與autoSizeColumn相同
+ *
+ * @author Jimmy Kang
+ */
+class ExcelColumnWidthEstimator {
+
+    /** 欄位寬度上限(1/256字元) */
+    private static final int MAX_WIDTH = 255 * 256;
+
+    /** 欄位左右留白(字元) */
+    private static final float PADDING = 1f;
+
+    /** 粗體寬度比例 */
+    private static final float BOLD_FACTOR = 1.05f;
+
+    /** 比例字體的半形字寬(Arial, 1/1000 em, 字元32~126) */
+    private static final short[] ASCII_WIDTHS = {
+        278, 278, 355, 556, 556, 889, 667, 191, 333, 333, 389, 584, 278, 333, 278, 278, 556, 556,
+        556, 556, 556, 556, 556, 556, 556, 556, 278, 278, 584, 584, 584, 556, 1015, 667, 667, 722,
+        722, 667, 611, 778, 722, 278, 500, 667, 556, 833, 722, 778, 667, 778, 722, 667, 611, 722,
+        667, 944, 667, 667, 611, 278, 278, 278, 469, 556, 333, 556, 556, 500, 556, 556, 278, 556,
+        556, 222, 222, 500, 222, 833, 556, 556, 556, 556, 333, 500, 278, 556, 500, 722, 500, 500,
+        500, 334, 260, 334, 584
+    };
+
+    /** 全形字寬(1/1000 em) */
+    private static final float WIDE_WIDTH = 1000f;
+
+    /** 比例字體相對Arial的寬度比例(key: 小寫字體名稱) */
+    private static final Map<String, Float> FONT_FACTOR_MAP = new HashMap<>();
+
+    /** 等寬字體的半形字寬(1/1000 em, key: 小寫字體名稱) */
+    private static final Map<String, Float> MONOSPACE_WIDTH_MAP = new HashMap<>();
+
+    static {
+        FONT_FACTOR_MAP.put("calibri", 0.91f);
+        FONT_FACTOR_MAP.put("cambria", 0.99f);
+        FONT_FACTOR_MAP.put("times new roman", 0.9f);
+        FONT_FACTOR_MAP.put("tahoma", 0.98f);
+        FONT_FACTOR_MAP.put("verdana", 1.14f);
+        FONT_FACTOR_MAP.put("segoe ui", 1.0f);
+        MONOSPACE_WIDTH_MAP.put("courier new", 600f);
+        MONOSPACE_WIDTH_MAP.put("consolas", 550f);
+        MONOSPACE_WIDTH_MAP.put("新細明體", 500f);
+        MONOSPACE_WIDTH_MAP.put("細明體", 500f);
+        MONOSPACE_WIDTH_MAP.put("pmingliu", 500f);
+        MONOSPACE_WIDTH_MAP.put("mingliu", 500f);
+    }
+
+    /** 預設字體名稱 */
+    private final String defaultFontName;
+
+    /** 預設字體大小 */
+    private final int defaultFontSize;
+
+    /** 預設字體的數字寬度(1/1000 em乘上字體大小) */
+    private final float defaultDigitWidth;
+
+    /** 字寬表(key: 字體、大小及粗體; 值: 字元32~126寬度, 全形寬度, 其他字元寬度) */
+    private final Map<String, float[]> widthTableMap = new HashMap<>();
+
+    /** 跨欄合併區塊的左上欄位(不計入欄寬) */
+    private final Set<Long> mergedCellSet = new HashSet<>();
+
+    /** 不估算寬度的欄位 */
+    private final Set<Integer> excludedColumnSet = new HashSet<>();
+
+    /** 每欄最大寬度(字元) */
+    private float[] columnWidths = new float[16];
+
+    /**
+     * @param workbook 寫入的workbook(以第一個字體為預設字體)
+     */
+    ExcelColumnWidthEstimator(Workbook workbook) {
+        Font defaultFont = workbook.getFontAt(0);
+        this.defaultFontName = defaultFont.getFontName();
+        this.defaultFontSize = defaultFont.getFontHeightInPoints();
+        this.defaultDigitWidth = charWidth(defaultFontName, '0') * defaultFontSize;
+    }
+
+    /**
+     * 加入跨欄合併區塊(左上欄位的文字跨越多欄, 不計入單欄寬度)
+     *
+     * @param firstRow 起始列
+     * @param firstColumn 起始行
+     * @param lastColumn 結束行
+     */
+    void addMergedRegion(int firstRow, int firstColumn, int lastColumn) {
+        if (firstColumn != lastColumn) mergedCellSet.add(cellKey(firstRow, firstColumn));
+    }
+
+    /**
+     * 設定不估算寬度的欄位(已覆寫寬度)
+     *
+     * @param column 直行
+     */
+    void exclude(int column) {
+        excludedColumnSet.add(column);
+    }
+
+    /**
+     * 加入欄位文字
+     *
+     * @param row 橫列
+     * @param column 直行
+     * @param value 顯示文字
+     * @param fontName 文字字體, null或空字串時使用預設字體
+     * @param fontSize 文字大小, null時使用預設大小
+     * @param bold 是否為粗體
+     */
+    void add(int row, int column, String value, String fontName, Integer fontSize, boolean bold) {
+        if (null == value || value.isEmpty()) return;
+        if (!mergedCellSet.isEmpty() && mergedCellSet.contains(cellKey(row, column))) return;
+        float[] widthTable = widthTable(fontName, fontSize, bold);
+        float maxLineWidth = 0;
+        float lineWidth = 0;
+        for (int i = 0; i < value.length(); ) {
+            int codePoint = value.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (codePoint == '\n') {
+                maxLineWidth = Math.max(maxLineWidth, lineWidth);
+                lineWidth = 0;
+            } else if (codePoint >= 32 && codePoint <= 126) {
+                lineWidth += widthTable[codePoint - 32];
+            } else if (isWide(codePoint)) {
+                lineWidth += widthTable[ASCII_WIDTHS.length];
+            } else if (codePoint > 126) {
+                lineWidth += widthTable[ASCII_WIDTHS.length + 1];
+            }
+        }
+        maxLineWidth = Math.max(maxLineWidth, lineWidth);
+        if (column >= columnWidths.length) {
+            int length = Math.max(column + 1, columnWidths.length * 2);
+            columnWidths = Arrays.copyOf(columnWidths, length);
+        }
+        columnWidths[column] = Math.max(columnWidths[column], maxLineWidth);
+    }
+
+    /**
+     * 設定工作表欄位寬度(已覆寫寬度的欄位不處理)
+     *
+     * @param sheet 工作表
+     */
+    void apply(Sheet sheet) {
+        for (int column = 0; column < columnWidths.length; column++) {
+            if (columnWidths[column] <= 0 || excludedColumnSet.contains(column)) continue;
+            int width = (int) Math.ceil((columnWidths[column] + PADDING) * 256);
+            sheet.setColumnWidth(column, Math.min(width, MAX_WIDTH));
+        }
+    }
+
+    private float[] widthTable(String fontName, Integer fontSize, boolean bold) {
+        String name = null == fontName || fontName.isEmpty() ? defaultFontName : fontName;
+        int size = null == fontSize ? defaultFontSize : fontSize;
+        String key = name + '|' + size + '|' + bold;
+        float[] widthTable = widthTableMap.get(key);
+        if (null != widthTable) return widthTable;
+        float scale = size * (bold ? BOLD_FACTOR : 1f) / defaultDigitWidth;
+        widthTable = new float[ASCII_WIDTHS.length + 2];
+        for (int i = 0; i < ASCII_WIDTHS.length; i++) {
+            widthTable[i] = charWidth(name, (char) (i + 32)) * scale;
+        }
+        widthTable[ASCII_WIDTHS.length] = WIDE_WIDTH * scale;
+        widthTable[ASCII_WIDTHS.length + 1] = charWidth(name, '0') * scale;
+        widthTableMap.put(key, widthTable);
+        return widthTable;
+    }
+
+    /**
+     * 半形字元寬度
+     *
+     * @param fontName 字體名稱
+     * @param c 字元(32~126)
+     * @return 字寬(1/1000 em)
+     */
+    private static float charWidth(String fontName, char c) {
+        String name = null == fontName ? "" : fontName.toLowerCase();
+        Float monospaceWidth = MONOSPACE_WIDTH_MAP.get(name);
+        if (null != monospaceWidth) return monospaceWidth;
+        return ASCII_WIDTHS[c - 32] * FONT_FACTOR_MAP.getOrDefault(name, 1f);
+    }
+
+    /**
+     * 是否為全形字元(中日韓文字、諺文、全形符號)
+     *
+     * @param codePoint 字元
+     * @return 是否為全形
+     */
+    private static boolean isWide(int codePoint) {
+        return (codePoint >= 0x1100 && codePoint <= 0x115F)
+                || (codePoint >= 0x2E80 && codePoint <= 0xA4CF)
+                || (codePoint >= 0xAC00 && codePoint <= 0xD7A3)
+                || (codePoint >= 0xF900 && codePoint <= 0xFAFF)
+                || (codePoint >= 0xFE30 && codePoint <= 0xFE4F)
+                || (codePoint >= 0xFF00 && codePoint <= 0xFF60)
+                || (codePoint >= 0xFFE0 && codePoint <= 0xFFE6)
+                || (codePoint >= 0x20000 && codePoint <= 0x3FFFD);
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+}
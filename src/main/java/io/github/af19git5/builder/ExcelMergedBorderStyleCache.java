@@ -0,0 +1,84 @@
+package io.github.af19git5.builder;
+
+import io.github.af19git5.entity.ExcelStyleKey;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * 合併區塊邊線樣式快取(原樣式及邊線設定相同時共用同一個workbook樣式, 每個workbook各自使用一份)
+ *
+ * <p>只設定區塊外框的欄位樣式, 合併區塊內部的欄位不會顯示, 不另外處理
+ *
+ * @param <R> 合併欄位規則類別
+ * @param <C> workbook樣式類別
+ * @author Jimmy Kang
+ */
+class ExcelMergedBorderStyleCache<R, C extends CellStyle> {
+
+    /** 取得邊線比對key的方式 */
+    private final Function<R, ExcelStyleKey> keyFunction;
+
+    /** 以原樣式加上邊線設定建立workbook樣式的方式 */
+    private final BiFunction<C, R, C> cellStyleFactory;
+
+    /** 已建立的workbook樣式(key: 邊線比對key, 原樣式序號) */
+    private final Map<ExcelStyleKey, Map<Short, C>> cellStyleMap = new HashMap<>();
+
+    /**
+     * @param keyFunction 取得邊線比對key的方式
+     * @param cellStyleFactory 以原樣式加上邊線設定建立workbook樣式的方式
+     */
+    ExcelMergedBorderStyleCache(
+            Function<R, ExcelStyleKey> keyFunction, BiFunction<C, R, C> cellStyleFactory) {
+        this.keyFunction = keyFunction;
+        this.cellStyleFactory = cellStyleFactory;
+    }
+
+    /**
+     * 設定合併區塊外框欄位的樣式(以左上欄位樣式加上邊線設定)
+     *
+     * @param sheet 工作表
+     * @param region 合併欄位規則
+     * @param firstRow 起始列
+     * @param lastRow 結束列
+     * @param firstColumn 起始行
+     * @param lastColumn 結束行
+     */
+    @SuppressWarnings("unchecked")
+    void apply(Sheet sheet, R region, int firstRow, int lastRow, int firstColumn, int lastColumn) {
+        C baseStyle = (C) getOrCreateCell(sheet, firstRow, firstColumn).getCellStyle();
+        C cellStyle =
+                cellStyleMap
+                        .computeIfAbsent(keyFunction.apply(region), key -> new HashMap<>())
+                        .computeIfAbsent(
+                                baseStyle.getIndex(),
+                                index -> cellStyleFactory.apply(baseStyle, region));
+        for (int rowNum = firstRow; rowNum <= lastRow; rowNum++) {
+            boolean isEdgeRow = rowNum == firstRow || rowNum == lastRow;
+            int step = isEdgeRow || firstColumn == lastColumn ? 1 : lastColumn - firstColumn;
+            for (int columnNum = firstColumn; columnNum <= lastColumn; columnNum += step) {
+                getOrCreateCell(sheet, rowNum, columnNum).setCellStyle(cellStyle);
+            }
+        }
+    }
+
+    private static Cell getOrCreateCell(Sheet sheet, int rowNum, int columnNum) {
+        Row row = sheet.getRow(rowNum);
+        if (null == row) {
+            row = sheet.createRow(rowNum);
+        }
+        Cell cell = row.getCell(columnNum);
+        if (null == cell) {
+            cell = row.createCell(columnNum);
+        }
+        return cell;
+    }
+}
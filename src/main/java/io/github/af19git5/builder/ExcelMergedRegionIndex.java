@@ -0,0 +1,97 @@
+package io.github.af19git5.builder;
+
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 合併區塊索引(依列分段存放已加入的區塊, 段內依起始行排序, 新增時檢查是否與既有區塊重疊)
+ *
+ * <p>取代POI addMergedRegion逐一比對全部區塊的檢查, 每個工作表各自使用一份
+ *
+ * <p>跨行較多的區塊另外存放, 避免段內依起始行查詢的範圍擴大到整段
+ *
+ * @author Jimmy Kang
+ */
+class ExcelMergedRegionIndex {
+
+    /** 每段列數(2的次方) */
+    private static final int BUCKET_SHIFT = 5;
+
+    /** 跨行數超過此值的區塊另外存放 */
+    private static final int WIDE_COLUMN_SPAN = 64;
+
+    /** 已加入的區塊(key: 列分段) */
+    private final Map<Integer, Bucket> bucketMap = new HashMap<>();
+
+    /**
+     * 加入合併區塊
+     *
+     * @param region 合併區塊
+     * @throws IllegalStateException 與既有區塊重疊
+     */
+    void add(CellRangeAddress region) {
+        int firstBucket = region.getFirstRow() >>> BUCKET_SHIFT;
+        int lastBucket = region.getLastRow() >>> BUCKET_SHIFT;
+        for (int bucketNum = firstBucket; bucketNum <= lastBucket; bucketNum++) {
+            Bucket bucket = bucketMap.get(bucketNum);
+            if (null == bucket) continue;
+            CellRangeAddress overlapRegion = bucket.findOverlap(region);
+            if (null != overlapRegion) {
+                throw new IllegalStateException(
+                        "Cannot add merged region "
+                                + region.formatAsString()
+                                + " because it overlaps with an existing merged region ("
+                                + overlapRegion.formatAsString()
+                                + ").");
+            }
+        }
+        for (int bucketNum = firstBucket; bucketNum <= lastBucket; bucketNum++) {
+            bucketMap.computeIfAbsent(bucketNum, key -> new Bucket()).add(region);
+        }
+    }
+
+    /** 列分段內的區塊 */
+    private static class Bucket {
+
+        /** 跨行數不超過WIDE_COLUMN_SPAN的區塊(key: 起始行) */
+        private final TreeMap<Integer, List<CellRangeAddress>> regionMap = new TreeMap<>();
+
+        /** 跨行數超過WIDE_COLUMN_SPAN的區塊(同一段內互不重疊, 數量有限) */
+        private final List<CellRangeAddress> wideRegionList = new ArrayList<>();
+
+        /** regionMap中區塊的最大跨行數(不超過WIDE_COLUMN_SPAN) */
+        private int maxColumnSpan = 0;
+
+        private void add(CellRangeAddress region) {
+            int columnSpan = region.getLastColumn() - region.getFirstColumn();
+            if (columnSpan > WIDE_COLUMN_SPAN) {
+                wideRegionList.add(region);
+                return;
+            }
+            regionMap
+                    .computeIfAbsent(region.getFirstColumn(), key -> new ArrayList<>())
+                    .add(region);
+            maxColumnSpan = Math.max(maxColumnSpan, columnSpan);
+        }
+
+        private CellRangeAddress findOverlap(CellRangeAddress region) {
+            for (CellRangeAddress existingRegion : wideRegionList) {
+                if (existingRegion.intersects(region)) return existingRegion;
+            }
+            // 起始行早於(新區塊起始行 - 最大跨行數)的區塊不可能涵蓋新區塊
+            int fromColumn = region.getFirstColumn() - maxColumnSpan;
+            for (List<CellRangeAddress> regionList :
+                    regionMap.subMap(fromColumn, true, region.getLastColumn(), true).values()) {
+                for (CellRangeAddress existingRegion : regionList) {
+                    if (existingRegion.intersects(region)) return existingRegion;
+                }
+            }
+            return null;
+        }
+    }
+}
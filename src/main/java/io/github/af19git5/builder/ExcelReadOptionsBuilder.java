@@ -0,0 +1,108 @@
+package io.github.af19git5.builder;
+
+import io.github.af19git5.entity.ExcelReadOptions;
+
+import lombok.NonNull;
+
+import java.io.File;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Excel讀取設定建構器
+ *
+ * @author Jimmy Kang
+ */
+public class ExcelReadOptionsBuilder {
+
+    private final ExcelReadOptions options;
+
+    public ExcelReadOptionsBuilder() {
+        options = new ExcelReadOptions();
+    }
+
+    public ExcelReadOptionsBuilder sheetNames(@NonNull String... sheetNames) {
+        options.getSheetNameSet().addAll(List.of(sheetNames));
+        return this;
+    }
+
+    public ExcelReadOptionsBuilder sheetIndexes(@NonNull Integer... sheetIndexes) {
+        options.getSheetIndexSet().addAll(List.of(sheetIndexes));
+        return this;
+    }
+
+    public ExcelReadOptionsBuilder columnRange(int firstColumn, int lastColumn) {
+        options.setFirstColumn(firstColumn);
+        options.setLastColumn(lastColumn);
+        return this;
+    }
+
+    public ExcelReadOptionsBuilder sparse() {
+        options.setSparse(true);
+        return this;
+    }
+
+    public ExcelReadOptionsBuilder columnar() {
+        options.setColumnar(true);
+        return this;
+    }
+
+    public ExcelReadOptionsBuilder spillToDisk(long heapBudget) {
+        options.setColumnar(true);
+        options.setHeapBudget(heapBudget);
+        return this;
+    }
+
+    public ExcelReadOptionsBuilder spillToDisk(long heapBudget, @NonNull File tempDirectory) {
+        options.setColumnar(true);
+        options.setHeapBudget(heapBudget);
+        options.setTempDirectory(tempDirectory);
+        return this;
+    }
+
+    public ExcelReadOptionsBuilder internStrings(int maxSize) {
+        options.setInternPoolSize(maxSize);
+        return this;
+    }
+
+    public ExcelReadOptionsBuilder skipStyle() {
+        options.setReadStyle(false);
+        return this;
+    }
+
+    public ExcelReadOptionsBuilder skipMergedRegion() {
+        options.setReadMergedRegion(false);
+        return this;
+    }
+
+    public ExcelReadOptionsBuilder dateTimeFormat(@NonNull String pattern) {
+        options.setDateTimeFormatter(DateTimeFormatter.ofPattern(pattern));
+        return this;
+    }
+
+    public ExcelReadOptionsBuilder dateTimeFormatter(@NonNull DateTimeFormatter formatter) {
+        options.setDateTimeFormatter(formatter);
+        return this;
+    }
+
+    public ExcelReadOptionsBuilder parallel(@NonNull Executor executor) {
+        options.setExecutor(executor);
+        return this;
+    }
+
+    public ExcelReadOptionsBuilder spoolToTempFile() {
+        options.setSpoolToTempFile(true);
+        return this;
+    }
+
+    public ExcelReadOptionsBuilder spoolToTempFile(@NonNull File tempDirectory) {
+        options.setSpoolToTempFile(true);
+        options.setTempDirectory(tempDirectory);
+        return this;
+    }
+
+    public ExcelReadOptions build() {
+        return options;
+    }
+}
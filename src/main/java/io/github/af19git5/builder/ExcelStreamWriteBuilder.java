@@ -1,5 +1,6 @@
 package io.github.af19git5.builder;
 
+import io.github.af19git5.entity.ExcelFontRegistry;
 import io.github.af19git5.entity.ExcelStreamCell;
 import io.github.af19git5.entity.ExcelStreamMergedRegion;
 import io.github.af19git5.entity.ExcelStreamStyle;
@@ -9,15 +10,20 @@ import lombok.NonNull;
 
 import org.apache.poi.ss.usermodel.BorderStyle;
 import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.xssf.streaming.SXSSFCell;
 import org.apache.poi.xssf.streaming.SXSSFRow;
 import org.apache.poi.xssf.streaming.SXSSFSheet;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.*;
 
 /**
@@ -27,16 +33,33 @@ import java.util.*;
  */
 public class ExcelStreamWriteBuilder implements AutoCloseable {
 
+    /** 寫入WritableByteChannel時的緩衝大小 */
+    private static final int BUFFER_SIZE = 1 << 16;
+
     private final SXSSFWorkbook workbook;
     private final Map<String, SXSSFSheet> sheetMap;
     private final Map<String, List<ExcelStreamCell>> cellMap;
-    private final Map<ExcelStreamStyle, CellStyle> cellStyleMap;
+    private final Map<String, ExcelMergedRegionIndex> mergedRegionIndexMap;
+    private final ExcelCellStyleRegistry<ExcelStreamStyle, CellStyle> cellStyleRegistry;
+    private final Map<String, ExcelColumnWidthEstimator> widthEstimatorMap;
+    private final ExcelMergedBorderStyleCache<ExcelStreamMergedRegion, CellStyle>
+            mergedBorderStyleCache;
 
     public ExcelStreamWriteBuilder() {
         workbook = new SXSSFWorkbook();
         sheetMap = new HashMap<>();
         cellMap = new HashMap<>();
-        cellStyleMap = new HashMap<>();
+        mergedRegionIndexMap = new HashMap<>();
+        widthEstimatorMap = new HashMap<>();
+        ExcelFontRegistry fontRegistry = new ExcelFontRegistry(workbook);
+        cellStyleRegistry =
+                new ExcelCellStyleRegistry<>(
+                        ExcelStreamStyle::toStyleKey,
+                        style -> style.toCellStyle(workbook, fontRegistry));
+        mergedBorderStyleCache =
+                new ExcelMergedBorderStyleCache<>(
+                        ExcelStreamMergedRegion::toBorderStyleKey,
+                        this::createMergedBorderStyle);
     }
 
     /**
@@ -49,6 +72,24 @@ public class ExcelStreamWriteBuilder implements AutoCloseable {
     public ExcelStreamWriteBuilder createSheet(@NonNull String sheetCode, @NonNull String name) {
         sheetMap.put(sheetCode, workbook.createSheet(name));
         cellMap.put(sheetCode, new ArrayList<>());
+        mergedRegionIndexMap.put(sheetCode, new ExcelMergedRegionIndex());
+        return this;
+    }
+
+    /**
+     * 以字寬表估算欄位寬度(寫入資料流時記錄每欄最大寬度, 輸出時一次設定)
+     *
+     * <p>請於建立工作表後、寫入欄位資料及覆寫欄位寬度前呼叫
+     *
+     * @param sheetCode 工作表代碼
+     * @return 原方法
+     */
+    public ExcelStreamWriteBuilder estimateColumnWidth(@NonNull String sheetCode) {
+        if (!sheetMap.containsKey(sheetCode)) {
+            return this;
+        }
+        widthEstimatorMap.computeIfAbsent(
+                sheetCode, code -> new ExcelColumnWidthEstimator(workbook));
         return this;
     }
 
@@ -58,6 +99,7 @@ public class ExcelStreamWriteBuilder implements AutoCloseable {
      * @param sheetCode 工作表代碼
      * @param mergedRegions 欄位合併規則
      * @return 原方法
+     * @throws IllegalStateException 與已加入的合併區塊重疊
      */
     public ExcelStreamWriteBuilder mergedRegions(
             @NonNull String sheetCode, @NonNull ExcelStreamMergedRegion... mergedRegions) {
@@ -65,66 +107,30 @@ public class ExcelStreamWriteBuilder implements AutoCloseable {
         if (null == sheet) {
             return this;
         }
+        ExcelColumnWidthEstimator widthEstimator = widthEstimatorMap.get(sheetCode);
+        ExcelMergedRegionIndex mergedRegionIndex = mergedRegionIndexMap.get(sheetCode);
         for (ExcelStreamMergedRegion mergedRegion : mergedRegions) {
-            sheet.addMergedRegionUnsafe(
+            CellRangeAddress cellAddresses =
                     new CellRangeAddress(
                             mergedRegion.getFirstRow(),
                             mergedRegion.getLastRow(),
                             mergedRegion.getFirstColumn(),
-                            mergedRegion.getLastColumn()));
-            CellStyle cellStyle = null;
-            for (int rowNum = mergedRegion.getFirstRow();
-                    rowNum <= mergedRegion.getLastRow();
-                    rowNum++) {
-                SXSSFRow sxssfRow = sheet.getRow(rowNum);
-                if (null == sxssfRow) {
-                    sxssfRow = sheet.createRow(rowNum);
-                }
-                for (int columnNum = mergedRegion.getFirstColumn();
-                        columnNum <= mergedRegion.getLastColumn();
-                        columnNum++) {
-                    SXSSFCell sxssfCell = sxssfRow.getCell(columnNum);
-                    if (null == sxssfCell) {
-                        sxssfCell = sxssfRow.createCell(columnNum);
-                    }
-                    if (rowNum == mergedRegion.getFirstRow()
-                            && columnNum == mergedRegion.getFirstColumn()) {
-                        cellStyle = workbook.createCellStyle();
-                        cellStyle.cloneStyleFrom(sxssfCell.getCellStyle());
-                        if (!mergedRegion.getBorderTop().equals(BorderStyle.NONE)) {
-                            cellStyle.setBorderTop(mergedRegion.getBorderTop());
-                            if (null != mergedRegion.getBorderTopColor()) {
-                                cellStyle.setTopBorderColor(
-                                        mergedRegion.getBorderTopColor().getIndex());
-                            }
-                        }
-                        if (!mergedRegion.getBorderBottom().equals(BorderStyle.NONE)) {
-                            cellStyle.setBorderBottom(mergedRegion.getBorderBottom());
-                            if (null != mergedRegion.getBorderBottomColor()) {
-                                cellStyle.setBottomBorderColor(
-                                        mergedRegion.getBorderBottomColor().getIndex());
-                            }
-                        }
-                        if (!mergedRegion.getBorderLeft().equals(BorderStyle.NONE)) {
-                            cellStyle.setBorderLeft(mergedRegion.getBorderLeft());
-                            if (null != mergedRegion.getBorderLeftColor()) {
-                                cellStyle.setLeftBorderColor(
-                                        mergedRegion.getBorderLeftColor().getIndex());
-                            }
-                        }
-                        if (!mergedRegion.getBorderRight().equals(BorderStyle.NONE)) {
-                            cellStyle.setBorderRight(mergedRegion.getBorderRight());
-                            if (null != mergedRegion.getBorderRightColor()) {
-                                cellStyle.setRightBorderColor(
-                                        mergedRegion.getBorderRightColor().getIndex());
-                            }
-                        }
-                    }
-                    if (null != cellStyle) {
-                        sxssfCell.setCellStyle(cellStyle);
-                    }
-                }
+                            mergedRegion.getLastColumn());
+            mergedRegionIndex.add(cellAddresses);
+            sheet.addMergedRegionUnsafe(cellAddresses);
+            if (null != widthEstimator) {
+                widthEstimator.addMergedRegion(
+                        mergedRegion.getFirstRow(),
+                        mergedRegion.getFirstColumn(),
+                        mergedRegion.getLastColumn());
             }
+            mergedBorderStyleCache.apply(
+                    sheet,
+                    mergedRegion,
+                    mergedRegion.getFirstRow(),
+                    mergedRegion.getLastRow(),
+                    mergedRegion.getFirstColumn(),
+                    mergedRegion.getLastColumn());
         }
         return this;
     }
@@ -235,6 +241,10 @@ public class ExcelStreamWriteBuilder implements AutoCloseable {
             return this;
         }
         sheet.setColumnWidth(columnNum, width);
+        ExcelColumnWidthEstimator widthEstimator = widthEstimatorMap.get(sheetCode);
+        if (null != widthEstimator) {
+            widthEstimator.exclude(columnNum);
+        }
         return this;
     }
 
@@ -281,6 +291,7 @@ public class ExcelStreamWriteBuilder implements AutoCloseable {
         if (cellList == null) {
             return this;
         }
+        ExcelColumnWidthEstimator widthEstimator = widthEstimatorMap.get(sheetCode);
         for (ExcelStreamCell cell : cellList) {
             SXSSFRow row = sheet.getRow(cell.getRow());
             if (null == row) {
@@ -308,14 +319,21 @@ public class ExcelStreamWriteBuilder implements AutoCloseable {
                     break;
             }
             if (null != cell.getStyle()) {
-                CellStyle cellStyle = cellStyleMap.get(cell.getStyle());
-                if (null == cellStyle) {
-                    cellStyle = cell.getStyle().toCellStyle(workbook);
-                    cellStyleMap.put(cell.getStyle(), cellStyle);
-                }
-                sxssfCell.setCellStyle(cellStyle);
+                sxssfCell.setCellStyle(cellStyleRegistry.get(cell.getStyle()));
+            }
+            if (null != widthEstimator && !CellType.FORMULA.equals(cell.getCellType())) {
+                ExcelStreamStyle style = cell.getStyle();
+                widthEstimator.add(
+                        cell.getRow(),
+                        cell.getColumn(),
+                        cell.getValue(),
+                        null == style ? null : style.getFontName(),
+                        null == style ? null : style.getFontSize(),
+                        null != style && style.getBold());
             }
         }
+        // 樣式物件於下次寫入前可能被修改, 下次寫入時重新比對內容
+        cellStyleRegistry.clearIdentityCache();
         try {
             sheet.flushRows();
         } catch (IOException e) {
@@ -325,6 +343,45 @@ public class ExcelStreamWriteBuilder implements AutoCloseable {
         return this;
     }
 
+    /**
+     * 建立合併區塊邊線樣式(以原樣式加上邊線設定)
+     *
+     * @param baseStyle 原樣式
+     * @param mergedRegion 合併欄位規則
+     * @return 邊線樣式, 未設定邊線時回傳原樣式
+     */
+    private CellStyle createMergedBorderStyle(
+            CellStyle baseStyle, ExcelStreamMergedRegion mergedRegion) {
+        if (!mergedRegion.hasBorder()) return baseStyle;
+        CellStyle cellStyle = workbook.createCellStyle();
+        cellStyle.cloneStyleFrom(baseStyle);
+        if (!mergedRegion.getBorderTop().equals(BorderStyle.NONE)) {
+            cellStyle.setBorderTop(mergedRegion.getBorderTop());
+            if (null != mergedRegion.getBorderTopColor()) {
+                cellStyle.setTopBorderColor(mergedRegion.getBorderTopColor().getIndex());
+            }
+        }
+        if (!mergedRegion.getBorderBottom().equals(BorderStyle.NONE)) {
+            cellStyle.setBorderBottom(mergedRegion.getBorderBottom());
+            if (null != mergedRegion.getBorderBottomColor()) {
+                cellStyle.setBottomBorderColor(mergedRegion.getBorderBottomColor().getIndex());
+            }
+        }
+        if (!mergedRegion.getBorderLeft().equals(BorderStyle.NONE)) {
+            cellStyle.setBorderLeft(mergedRegion.getBorderLeft());
+            if (null != mergedRegion.getBorderLeftColor()) {
+                cellStyle.setLeftBorderColor(mergedRegion.getBorderLeftColor().getIndex());
+            }
+        }
+        if (!mergedRegion.getBorderRight().equals(BorderStyle.NONE)) {
+            cellStyle.setBorderRight(mergedRegion.getBorderRight());
+            if (null != mergedRegion.getBorderRightColor()) {
+                cellStyle.setRightBorderColor(mergedRegion.getBorderRightColor().getIndex());
+            }
+        }
+        return cellStyle;
+    }
+
     /**
      * 輸出xlsx
      *
@@ -341,7 +398,39 @@ public class ExcelStreamWriteBuilder implements AutoCloseable {
      */
     public void outputXlsx(@NonNull File file) throws ExcelException {
         try (FileOutputStream fos = new FileOutputStream(file)) {
-            workbook.write(fos);
+            outputXlsx(fos);
+        } catch (IOException e) {
+            throw new ExcelException(e);
+        }
+    }
+
+    /**
+     * 輸出xlsx(直接寫入, 不另外保存整份檔案)
+     *
+     * @param outputStream OutputStream(不負責關閉)
+     */
+    public void outputXlsx(@NonNull OutputStream outputStream) throws ExcelException {
+        // 處理估算欄位寬度
+        widthEstimatorMap.forEach(
+                (sheetCode, widthEstimator) -> widthEstimator.apply(sheetMap.get(sheetCode)));
+        try {
+            workbook.write(outputStream);
+        } catch (IOException e) {
+            throw new ExcelException(e);
+        }
+    }
+
+    /**
+     * 輸出xlsx(直接寫入, 不另外保存整份檔案)
+     *
+     * @param channel WritableByteChannel(不負責關閉)
+     */
+    public void outputXlsx(@NonNull WritableByteChannel channel) throws ExcelException {
+        BufferedOutputStream outputStream =
+                new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+        outputXlsx(outputStream);
+        try {
+            outputStream.flush();
         } catch (IOException e) {
             throw new ExcelException(e);
         }
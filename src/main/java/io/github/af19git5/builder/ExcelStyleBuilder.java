@@ -134,6 +134,11 @@ public class ExcelStyleBuilder {
         return this;
     }
 
+    public ExcelStyleBuilder dataFormat(@NonNull String dataFormat) {
+        style.setDataFormat(dataFormat);
+        return this;
+    }
+
     public ExcelStyle build() {
         return style;
     }
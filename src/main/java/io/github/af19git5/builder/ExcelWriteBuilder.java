@@ -1,25 +1,30 @@
 package io.github.af19git5.builder;
 
 import io.github.af19git5.entity.ExcelCell;
+import io.github.af19git5.entity.ExcelColorRegistry;
+import io.github.af19git5.entity.ExcelFontRegistry;
 import io.github.af19git5.entity.ExcelMergedRegion;
 import io.github.af19git5.entity.ExcelSheet;
 import io.github.af19git5.entity.ExcelStyle;
 import io.github.af19git5.exception.ExcelException;
+import io.github.af19git5.service.ExcelBeanBinding;
 
 import lombok.NonNull;
 
 import org.apache.poi.hssf.usermodel.*;
-import org.apache.poi.hssf.util.HSSFColor;
 import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.xssf.usermodel.*;
-import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTColor;
 
-import java.awt.*;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -33,10 +38,13 @@ import java.util.Map;
  */
 public class ExcelWriteBuilder {
 
+    /** 寫入WritableByteChannel時的緩衝大小 */
+    private static final int BUFFER_SIZE = 1 << 16;
+
     private final List<ExcelSheet> sheetList;
 
-    private final Map<ExcelStyle, HSSFCellStyle> hssfCellStyleMap = new HashMap<>();
-    private final Map<ExcelStyle, XSSFCellStyle> xssfCellStyleMap = new HashMap<>();
+    /** 是否以字寬表估算欄位寬度 */
+    private boolean isEstimateColumnWidth = false;
 
     public ExcelWriteBuilder() {
         this.sheetList = new ArrayList<>();
@@ -57,6 +65,49 @@ public class ExcelWriteBuilder {
         return this;
     }
 
+    /**
+     * 將物件資料加入為新工作表(第一列為標題列, 工作表名稱依序為Sheet1、Sheet2...)
+     *
+     * @param rowList 物件資料
+     * @param type 物件類別(以@ExcelColumn標示對應欄位)
+     * @return excel寫出建構器
+     * @throws ExcelException Excel處理錯誤
+     */
+    public <T> ExcelWriteBuilder addRows(@NonNull List<T> rowList, @NonNull Class<T> type)
+            throws ExcelException {
+        return addRows("Sheet" + (sheetList.size() + 1), rowList, type);
+    }
+
+    /**
+     * 將物件資料加入為新工作表(第一列為標題列)
+     *
+     * @param sheetName 工作表名稱
+     * @param rowList 物件資料
+     * @param type 物件類別(以@ExcelColumn標示對應欄位)
+     * @return excel寫出建構器
+     * @throws ExcelException Excel處理錯誤
+     */
+    public <T> ExcelWriteBuilder addRows(
+            @NonNull String sheetName, @NonNull List<T> rowList, @NonNull Class<T> type)
+            throws ExcelException {
+        ExcelBeanBinding<T> binding = ExcelBeanBinding.of(type);
+        List<ExcelCell> cellList = new ArrayList<>(binding.toHeaderCellList(0));
+        for (int i = 0; i < rowList.size(); i++) {
+            cellList.addAll(binding.toCellList(rowList.get(i), i + 1));
+        }
+        return addSheet(new ExcelSheet(sheetName, cellList));
+    }
+
+    /**
+     * 以字寬表估算欄位寬度取代autoSizeColumn(寫入欄位時記錄每欄最大寬度, 不使用AWT字體量測)
+     *
+     * @return excel寫出建構器
+     */
+    public ExcelWriteBuilder estimateColumnWidth() {
+        this.isEstimateColumnWidth = true;
+        return this;
+    }
+
     public ExcelWriteBuilder clearSheet() {
         this.sheetList.clear();
         return this;
@@ -70,11 +121,25 @@ public class ExcelWriteBuilder {
     private HSSFWorkbook buildHSSFWorkbook() {
         // 新建工作簿
         HSSFWorkbook workbook = new HSSFWorkbook();
-        HSSFPalette palette = workbook.getCustomPalette();
+        ExcelFontRegistry fontRegistry = new ExcelFontRegistry(workbook);
+        ExcelColorRegistry colorRegistry = new ExcelColorRegistry(workbook);
+        ExcelCellStyleRegistry<ExcelStyle, HSSFCellStyle> cellStyleRegistry =
+                new ExcelCellStyleRegistry<>(
+                        ExcelStyle::toStyleKey,
+                        style -> style.toHSSCellStyle(workbook, fontRegistry, colorRegistry));
+        ExcelMergedBorderStyleCache<ExcelMergedRegion, HSSFCellStyle> mergedBorderStyleCache =
+                new ExcelMergedBorderStyleCache<>(
+                        ExcelMergedRegion::toBorderStyleKey,
+                        (baseStyle, mergedRegion) ->
+                                createMergedBorderStyle(
+                                        workbook, colorRegistry, baseStyle, mergedRegion));
         for (ExcelSheet sheet : sheetList) {
             // 建立工作表
             HSSFSheet hssfSheet = workbook.createSheet(sheet.getName());
-            // 處理表格欄位合併
+            ExcelColumnWidthEstimator widthEstimator =
+                    isEstimateColumnWidth ? new ExcelColumnWidthEstimator(workbook) : null;
+            // 處理表格欄位合併(以索引檢查區塊重疊)
+            ExcelMergedRegionIndex mergedRegionIndex = new ExcelMergedRegionIndex();
             for (ExcelMergedRegion mergedRegion : sheet.getMergedRegionList()) {
                 if (mergedRegion.getFirstRow().equals(mergedRegion.getLastRow())
                         && mergedRegion.getFirstColumn().equals(mergedRegion.getLastColumn())) {
@@ -87,7 +152,14 @@ public class ExcelWriteBuilder {
                                 mergedRegion.getLastRow(),
                                 mergedRegion.getFirstColumn(),
                                 mergedRegion.getLastColumn());
-                hssfSheet.addMergedRegion(cellAddresses);
+                mergedRegionIndex.add(cellAddresses);
+                hssfSheet.addMergedRegionUnsafe(cellAddresses);
+                if (null != widthEstimator) {
+                    widthEstimator.addMergedRegion(
+                            mergedRegion.getFirstRow(),
+                            mergedRegion.getFirstColumn(),
+                            mergedRegion.getLastColumn());
+                }
             }
             // 處理欄位資料
             Map<Integer, HSSFRow> rowMap = new HashMap<>();
@@ -111,6 +183,11 @@ public class ExcelWriteBuilder {
                         break;
                     case NUMERIC:
                         hssfCell.setCellType(cell.getCellType());
+                        if (null != cell.getLocalDateTime()) {
+                            // 日期欄位寫入日期序號, 顯示格式由欄位樣式決定
+                            hssfCell.setCellValue(cell.getLocalDateTime());
+                            break;
+                        }
                         try {
                             hssfCell.setCellValue(Double.parseDouble(cell.getValue()));
                         } catch (NumberFormatException e) {
@@ -123,92 +200,21 @@ public class ExcelWriteBuilder {
                         break;
                 }
                 if (null != cell.getStyle()) {
-                    HSSFCellStyle hssfCellStyle = hssfCellStyleMap.get(cell.getStyle());
-                    if (null == hssfCellStyle) {
-                        hssfCellStyle = cell.getStyle().toHSSCellStyle(workbook);
-                        hssfCellStyleMap.put(cell.getStyle(), hssfCellStyle);
-                    }
-                    hssfCell.setCellStyle(hssfCellStyle);
+                    hssfCell.setCellStyle(cellStyleRegistry.get(cell.getStyle()));
+                }
+                if (null != widthEstimator) {
+                    addColumnWidth(widthEstimator, cell);
                 }
             }
             // 處理表格欄位合併邊線顏色
             for (ExcelMergedRegion mergedRegion : sheet.getMergedRegionList()) {
-                HSSFCellStyle cellStyle = null;
-                for (int rowNum = mergedRegion.getFirstRow();
-                        rowNum <= mergedRegion.getLastRow();
-                        rowNum++) {
-                    HSSFRow hssfRow = hssfSheet.getRow(rowNum);
-                    if (null == hssfRow) {
-                        hssfRow = hssfSheet.createRow(rowNum);
-                    }
-                    for (int columnNum = mergedRegion.getFirstColumn();
-                            columnNum <= mergedRegion.getLastColumn();
-                            columnNum++) {
-                        HSSFCell hssfCell = hssfRow.getCell(columnNum);
-                        if (null == hssfCell) {
-                            hssfCell = hssfRow.createCell(columnNum);
-                        }
-                        if (rowNum == mergedRegion.getFirstRow()
-                                && columnNum == mergedRegion.getFirstColumn()) {
-                            cellStyle = workbook.createCellStyle();
-                            cellStyle.cloneStyleFrom(hssfCell.getCellStyle());
-                            if (!mergedRegion.getBorderTop().equals(BorderStyle.NONE)) {
-                                cellStyle.setBorderTop(mergedRegion.getBorderTop());
-                                if (null != mergedRegion.getBorderTopColor()) {
-                                    Color rgbColor = Color.decode(mergedRegion.getBorderTopColor());
-                                    HSSFColor color =
-                                            palette.findSimilarColor(
-                                                    (byte) rgbColor.getRed(),
-                                                    (byte) rgbColor.getGreen(),
-                                                    (byte) rgbColor.getBlue());
-                                    cellStyle.setTopBorderColor(color.getIndex());
-                                }
-                            }
-                            if (!mergedRegion.getBorderBottom().equals(BorderStyle.NONE)) {
-                                cellStyle.setBorderBottom(mergedRegion.getBorderBottom());
-                                if (null != mergedRegion.getBorderBottomColor()) {
-                                    Color rgbColor =
-                                            Color.decode(mergedRegion.getBorderBottomColor());
-                                    HSSFColor color =
-                                            palette.findSimilarColor(
-                                                    (byte) rgbColor.getRed(),
-                                                    (byte) rgbColor.getGreen(),
-                                                    (byte) rgbColor.getBlue());
-                                    cellStyle.setBottomBorderColor(color.getIndex());
-                                }
-                            }
-                            if (!mergedRegion.getBorderLeft().equals(BorderStyle.NONE)) {
-                                cellStyle.setBorderLeft(mergedRegion.getBorderLeft());
-                                if (null != mergedRegion.getBorderLeftColor()) {
-                                    Color rgbColor =
-                                            Color.decode(mergedRegion.getBorderLeftColor());
-                                    HSSFColor color =
-                                            palette.findSimilarColor(
-                                                    (byte) rgbColor.getRed(),
-                                                    (byte) rgbColor.getGreen(),
-                                                    (byte) rgbColor.getBlue());
-                                    cellStyle.setLeftBorderColor(color.getIndex());
-                                }
-                            }
-                            if (!mergedRegion.getBorderRight().equals(BorderStyle.NONE)) {
-                                cellStyle.setBorderRight(mergedRegion.getBorderRight());
-                                if (null != mergedRegion.getBorderRightColor()) {
-                                    Color rgbColor =
-                                            Color.decode(mergedRegion.getBorderRightColor());
-                                    HSSFColor color =
-                                            palette.findSimilarColor(
-                                                    (byte) rgbColor.getRed(),
-                                                    (byte) rgbColor.getGreen(),
-                                                    (byte) rgbColor.getBlue());
-                                    cellStyle.setRightBorderColor(color.getIndex());
-                                }
-                            }
-                        }
-                        if (null != cellStyle) {
-                            hssfCell.setCellStyle(cellStyle);
-                        }
-                    }
-                }
+                mergedBorderStyleCache.apply(
+                        hssfSheet,
+                        mergedRegion,
+                        mergedRegion.getFirstRow(),
+                        mergedRegion.getLastRow(),
+                        mergedRegion.getFirstColumn(),
+                        mergedRegion.getLastColumn());
             }
             // 處理行列隱藏
             for (Integer rowNum : sheet.getHiddenRowNumSet()) {
@@ -218,8 +224,12 @@ public class ExcelWriteBuilder {
                 hssfSheet.setColumnHidden(columnNum, true);
             }
             // 處理自動適應寬度
-            for (int columnNum = 0; columnNum <= maxColumnNum; columnNum++) {
-                hssfSheet.autoSizeColumn(columnNum);
+            if (null != widthEstimator) {
+                widthEstimator.apply(hssfSheet);
+            } else {
+                for (int columnNum = 0; columnNum <= maxColumnNum; columnNum++) {
+                    hssfSheet.autoSizeColumn(columnNum);
+                }
             }
             // 處理欄位覆寫寬度
             sheet.getOverrideColumnWidthMap().forEach(hssfSheet::setColumnWidth);
@@ -241,10 +251,25 @@ public class ExcelWriteBuilder {
     private XSSFWorkbook buildXSSFWorkbook() {
         // 新建工作簿
         XSSFWorkbook workbook = new XSSFWorkbook();
+        ExcelFontRegistry fontRegistry = new ExcelFontRegistry(workbook);
+        ExcelColorRegistry colorRegistry = new ExcelColorRegistry(workbook);
+        ExcelCellStyleRegistry<ExcelStyle, XSSFCellStyle> cellStyleRegistry =
+                new ExcelCellStyleRegistry<>(
+                        ExcelStyle::toStyleKey,
+                        style -> style.toXSSCellStyle(workbook, fontRegistry, colorRegistry));
+        ExcelMergedBorderStyleCache<ExcelMergedRegion, XSSFCellStyle> mergedBorderStyleCache =
+                new ExcelMergedBorderStyleCache<>(
+                        ExcelMergedRegion::toBorderStyleKey,
+                        (baseStyle, mergedRegion) ->
+                                createMergedBorderStyle(
+                                        workbook, colorRegistry, baseStyle, mergedRegion));
         for (ExcelSheet sheet : sheetList) {
             // 建立工作表
             XSSFSheet xssfSheet = workbook.createSheet(sheet.getName());
-            // 處理表格欄位合併
+            ExcelColumnWidthEstimator widthEstimator =
+                    isEstimateColumnWidth ? new ExcelColumnWidthEstimator(workbook) : null;
+            // 處理表格欄位合併(以索引檢查區塊重疊)
+            ExcelMergedRegionIndex mergedRegionIndex = new ExcelMergedRegionIndex();
             for (ExcelMergedRegion mergedRegion : sheet.getMergedRegionList()) {
                 if (mergedRegion.getFirstRow().equals(mergedRegion.getLastRow())
                         && mergedRegion.getFirstColumn().equals(mergedRegion.getLastColumn())) {
@@ -257,7 +282,14 @@ public class ExcelWriteBuilder {
                                 mergedRegion.getLastRow(),
                                 mergedRegion.getFirstColumn(),
                                 mergedRegion.getLastColumn());
+                mergedRegionIndex.add(cellAddresses);
                 xssfSheet.addMergedRegionUnsafe(cellAddresses);
+                if (null != widthEstimator) {
+                    widthEstimator.addMergedRegion(
+                            mergedRegion.getFirstRow(),
+                            mergedRegion.getFirstColumn(),
+                            mergedRegion.getLastColumn());
+                }
             }
             // 處理欄位資料
             Map<Integer, XSSFRow> rowMap = new HashMap<>();
@@ -281,6 +313,11 @@ public class ExcelWriteBuilder {
                         break;
                     case NUMERIC:
                         xssfCell.setCellType(cell.getCellType());
+                        if (null != cell.getLocalDateTime()) {
+                            // 日期欄位寫入日期序號, 顯示格式由欄位樣式決定
+                            xssfCell.setCellValue(cell.getLocalDateTime());
+                            break;
+                        }
                         try {
                             xssfCell.setCellValue(Double.parseDouble(cell.getValue()));
                         } catch (NumberFormatException e) {
@@ -293,88 +330,22 @@ public class ExcelWriteBuilder {
                         break;
                 }
                 if (null != cell.getStyle()) {
-                    XSSFCellStyle xssfCellStyle = xssfCellStyleMap.get(cell.getStyle());
-                    if (null == xssfCellStyle) {
-                        xssfCellStyle = cell.getStyle().toXSSCellStyle(workbook);
-                        xssfCellStyleMap.put(cell.getStyle(), xssfCellStyle);
-                    }
-                    xssfCell.setCellStyle(xssfCellStyle);
+                    xssfCell.setCellStyle(cellStyleRegistry.get(cell.getStyle()));
+                }
+                if (null != widthEstimator) {
+                    addColumnWidth(widthEstimator, cell);
                 }
             }
 
             // 處理表格欄位合併邊線顏色
             for (ExcelMergedRegion mergedRegion : sheet.getMergedRegionList()) {
-                XSSFCellStyle cellStyle = null;
-                for (int rowNum = mergedRegion.getFirstRow();
-                        rowNum <= mergedRegion.getLastRow();
-                        rowNum++) {
-                    XSSFRow xssfRow = xssfSheet.getRow(rowNum);
-                    if (null == xssfRow) {
-                        xssfRow = xssfSheet.createRow(rowNum);
-                    }
-                    for (int columnNum = mergedRegion.getFirstColumn();
-                            columnNum <= mergedRegion.getLastColumn();
-                            columnNum++) {
-                        XSSFCell xssfCell = xssfRow.getCell(columnNum);
-                        if (null == xssfCell) {
-                            xssfCell = xssfRow.createCell(columnNum);
-                        }
-                        if (rowNum == mergedRegion.getFirstRow()
-                                && columnNum == mergedRegion.getFirstColumn()) {
-                            cellStyle = xssfCell.getCellStyle().copy();
-                            if (!mergedRegion.getBorderTop().equals(BorderStyle.NONE)) {
-                                cellStyle.setBorderTop(mergedRegion.getBorderTop());
-                                if (null != mergedRegion.getBorderTopColor()) {
-                                    XSSFColor color =
-                                            XSSFColor.from(
-                                                    CTColor.Factory.newInstance(),
-                                                    new DefaultIndexedColorMap());
-                                    color.setARGBHex(mergedRegion.getBorderTopColor().substring(1));
-                                    cellStyle.setTopBorderColor(color);
-                                }
-                            }
-                            if (!mergedRegion.getBorderBottom().equals(BorderStyle.NONE)) {
-                                cellStyle.setBorderBottom(mergedRegion.getBorderBottom());
-                                if (null != mergedRegion.getBorderBottomColor()) {
-                                    XSSFColor color =
-                                            XSSFColor.from(
-                                                    CTColor.Factory.newInstance(),
-                                                    new DefaultIndexedColorMap());
-                                    color.setARGBHex(
-                                            mergedRegion.getBorderBottomColor().substring(1));
-                                    cellStyle.setBottomBorderColor(color);
-                                }
-                            }
-                            if (!mergedRegion.getBorderLeft().equals(BorderStyle.NONE)) {
-                                cellStyle.setBorderLeft(mergedRegion.getBorderLeft());
-                                if (null != mergedRegion.getBorderLeftColor()) {
-                                    XSSFColor color =
-                                            XSSFColor.from(
-                                                    CTColor.Factory.newInstance(),
-                                                    new DefaultIndexedColorMap());
-                                    color.setARGBHex(
-                                            mergedRegion.getBorderLeftColor().substring(1));
-                                    cellStyle.setLeftBorderColor(color);
-                                }
-                            }
-                            if (!mergedRegion.getBorderRight().equals(BorderStyle.NONE)) {
-                                cellStyle.setBorderRight(mergedRegion.getBorderRight());
-                                if (null != mergedRegion.getBorderRightColor()) {
-                                    XSSFColor color =
-                                            XSSFColor.from(
-                                                    CTColor.Factory.newInstance(),
-                                                    new DefaultIndexedColorMap());
-                                    color.setARGBHex(
-                                            mergedRegion.getBorderRightColor().substring(1));
-                                    cellStyle.setRightBorderColor(color);
-                                }
-                            }
-                        }
-                        if (null != cellStyle) {
-                            xssfCell.setCellStyle(cellStyle);
-                        }
-                    }
-                }
+                mergedBorderStyleCache.apply(
+                        xssfSheet,
+                        mergedRegion,
+                        mergedRegion.getFirstRow(),
+                        mergedRegion.getLastRow(),
+                        mergedRegion.getFirstColumn(),
+                        mergedRegion.getLastColumn());
             }
             // 處理行列隱藏
             for (Integer rowNum : sheet.getHiddenRowNumSet()) {
@@ -384,8 +355,12 @@ public class ExcelWriteBuilder {
                 xssfSheet.setColumnHidden(columnNum, true);
             }
             // 處理自動適應寬度
-            for (int columnNum = 0; columnNum <= maxColumnNum; columnNum++) {
-                xssfSheet.autoSizeColumn(columnNum);
+            if (null != widthEstimator) {
+                widthEstimator.apply(xssfSheet);
+            } else {
+                for (int columnNum = 0; columnNum <= maxColumnNum; columnNum++) {
+                    xssfSheet.autoSizeColumn(columnNum);
+                }
             }
             // 處理欄位覆寫寬度
             sheet.getOverrideColumnWidthMap().forEach(xssfSheet::setColumnWidth);
@@ -399,6 +374,124 @@ public class ExcelWriteBuilder {
         return workbook;
     }
 
+    /**
+     * 建立合併區塊邊線樣式(xls, 以原樣式加上邊線設定)
+     *
+     * @param workbook HSSFWorkbook
+     * @param colorRegistry 顏色登記表
+     * @param baseStyle 原樣式
+     * @param mergedRegion 合併欄位規則
+     * @return 邊線樣式, 未設定邊線時回傳原樣式
+     */
+    private static HSSFCellStyle createMergedBorderStyle(
+            HSSFWorkbook workbook,
+            ExcelColorRegistry colorRegistry,
+            HSSFCellStyle baseStyle,
+            ExcelMergedRegion mergedRegion) {
+        if (!mergedRegion.hasBorder()) return baseStyle;
+        HSSFCellStyle cellStyle = workbook.createCellStyle();
+        cellStyle.cloneStyleFrom(baseStyle);
+        if (!mergedRegion.getBorderTop().equals(BorderStyle.NONE)) {
+            cellStyle.setBorderTop(mergedRegion.getBorderTop());
+            if (null != mergedRegion.getBorderTopColor()) {
+                cellStyle.setTopBorderColor(
+                        colorRegistry.getIndex(mergedRegion.getBorderTopColor()));
+            }
+        }
+        if (!mergedRegion.getBorderBottom().equals(BorderStyle.NONE)) {
+            cellStyle.setBorderBottom(mergedRegion.getBorderBottom());
+            if (null != mergedRegion.getBorderBottomColor()) {
+                cellStyle.setBottomBorderColor(
+                        colorRegistry.getIndex(mergedRegion.getBorderBottomColor()));
+            }
+        }
+        if (!mergedRegion.getBorderLeft().equals(BorderStyle.NONE)) {
+            cellStyle.setBorderLeft(mergedRegion.getBorderLeft());
+            if (null != mergedRegion.getBorderLeftColor()) {
+                cellStyle.setLeftBorderColor(
+                        colorRegistry.getIndex(mergedRegion.getBorderLeftColor()));
+            }
+        }
+        if (!mergedRegion.getBorderRight().equals(BorderStyle.NONE)) {
+            cellStyle.setBorderRight(mergedRegion.getBorderRight());
+            if (null != mergedRegion.getBorderRightColor()) {
+                cellStyle.setRightBorderColor(
+                        colorRegistry.getIndex(mergedRegion.getBorderRightColor()));
+            }
+        }
+        return cellStyle;
+    }
+
+    /**
+     * 建立合併區塊邊線樣式(xlsx, 以原樣式加上邊線設定)
+     *
+     * @param workbook XSSFWorkbook
+     * @param colorRegistry 顏色登記表
+     * @param baseStyle 原樣式
+     * @param mergedRegion 合併欄位規則
+     * @return 邊線樣式, 未設定邊線時回傳原樣式
+     */
+    private static XSSFCellStyle createMergedBorderStyle(
+            XSSFWorkbook workbook,
+            ExcelColorRegistry colorRegistry,
+            XSSFCellStyle baseStyle,
+            ExcelMergedRegion mergedRegion) {
+        if (!mergedRegion.hasBorder()) return baseStyle;
+        XSSFCellStyle cellStyle = workbook.createCellStyle();
+        cellStyle.cloneStyleFrom(baseStyle);
+        if (!mergedRegion.getBorderTop().equals(BorderStyle.NONE)) {
+            cellStyle.setBorderTop(mergedRegion.getBorderTop());
+            if (null != mergedRegion.getBorderTopColor()) {
+                cellStyle.setTopBorderColor(
+                        colorRegistry.getXSSFColor(mergedRegion.getBorderTopColor()));
+            }
+        }
+        if (!mergedRegion.getBorderBottom().equals(BorderStyle.NONE)) {
+            cellStyle.setBorderBottom(mergedRegion.getBorderBottom());
+            if (null != mergedRegion.getBorderBottomColor()) {
+                cellStyle.setBottomBorderColor(
+                        colorRegistry.getXSSFColor(mergedRegion.getBorderBottomColor()));
+            }
+        }
+        if (!mergedRegion.getBorderLeft().equals(BorderStyle.NONE)) {
+            cellStyle.setBorderLeft(mergedRegion.getBorderLeft());
+            if (null != mergedRegion.getBorderLeftColor()) {
+                cellStyle.setLeftBorderColor(
+                        colorRegistry.getXSSFColor(mergedRegion.getBorderLeftColor()));
+            }
+        }
+        if (!mergedRegion.getBorderRight().equals(BorderStyle.NONE)) {
+            cellStyle.setBorderRight(mergedRegion.getBorderRight());
+            if (null != mergedRegion.getBorderRightColor()) {
+                cellStyle.setRightBorderColor(
+                        colorRegistry.getXSSFColor(mergedRegion.getBorderRightColor()));
+            }
+        }
+        return cellStyle;
+    }
+
+    /**
+     * 記錄欄位顯示寬度(公式欄位無法得知結果, 不計入)
+     *
+     * @param widthEstimator 欄位寬度估算器
+     * @param cell 欄位資料
+     */
+    private static void addColumnWidth(ExcelColumnWidthEstimator widthEstimator, ExcelCell cell) {
+        if (CellType.FORMULA.equals(cell.getCellType())) return;
+        ExcelStyle style = cell.getStyle();
+        if (null == style) {
+            widthEstimator.add(cell.getRow(), cell.getColumn(), cell.getValue(), null, null, false);
+        } else {
+            widthEstimator.add(
+                    cell.getRow(),
+                    cell.getColumn(),
+                    cell.getValue(),
+                    style.getFontName(),
+                    style.getFontSize(),
+                    style.getBold());
+        }
+    }
+
     /**
      * 輸出xls
      *
@@ -431,9 +524,37 @@ public class ExcelWriteBuilder {
      * @param file 儲存檔案
      */
     public void outputXls(@NonNull File file) throws ExcelException {
-        try (HSSFWorkbook workbook = buildHSSFWorkbook();
-                FileOutputStream fos = new FileOutputStream(file)) {
-            workbook.write(fos);
+        try (FileOutputStream fos = new FileOutputStream(file)) {
+            outputXls(fos);
+        } catch (IOException e) {
+            throw new ExcelException(e);
+        }
+    }
+
+    /**
+     * 輸出xls(直接寫入, 不另外保存整份檔案)
+     *
+     * @param outputStream OutputStream(不負責關閉)
+     */
+    public void outputXls(@NonNull OutputStream outputStream) throws ExcelException {
+        try (HSSFWorkbook workbook = buildHSSFWorkbook()) {
+            workbook.write(outputStream);
+        } catch (IOException e) {
+            throw new ExcelException(e);
+        }
+    }
+
+    /**
+     * 輸出xls(直接寫入, 不另外保存整份檔案)
+     *
+     * @param channel WritableByteChannel(不負責關閉)
+     */
+    public void outputXls(@NonNull WritableByteChannel channel) throws ExcelException {
+        BufferedOutputStream outputStream =
+                new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+        outputXls(outputStream);
+        try {
+            outputStream.flush();
         } catch (IOException e) {
             throw new ExcelException(e);
         }
@@ -471,9 +592,37 @@ public class ExcelWriteBuilder {
      * @param file 儲存檔案
      */
     public void outputXlsx(@NonNull File file) throws ExcelException {
-        try (XSSFWorkbook workbook = buildXSSFWorkbook();
-                FileOutputStream fos = new FileOutputStream(file)) {
-            workbook.write(fos);
+        try (FileOutputStream fos = new FileOutputStream(file)) {
+            outputXlsx(fos);
+        } catch (IOException e) {
+            throw new ExcelException(e);
+        }
+    }
+
+    /**
+     * 輸出xlsx(直接寫入, 不另外保存整份檔案)
+     *
+     * @param outputStream OutputStream(不負責關閉)
+     */
+    public void outputXlsx(@NonNull OutputStream outputStream) throws ExcelException {
+        try (XSSFWorkbook workbook = buildXSSFWorkbook()) {
+            workbook.write(outputStream);
+        } catch (IOException e) {
+            throw new ExcelException(e);
+        }
+    }
+
+    /**
+     * 輸出xlsx(直接寫入, 不另外保存整份檔案)
+     *
+     * @param channel WritableByteChannel(不負責關閉)
+     */
+    public void outputXlsx(@NonNull WritableByteChannel channel) throws ExcelException {
+        BufferedOutputStream outputStream =
+                new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+        outputXlsx(outputStream);
+        try {
+            outputStream.flush();
         } catch (IOException e) {
             throw new ExcelException(e);
         }
@@ -2,11 +2,17 @@ package io.github.af19git5.entity;
 
 import io.github.af19git5.builder.ExcelCellBuilder;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
 
 import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Excel欄位資料
@@ -17,6 +23,21 @@ import org.apache.poi.ss.usermodel.CellType;
 @Setter
 public class ExcelCell {
 
+    /** 每個欄位的估計記憶體用量(欄位物件及座標物件, 不含字串) */
+    private static final long HEAP_BYTES = 96;
+
+    /** 原始數值類別: 無(欄位數值即為原始資料) */
+    static final byte RAW_NONE = 0;
+
+    /** 原始數值類別: 數值 */
+    static final byte RAW_NUMBER = 1;
+
+    /** 原始數值類別: 布林值 */
+    static final byte RAW_BOOLEAN = 2;
+
+    /** 原始數值類別: 日期 */
+    static final byte RAW_DATE_TIME = 3;
+
     /** 欄位數值 */
     private String value;
 
@@ -29,9 +50,39 @@ public class ExcelCell {
     /** 直行(從0開始) */
     private Integer column;
 
-    /** 欄位樣式 */
+    /** 欄位樣式(讀取時相同樣式的欄位共用同一物件, 須調整個別欄位樣式時請另建樣式) */
     private ExcelStyle style;
 
+    /** 讀取時的樣式表(取用樣式時才轉換) */
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.NONE)
+    private ExcelStyleTable styleTable;
+
+    /** 讀取時的樣式序號 */
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.NONE)
+    private short styleIndex;
+
+    /** 原始數值類別(RAW_NONE, RAW_NUMBER, RAW_BOOLEAN, RAW_DATE_TIME) */
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.NONE)
+    private byte rawValueType;
+
+    /** 原始數值(數值欄位, 布林值以1/0保存) */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private double rawNumber;
+
+    /** 所屬工作表的欄位位置修改次數(修改橫列或直行時遞增, 使該工作表的欄位索引重建) */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private AtomicLong positionModCount;
+
+    /** 原始日期 */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private LocalDateTime rawDateTime;
+
     public ExcelCell(String value, @NonNull Integer row, @NonNull Integer column) {
         this.value = null == value ? "" : value;
         this.row = row;
@@ -70,6 +121,21 @@ public class ExcelCell {
         this.style = style;
     }
 
+    public ExcelCell(
+            String value,
+            @NonNull Integer row,
+            @NonNull Integer column,
+            @NonNull CellType cellType,
+            @NonNull ExcelStyleTable styleTable,
+            short styleIndex) {
+        this.value = null == value ? "" : value;
+        this.row = row;
+        this.column = column;
+        this.cellType = cellType;
+        this.styleTable = styleTable;
+        this.styleIndex = styleIndex;
+    }
+
     public ExcelCell(@NonNull Integer row, @NonNull Integer column, String value) {
         this.value = value;
         this.row = row;
@@ -108,6 +174,171 @@ public class ExcelCell {
         this.style = style;
     }
 
+    public void setRow(Integer row) {
+        this.row = row;
+        notifyPositionModified();
+    }
+
+    public void setColumn(Integer column) {
+        this.column = column;
+        notifyPositionModified();
+    }
+
+    /**
+     * 設定所屬工作表的欄位位置修改次數(建立欄位索引或新增欄位時設定)
+     *
+     * <p>同一欄位同時屬於多個工作表時只通知最後設定的工作表, 原工作表的索引於此時失效
+     *
+     * @param positionModCount 所屬工作表的欄位位置修改次數
+     */
+    void attachPositionModCount(AtomicLong positionModCount) {
+        AtomicLong previousModCount = this.positionModCount;
+        if (previousModCount == positionModCount) return;
+        if (null != previousModCount) {
+            previousModCount.incrementAndGet();
+        }
+        this.positionModCount = positionModCount;
+    }
+
+    private void notifyPositionModified() {
+        AtomicLong currentModCount = positionModCount;
+        if (null != currentModCount) {
+            currentModCount.incrementAndGet();
+        }
+    }
+
+    public String getValue() {
+        if (null == value && rawValueType == RAW_NUMBER) {
+            // 數值欄位於取用時才轉為字串(與Cell.toString()一致)
+            value = Double.toString(rawNumber);
+        }
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+        this.rawValueType = RAW_NONE;
+        this.rawDateTime = null;
+    }
+
+    /**
+     * 設定數值(欄位數值於取用時才轉為字串)
+     *
+     * @param number 數值
+     */
+    public void setNumber(double number) {
+        this.value = null;
+        this.rawValueType = RAW_NUMBER;
+        this.rawNumber = number;
+        this.rawDateTime = null;
+    }
+
+    /**
+     * 設定布林值
+     *
+     * @param bool 布林值
+     */
+    public void setBoolean(boolean bool) {
+        this.value = bool ? "TRUE" : "FALSE";
+        this.rawValueType = RAW_BOOLEAN;
+        this.rawNumber = bool ? 1 : 0;
+        this.rawDateTime = null;
+    }
+
+    /**
+     * 設定日期
+     *
+     * @param dateTime 日期
+     * @param formatter 欄位數值的日期格式
+     */
+    public void setLocalDateTime(
+            @NonNull LocalDateTime dateTime, @NonNull DateTimeFormatter formatter) {
+        this.value = formatter.format(dateTime);
+        this.rawValueType = RAW_DATE_TIME;
+        this.rawDateTime = dateTime;
+    }
+
+    /**
+     * 設定日期及欄位數值(欄式欄位資料還原日期欄位使用)
+     *
+     * @param dateTime 日期
+     * @param value 欄位數值
+     */
+    void setRawDateTime(@NonNull LocalDateTime dateTime, String value) {
+        this.value = value;
+        this.rawValueType = RAW_DATE_TIME;
+        this.rawDateTime = dateTime;
+    }
+
+    /**
+     * 取得數值(日期欄位回傳Excel日期序號)
+     *
+     * @return 數值
+     * @throws IllegalStateException 欄位不是數值
+     */
+    public double getNumber() {
+        switch (rawValueType) {
+            case RAW_NUMBER:
+                return rawNumber;
+            case RAW_DATE_TIME:
+                return DateUtil.getExcelDate(rawDateTime);
+            default:
+                if (cellType == CellType.NUMERIC) {
+                    try {
+                        return Double.parseDouble(value);
+                    } catch (NumberFormatException ignored) {
+                        // 數值無法轉換, 視為非數值欄位
+                    }
+                }
+                throw new IllegalStateException("Cell is not numeric.");
+        }
+    }
+
+    /**
+     * 取得布林值
+     *
+     * @return 布林值
+     * @throws IllegalStateException 欄位不是布林值
+     */
+    public boolean getBoolean() {
+        if (rawValueType == RAW_BOOLEAN) return rawNumber != 0;
+        if (cellType == CellType.BOOLEAN) return Boolean.parseBoolean(value);
+        throw new IllegalStateException("Cell is not boolean.");
+    }
+
+    /**
+     * 取得日期
+     *
+     * @return 日期, 非日期欄位時回傳null
+     */
+    public LocalDateTime getLocalDateTime() {
+        return rawDateTime;
+    }
+
+    /**
+     * 估計欄位的記憶體用量(數值欄位尚未轉為字串時不計入字串, 也不會因此轉換)
+     *
+     * @return 記憶體用量(byte)
+     */
+    long estimateHeapBytes() {
+        return null == value ? HEAP_BYTES : HEAP_BYTES + 2L * value.length();
+    }
+
+    public ExcelStyle getStyle() {
+        ExcelStyle currentStyle = style;
+        if (null == currentStyle && null != styleTable) {
+            // 保留樣式表, 多個執行緒同時取用時皆由樣式表取得同一樣式
+            currentStyle = styleTable.getStyle(styleIndex);
+            style = currentStyle;
+        }
+        return currentStyle;
+    }
+
+    public void setStyle(ExcelStyle style) {
+        this.style = style;
+        this.styleTable = null;
+    }
+
     public static ExcelCellBuilder init(
             String value, @NonNull Integer row, @NonNull Integer column) {
         return new ExcelCellBuilder(row, column, value);
@@ -0,0 +1,316 @@
+package io.github.af19git5.entity;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Excel欄位索引(以橫列、直行取得欄位在欄位資料中的位置)
+ *
+ * <p>欄位位置存於以橫列、直行組成long為key的開放定址雜湊表, 另以橫列位移表依序保存各列欄位位置;
+ * 相同位置有多個欄位時以最後一個為準(與寫出結果一致)
+ *
+ * <p>建立後新增於尾端的欄位另存於附加區, 不須重建索引; 新增欄位時不可同時讀取
+ *
+ * @author Jimmy Kang
+ */
+class ExcelCellIndex {
+
+    private static final long EMPTY_KEY = -1L;
+
+    /** 已加入索引的欄位數量 */
+    private int size;
+
+    /** 所屬工作表的欄位位置修改次數 */
+    private final AtomicLong positionModCount;
+
+    /** 建立索引時的欄位位置修改次數 */
+    private final long builtModCount;
+
+    /** 雜湊表key(橫列 << 32 | 直行) */
+    private long[] keys;
+
+    /** 雜湊表value(欄位位置) */
+    private int[] positions;
+
+    private int mask;
+
+    /** 雜湊表中的key數量 */
+    private int keyCount = 0;
+
+    /** 各列欄位在rowPositions中的起始位置(長度為最大橫列 + 2) */
+    private final int[] rowOffsets;
+
+    /** 依橫列、直行排序的欄位位置 */
+    private final int[] rowPositions;
+
+    /** rowPositions中各欄位的直行 */
+    private final int[] rowColumns;
+
+    /** 最大橫列, 沒有欄位時為-1 */
+    private int maxRow;
+
+    /** 最大直行, 沒有欄位時為-1 */
+    private int maxColumn;
+
+    /** 建立後新增欄位的橫列 */
+    private int[] appendedRows = new int[0];
+
+    /** 建立後新增欄位的直行 */
+    private int[] appendedColumns = new int[0];
+
+    /** 建立後新增的欄位數量 */
+    private int appendedCount = 0;
+
+    /**
+     * @param cellList 欄位資料
+     * @param positionModCount 所屬工作表的欄位位置修改次數(欄位修改位置時遞增)
+     */
+    ExcelCellIndex(List<ExcelCell> cellList, AtomicLong positionModCount) {
+        // 先記錄修改次數, 建立期間修改的欄位位置會使索引失效
+        this.positionModCount = positionModCount;
+        this.builtModCount = positionModCount.get();
+        this.size = cellList.size();
+        int[] rows = new int[size];
+        int[] columns = new int[size];
+        if (cellList instanceof ExcelColumnarCellList) {
+            // 欄式欄位資料直接讀取陣列, 不建立欄位
+            ExcelColumnarCellList columnarCellList = (ExcelColumnarCellList) cellList;
+            for (int i = 0; i < size; i++) {
+                rows[i] = columnarCellList.rowAt(i);
+                columns[i] = columnarCellList.columnAt(i);
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                ExcelCell cell = cellList.get(i);
+                cell.attachPositionModCount(positionModCount);
+                rows[i] = cell.getRow();
+                columns[i] = cell.getColumn();
+            }
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(size, 8) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.positions = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(keys, EMPTY_KEY);
+        int maxRow = -1;
+        int maxColumn = -1;
+        for (int i = 0; i < size; i++) {
+            if (rows[i] < 0 || columns[i] < 0) continue;
+            put(toKey(rows[i], columns[i]), i);
+            maxRow = Math.max(maxRow, rows[i]);
+            maxColumn = Math.max(maxColumn, columns[i]);
+        }
+        this.maxRow = maxRow;
+        this.maxColumn = maxColumn;
+
+        // 依橫列計數排序, 同一列維持欄位資料順序
+        this.rowOffsets = new int[maxRow + 2];
+        for (int i = 0; i < size; i++) {
+            if (rows[i] < 0 || columns[i] < 0) continue;
+            rowOffsets[rows[i] + 1]++;
+        }
+        for (int row = 0; row <= maxRow; row++) {
+            rowOffsets[row + 1] += rowOffsets[row];
+        }
+        this.rowPositions = new int[rowOffsets[maxRow + 1]];
+        int[] nextOffsets = Arrays.copyOf(rowOffsets, maxRow + 1);
+        for (int i = 0; i < size; i++) {
+            if (rows[i] < 0 || columns[i] < 0) continue;
+            rowPositions[nextOffsets[rows[i]]++] = i;
+        }
+        for (int row = 0; row <= maxRow; row++) {
+            sortByColumn(rowOffsets[row], rowOffsets[row + 1], columns);
+        }
+        this.rowColumns = new int[rowPositions.length];
+        for (int i = 0; i < rowPositions.length; i++) {
+            rowColumns[i] = columns[rowPositions[i]];
+        }
+    }
+
+    /**
+     * 已加入索引的欄位數量
+     *
+     * @return 欄位數量
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * 建立後新增的欄位數量
+     *
+     * @return 欄位數量
+     */
+    int appendedCount() {
+        return appendedCount;
+    }
+
+    /**
+     * 建立後是否有欄位直接修改橫列或直行
+     *
+     * @return 是否需重建
+     */
+    boolean isStale() {
+        return builtModCount != positionModCount.get();
+    }
+
+    /**
+     * 加入新增於尾端的欄位
+     *
+     * @param row 橫列
+     * @param column 直行
+     */
+    void append(int row, int column) {
+        int position = size++;
+        if (appendedCount == appendedRows.length) {
+            int length = Math.max(16, appendedCount * 2);
+            appendedRows = Arrays.copyOf(appendedRows, length);
+            appendedColumns = Arrays.copyOf(appendedColumns, length);
+        }
+        appendedRows[appendedCount] = row;
+        appendedColumns[appendedCount] = column;
+        appendedCount++;
+        if (row < 0 || column < 0) return;
+        if ((keyCount + 1) * 2 > keys.length) resize();
+        put(toKey(row, column), position);
+        maxRow = Math.max(maxRow, row);
+        maxColumn = Math.max(maxColumn, column);
+    }
+
+    /**
+     * 最大橫列
+     *
+     * @return 最大橫列, 沒有欄位時為-1
+     */
+    int getMaxRow() {
+        return maxRow;
+    }
+
+    /**
+     * 最大直行
+     *
+     * @return 最大直行, 沒有欄位時為-1
+     */
+    int getMaxColumn() {
+        return maxColumn;
+    }
+
+    /**
+     * 取得欄位位置
+     *
+     * @param row 橫列
+     * @param column 直行
+     * @return 欄位位置, 沒有欄位時回傳-1
+     */
+    int indexOf(int row, int column) {
+        if (row < 0 || column < 0) return -1;
+        long key = toKey(row, column);
+        for (int slot = hash(key); ; slot = (slot + 1) & mask) {
+            if (keys[slot] == EMPTY_KEY) return -1;
+            if (keys[slot] == key) return positions[slot];
+        }
+    }
+
+    /**
+     * 取得橫列中的欄位位置(依直行排序)
+     *
+     * @param row 橫列
+     * @return 欄位位置
+     */
+    int[] rowIndexesOf(int row) {
+        if (row < 0 || row > maxRow) return new int[0];
+        boolean isBaseRow = row < rowOffsets.length - 1;
+        int[] indexes =
+                isBaseRow
+                        ? Arrays.copyOfRange(rowPositions, rowOffsets[row], rowOffsets[row + 1])
+                        : new int[0];
+        if (appendedCount == 0) return indexes;
+        int baseSize = size - appendedCount;
+        int baseCount = indexes.length;
+        int count = baseCount;
+        boolean hasAppended = false;
+        for (int i = 0; i < appendedCount; i++) {
+            if (appendedRows[i] != row || appendedColumns[i] < 0) continue;
+            if (count == indexes.length) {
+                indexes = Arrays.copyOf(indexes, Math.max(4, count * 2));
+            }
+            indexes[count++] = baseSize + i;
+            hasAppended = true;
+        }
+        if (!hasAppended) return indexes;
+        // 依(直行 << 32 | 欄位位置)排序, 同一直行維持欄位資料順序
+        long[] sortKeys = new long[count];
+        for (int i = 0; i < count; i++) {
+            int column =
+                    i < baseCount
+                            ? rowColumns[rowOffsets[row] + i]
+                            : appendedColumns[indexes[i] - baseSize];
+            sortKeys[i] = toKey(column, indexes[i]);
+        }
+        Arrays.sort(sortKeys);
+        int[] sortedIndexes = new int[count];
+        for (int i = 0; i < count; i++) {
+            sortedIndexes[i] = (int) sortKeys[i];
+        }
+        return sortedIndexes;
+    }
+
+    private void put(long key, int position) {
+        int slot = hash(key);
+        while (keys[slot] != EMPTY_KEY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == EMPTY_KEY) keyCount++;
+        keys[slot] = key;
+        positions[slot] = position;
+    }
+
+    /** 雜湊表擴充為兩倍 */
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldPositions = positions;
+        keys = new long[oldKeys.length * 2];
+        positions = new int[oldKeys.length * 2];
+        mask = keys.length - 1;
+        keyCount = 0;
+        Arrays.fill(keys, EMPTY_KEY);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != EMPTY_KEY) put(oldKeys[slot], oldPositions[slot]);
+        }
+    }
+
+    private int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * 依直行排序區間內的欄位位置(讀取結果通常已排序, 已排序時不處理)
+     *
+     * @param from 起始位置
+     * @param to 結束位置(不含)
+     * @param columns 各欄位直行
+     */
+    private void sortByColumn(int from, int to, int[] columns) {
+        boolean isSorted = true;
+        for (int i = from + 1; i < to && isSorted; i++) {
+            isSorted = columns[rowPositions[i - 1]] <= columns[rowPositions[i]];
+        }
+        if (isSorted) return;
+        // 區間內欄位位置遞增, 以(直行 << 32 | 欄位位置)排序即為穩定排序
+        long[] sortKeys = new long[to - from];
+        for (int i = from; i < to; i++) {
+            sortKeys[i - from] = toKey(columns[rowPositions[i]], rowPositions[i]);
+        }
+        Arrays.sort(sortKeys);
+        for (int i = from; i < to; i++) {
+            rowPositions[i] = (int) sortKeys[i - from];
+        }
+    }
+
+    private static long toKey(int row, int column) {
+        return (long) row << 32 | column;
+    }
+}
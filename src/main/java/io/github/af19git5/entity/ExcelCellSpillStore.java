@@ -0,0 +1,245 @@
+package io.github.af19git5.entity;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Excel欄位暫存檔(欄式欄位資料超過記憶體上限後, 以記憶體映射暫存檔保存欄位紀錄及字串)
+ *
+ * <p>欄位紀錄為固定長度, 依欄位順序存放; 字串以長度加UTF-8內容存放. 只使用絕對位置讀寫,
+ * 讀取可由多個執行緒同時進行. 物件不再使用時自動關閉暫存檔
+ *
+ * <p>關閉時只關閉檔案通道(DELETE_ON_CLOSE), 已映射的區段於垃圾回收時才解除映射; 解除映射前,
+ * Windows上的暫存檔無法刪除, 會於解除映射後或程式結束時由作業系統清除
+ *
+ * @author Jimmy Kang
+ */
+class ExcelCellSpillStore implements Closeable {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    /** 欄位紀錄長度(橫列4, 直行4, 數值位元8, 字串序號4, 樣式序號2, 類別代碼1, 保留1) */
+    private static final int RECORD_SIZE = 24;
+
+    private static final int ROW_OFFSET = 0;
+    private static final int COLUMN_OFFSET = 4;
+    private static final int NUMBER_OFFSET = 8;
+    private static final int STRING_INDEX_OFFSET = 16;
+    private static final int STYLE_INDEX_OFFSET = 20;
+    private static final int TYPE_CODE_OFFSET = 22;
+
+    /** 每段映射的欄位數量 */
+    private static final int SEGMENT_SHIFT = 21;
+
+    private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+    private static final long SEGMENT_BYTES = (long) RECORD_SIZE << SEGMENT_SHIFT;
+
+    /** 每段映射的字串區大小 */
+    private static final int STRING_SEGMENT_BYTES = 1 << 26;
+
+    private final FileChannel recordChannel;
+    private final FileChannel stringChannel;
+    private final Cleaner.Cleanable cleanable;
+
+    /** 已映射的區段(新增區段時整批替換, 讀取不須同步) */
+    private volatile MappedByteBuffer[] recordSegments = new MappedByteBuffer[0];
+
+    private volatile MappedByteBuffer[] stringSegments = new MappedByteBuffer[0];
+
+    /** 字串區寫入位置 */
+    private long stringPosition = 0;
+
+    /**
+     * @param tempDirectory 暫存目錄, null時使用系統暫存目錄
+     */
+    ExcelCellSpillStore(File tempDirectory) {
+        try {
+            this.recordChannel = openTempChannel(tempDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            this.stringChannel = openTempChannel(tempDirectory);
+        } catch (IOException e) {
+            closeChannels(recordChannel);
+            throw new UncheckedIOException(e);
+        }
+        FileChannel recordChannel = this.recordChannel;
+        FileChannel stringChannel = this.stringChannel;
+        this.cleanable = CLEANER.register(this, () -> closeChannels(recordChannel, stringChannel));
+    }
+
+    void write(
+            int index,
+            int row,
+            int column,
+            byte typeCode,
+            long numberBits,
+            int stringIndex,
+            short styleIndex) {
+        MappedByteBuffer segment = recordSegment(index);
+        int position = recordPosition(index);
+        segment.putInt(position + ROW_OFFSET, row);
+        segment.putInt(position + COLUMN_OFFSET, column);
+        segment.putLong(position + NUMBER_OFFSET, numberBits);
+        segment.putInt(position + STRING_INDEX_OFFSET, stringIndex);
+        segment.putShort(position + STYLE_INDEX_OFFSET, styleIndex);
+        segment.put(position + TYPE_CODE_OFFSET, typeCode);
+    }
+
+    int getRow(int index) {
+        return recordSegment(index).getInt(recordPosition(index) + ROW_OFFSET);
+    }
+
+    int getColumn(int index) {
+        return recordSegment(index).getInt(recordPosition(index) + COLUMN_OFFSET);
+    }
+
+    long getNumberBits(int index) {
+        return recordSegment(index).getLong(recordPosition(index) + NUMBER_OFFSET);
+    }
+
+    int getStringIndex(int index) {
+        return recordSegment(index).getInt(recordPosition(index) + STRING_INDEX_OFFSET);
+    }
+
+    short getStyleIndex(int index) {
+        return recordSegment(index).getShort(recordPosition(index) + STYLE_INDEX_OFFSET);
+    }
+
+    byte getTypeCode(int index) {
+        return recordSegment(index).get(recordPosition(index) + TYPE_CODE_OFFSET);
+    }
+
+    /**
+     * 寫入字串
+     *
+     * @param value 字串
+     * @return 字串位置
+     */
+    long writeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Integer.BYTES + bytes.length;
+        if (length > STRING_SEGMENT_BYTES) {
+            throw new IllegalArgumentException("String is too long to spill.");
+        }
+        int offset = (int) (stringPosition % STRING_SEGMENT_BYTES);
+        if (offset + length > STRING_SEGMENT_BYTES) {
+            // 字串不跨段存放
+            stringPosition += STRING_SEGMENT_BYTES - offset;
+            offset = 0;
+        }
+        long position = stringPosition;
+        ByteBuffer buffer = stringSegment(position).duplicate();
+        buffer.position(offset);
+        buffer.putInt(bytes.length).put(bytes);
+        stringPosition += length;
+        return position;
+    }
+
+    /**
+     * 讀取字串
+     *
+     * @param position 字串位置
+     * @return 字串
+     */
+    String readString(long position) {
+        ByteBuffer buffer = stringSegment(position).duplicate();
+        buffer.position((int) (position % STRING_SEGMENT_BYTES));
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** 關閉暫存檔通道並放開已映射的區段(區段於垃圾回收時才解除映射) */
+    @Override
+    public void close() {
+        cleanable.clean();
+        recordSegments = new MappedByteBuffer[0];
+        stringSegments = new MappedByteBuffer[0];
+    }
+
+    private MappedByteBuffer recordSegment(int index) {
+        int segmentIndex = index >>> SEGMENT_SHIFT;
+        MappedByteBuffer[] segments = recordSegments;
+        if (segmentIndex < segments.length) return segments[segmentIndex];
+        synchronized (this) {
+            segments = recordSegments;
+            if (segmentIndex >= segments.length) {
+                segments = Arrays.copyOf(segments, segmentIndex + 1);
+                for (int i = recordSegments.length; i <= segmentIndex; i++) {
+                    segments[i] = map(recordChannel, i * SEGMENT_BYTES, SEGMENT_BYTES);
+                }
+                recordSegments = segments;
+            }
+            return segments[segmentIndex];
+        }
+    }
+
+    private MappedByteBuffer stringSegment(long position) {
+        int segmentIndex = (int) (position / STRING_SEGMENT_BYTES);
+        MappedByteBuffer[] segments = stringSegments;
+        if (segmentIndex < segments.length) return segments[segmentIndex];
+        synchronized (this) {
+            segments = stringSegments;
+            if (segmentIndex >= segments.length) {
+                segments = Arrays.copyOf(segments, segmentIndex + 1);
+                for (int i = stringSegments.length; i <= segmentIndex; i++) {
+                    segments[i] =
+                            map(
+                                    stringChannel,
+                                    (long) i * STRING_SEGMENT_BYTES,
+                                    STRING_SEGMENT_BYTES);
+                }
+                stringSegments = segments;
+            }
+            return segments[segmentIndex];
+        }
+    }
+
+    private static int recordPosition(int index) {
+        return (index & SEGMENT_MASK) * RECORD_SIZE;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long position, long size) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static FileChannel openTempChannel(File tempDirectory) throws IOException {
+        Path tempFile =
+                null == tempDirectory
+                        ? Files.createTempFile("easy-excel-", ".cells")
+                        : Files.createTempFile(tempDirectory.toPath(), "easy-excel-", ".cells");
+        return FileChannel.open(
+                tempFile,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+    }
+
+    private static void closeChannels(FileChannel... channels) {
+        for (FileChannel channel : channels) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // 暫存檔已無法使用
+            }
+        }
+    }
+}
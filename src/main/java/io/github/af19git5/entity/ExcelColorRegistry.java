@@ -0,0 +1,97 @@
+package io.github.af19git5.entity;
+
+import lombok.NonNull;
+
+import org.apache.poi.hssf.usermodel.HSSFPalette;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.hssf.util.HSSFColor;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.DefaultIndexedColorMap;
+import org.apache.poi.xssf.usermodel.XSSFColor;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTColor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * workbook顏色登記表(16進位色碼轉換為xls色盤序號或xlsx顏色, 同一色碼只轉換一次)
+ *
+ * <p>每個workbook各自使用一份; 設定顏色時POI會複製顏色內容, 同一個XSSFColor可重複使用
+ *
+ * @author Jimmy Kang
+ */
+public class ExcelColorRegistry {
+
+    private final Workbook workbook;
+
+    /** xls色盤, 非xls時為null */
+    private final HSSFPalette palette;
+
+    /** xls色盤序號(key: 16進位色碼) */
+    private final Map<String, Short> indexMap = new HashMap<>();
+
+    /** xlsx顏色(key: 16進位色碼) */
+    private final Map<String, XSSFColor> xssfColorMap = new HashMap<>();
+
+    /**
+     * @param workbook 使用顏色的workbook
+     */
+    public ExcelColorRegistry(@NonNull Workbook workbook) {
+        this.workbook = workbook;
+        this.palette =
+                workbook instanceof HSSFWorkbook
+                        ? ((HSSFWorkbook) workbook).getCustomPalette()
+                        : null;
+    }
+
+    /**
+     * 取得最接近的xls色盤序號
+     *
+     * @param colorHex 16進位色碼
+     * @return 色盤序號
+     */
+    public short getIndex(@NonNull String colorHex) {
+        if (null == palette) {
+            throw new IllegalStateException("Color registry does not belong to a xls workbook.");
+        }
+        colorHex = ExcelColors.normalizeColorHex(colorHex);
+        Short index = indexMap.get(colorHex);
+        if (null == index) {
+            int rgb = ExcelColors.toRgb(colorHex);
+            HSSFColor color =
+                    palette.findSimilarColor((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF);
+            index = color.getIndex();
+            indexMap.put(colorHex, index);
+        }
+        return index;
+    }
+
+    /**
+     * 取得xlsx顏色
+     *
+     * @param colorHex 16進位色碼
+     * @return xlsx顏色(共用物件, 請勿修改)
+     */
+    public XSSFColor getXSSFColor(@NonNull String colorHex) {
+        return xssfColorMap.computeIfAbsent(
+                ExcelColors.normalizeColorHex(colorHex),
+                k -> {
+                    XSSFColor color =
+                            XSSFColor.from(
+                                    CTColor.Factory.newInstance(), new DefaultIndexedColorMap());
+                    color.setARGBHex(k.substring(1));
+                    return color;
+                });
+    }
+
+    /**
+     * 檢查是否為同一workbook的登記表
+     *
+     * @param workbook workbook
+     */
+    void checkWorkbook(Workbook workbook) {
+        if (this.workbook != workbook) {
+            throw new IllegalArgumentException("Color registry belongs to another workbook.");
+        }
+    }
+}
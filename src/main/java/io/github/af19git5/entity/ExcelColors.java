@@ -0,0 +1,87 @@
+package io.github.af19git5.entity;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Excel色碼處理(檢查及轉換16進位色碼, 轉換結果快取共用)
+ *
+ * @author Jimmy Kang
+ */
+public final class ExcelColors {
+
+    /** 16進位色碼格式 */
+    private static final Pattern COLOR_HEX_PATTERN = Pattern.compile("^#(?:[0-9a-fA-F]{3}){1,2}$");
+
+    /** 色碼快取上限 */
+    private static final int MAX_CACHE_SIZE = 4096;
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    /** 16進位色碼轉換的RGB值(key: 16進位色碼) */
+    private static final Map<String, Integer> RGB_CACHE = new ConcurrentHashMap<>();
+
+    private ExcelColors() {}
+
+    /**
+     * 檢查是否符合16進位色碼
+     *
+     * @param colorHex 16進位色碼
+     * @return 是否符合格式
+     */
+    public static boolean isValidColorHex(String colorHex) {
+        return null != colorHex && COLOR_HEX_PATTERN.matcher(colorHex).matches();
+    }
+
+    /**
+     * 統一16進位色碼格式(3碼色碼展開為6碼, 英文字母轉為大寫)
+     *
+     * @param colorHex 16進位色碼
+     * @return 6碼大寫色碼, 傳入null時回傳null
+     */
+    public static String normalizeColorHex(String colorHex) {
+        if (null == colorHex) return null;
+        if (colorHex.length() == 4) {
+            char[] chars = new char[7];
+            chars[0] = '#';
+            for (int i = 0; i < 3; i++) {
+                chars[1 + i * 2] = colorHex.charAt(1 + i);
+                chars[2 + i * 2] = colorHex.charAt(1 + i);
+            }
+            colorHex = new String(chars);
+        }
+        return colorHex.toUpperCase();
+    }
+
+    /**
+     * 16進位色碼轉為RGB值(與java.awt.Color.decode相同)
+     *
+     * @param colorHex 16進位色碼
+     * @return RGB值(0xRRGGBB)
+     */
+    public static int toRgb(String colorHex) {
+        Integer rgb = RGB_CACHE.get(colorHex);
+        if (null != rgb) return rgb;
+        rgb = Integer.decode(colorHex) & 0xFFFFFF;
+        if (RGB_CACHE.size() < MAX_CACHE_SIZE) RGB_CACHE.put(colorHex, rgb);
+        return rgb;
+    }
+
+    /**
+     * RGB值轉為16進位色碼
+     *
+     * @param rgbArray RGB值(紅、綠、藍)
+     * @return 16進位色碼, 格式不符時回傳null
+     */
+    public static String toColorHex(short[] rgbArray) {
+        if (null == rgbArray || rgbArray.length != 3) return null;
+        char[] chars = new char[7];
+        chars[0] = '#';
+        for (int i = 0; i < 3; i++) {
+            chars[1 + i * 2] = HEX_DIGITS[(rgbArray[i] >> 4) & 0xF];
+            chars[2 + i * 2] = HEX_DIGITS[rgbArray[i] & 0xF];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,488 @@
+package io.github.af19git5.entity;
+
+import lombok.NonNull;
+
+import org.apache.poi.ss.usermodel.CellType;
+
+import java.io.Closeable;
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Excel欄位資料(以欄式陣列保存, 取用時才建立ExcelCell)
+ *
+ * <p>橫列、直行、類別及數值分別存於基本型別陣列, 字串存於字串池(相同字串只保存一份),
+ * 取得的欄位為複本, 修改後須以set寫回; 不支援移除單一欄位
+ *
+ * <p>有設定記憶體上限時, 欄位陣列加上字串池超過上限後改存於記憶體映射暫存檔, 之後新增的字串除字串池已有者外也存於暫存檔
+ *
+ * @author Jimmy Kang
+ */
+public class ExcelColumnarCellList extends AbstractList<ExcelCell>
+        implements RandomAccess, Closeable {
+
+    private static final CellType[] CELL_TYPES = CellType.values();
+
+    /** 欄位類別代碼位移(低2位元為原始數值類別) */
+    private static final int CELL_TYPE_SHIFT = 2;
+
+    private static final int RAW_VALUE_TYPE_MASK = (1 << CELL_TYPE_SHIFT) - 1;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /** 每個欄位的陣列大小(橫列4, 直行4, 類別代碼1, 數值8, 字串序號4, 樣式序號2) */
+    private static final int HEAP_BYTES_PER_CELL = 23;
+
+    /** 字串池每個字串的額外大小(字串物件、雜湊表節點、序號物件及陣列位置) */
+    private static final int POOLED_STRING_OVERHEAD_BYTES = 96;
+
+    /** 無字串 */
+    private static final int NO_STRING = -1;
+
+    /** 字串存於暫存檔(數值欄位保存字串位置) */
+    private static final int SPILLED_STRING = -2;
+
+    /** 改存暫存檔後字串池的字串數量上限 */
+    private static final int MAX_SPILL_POOLED_STRINGS = 1 << 16;
+
+    /** 讀取時的樣式表 */
+    private ExcelStyleTable styleTable;
+
+    /** 日期欄位數值格式, null時日期欄位數值存於字串池 */
+    private final DateTimeFormatter dateTimeFormatter;
+
+    /** 欄位陣列記憶體上限(byte), 0時不限制 */
+    private final long heapBudget;
+
+    /** 暫存目錄, null時使用系統暫存目錄 */
+    private final File tempDirectory;
+
+    /** 欄位暫存檔, 未超過記憶體上限時為null */
+    private ExcelCellSpillStore spillStore;
+
+    /** 已改存暫存檔的欄位資料是否已關閉(關閉後不可再讀寫欄位) */
+    private boolean closed = false;
+
+    private int size = 0;
+    private int[] rows;
+    private int[] columns;
+
+    /** 欄位類別代碼(欄位類別 << 2 | 原始數值類別) */
+    private byte[] typeCodes;
+
+    /** 原始數值位元(布林值以1/0保存, 日期以毫秒保存) */
+    private long[] numberBits;
+
+    /** 字串池序號, -1為無字串 */
+    private int[] stringIndexes;
+
+    /** 樣式表中的樣式序號 */
+    private short[] styleIndexes;
+
+    /** 使用樣式表樣式的欄位 */
+    private final BitSet tableStyleSet = new BitSet();
+
+    /** 不在樣式表中的樣式(key: 欄位順序) */
+    private final Map<Integer, ExcelStyle> styleMap = new HashMap<>();
+
+    /** 字串池 */
+    private String[] strings = new String[DEFAULT_CAPACITY];
+
+    private int stringCount = 0;
+
+    /** 字串池的估計記憶體用量(byte) */
+    private long pooledStringBytes = 0;
+
+    /** 字串池序號(key: 字串) */
+    private final Map<String, Integer> stringIndexMap = new HashMap<>();
+
+    public ExcelColumnarCellList() {
+        this(null, null);
+    }
+
+    /**
+     * @param styleTable 讀取時的樣式表, null時於加入第一個使用樣式表的欄位時設定
+     * @param dateTimeFormatter 日期欄位數值格式, null時日期欄位數值存於字串池
+     */
+    public ExcelColumnarCellList(
+            ExcelStyleTable styleTable, DateTimeFormatter dateTimeFormatter) {
+        this(styleTable, dateTimeFormatter, 0, null);
+    }
+
+    /**
+     * @param styleTable 讀取時的樣式表, null時於加入第一個使用樣式表的欄位時設定
+     * @param dateTimeFormatter 日期欄位數值格式, null時日期欄位數值存於字串池
+     * @param heapBudget 欄位陣列記憶體上限(byte), 超過時改存暫存檔, 0時不限制
+     * @param tempDirectory 暫存目錄, null時使用系統暫存目錄
+     */
+    public ExcelColumnarCellList(
+            ExcelStyleTable styleTable,
+            DateTimeFormatter dateTimeFormatter,
+            long heapBudget,
+            File tempDirectory) {
+        this.styleTable = styleTable;
+        this.dateTimeFormatter = dateTimeFormatter;
+        this.heapBudget = Math.max(heapBudget, 0);
+        this.tempDirectory = tempDirectory;
+        allocateArrays();
+    }
+
+    @Override
+    public ExcelCell get(int index) {
+        checkIndex(index);
+        int typeCode = typeCodeOf(index);
+        CellType cellType = CELL_TYPES[typeCode >>> CELL_TYPE_SHIFT];
+        String value = stringOf(index);
+        int row = rowOf(index);
+        int column = columnOf(index);
+        ExcelCell cell =
+                tableStyleSet.get(index)
+                        ? new ExcelCell(
+                                value, row, column, cellType, styleTable, styleIndexOf(index))
+                        : new ExcelCell(value, row, column, cellType, styleMap.get(index));
+        switch (typeCode & RAW_VALUE_TYPE_MASK) {
+            case ExcelCell.RAW_NUMBER:
+                cell.setNumber(numberOf(index));
+                break;
+            case ExcelCell.RAW_BOOLEAN:
+                cell.setBoolean(numberOf(index) != 0);
+                break;
+            case ExcelCell.RAW_DATE_TIME:
+                LocalDateTime dateTime = toLocalDateTime(numberOf(index));
+                if (null == value) {
+                    cell.setLocalDateTime(dateTime, dateTimeFormatter);
+                } else {
+                    cell.setRawDateTime(dateTime, value);
+                }
+                break;
+            default:
+                if (null == value) cell.setValue(null);
+                break;
+        }
+        return cell;
+    }
+
+    @Override
+    public ExcelCell set(int index, @NonNull ExcelCell cell) {
+        ExcelCell previousCell = get(index);
+        store(index, cell);
+        return previousCell;
+    }
+
+    @Override
+    public void add(int index, @NonNull ExcelCell cell) {
+        if (index != size) {
+            throw new UnsupportedOperationException("Cells can only be appended.");
+        }
+        ensureCapacity(size + 1);
+        store(size, cell);
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        close();
+        allocateArrays();
+        closed = false;
+        size = 0;
+        tableStyleSet.clear();
+        styleMap.clear();
+        strings = new String[DEFAULT_CAPACITY];
+        stringCount = 0;
+        pooledStringBytes = 0;
+        stringIndexMap.clear();
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 欄位是否已改存暫存檔
+     *
+     * @return 是否已改存暫存檔
+     */
+    public boolean isSpilled() {
+        return null != spillStore;
+    }
+
+    /**
+     * 估計記憶體用量(欄位陣列及字串池, 不含暫存檔中的資料; 不建立欄位)
+     *
+     * @return 記憶體用量(byte)
+     */
+    public long estimateHeapBytes() {
+        long bytes = pooledStringBytes;
+        if (!isSpilled() && !closed) bytes += (long) rows.length * HEAP_BYTES_PER_CELL;
+        return bytes;
+    }
+
+    /**
+     * 取得欄位橫列(不建立欄位)
+     *
+     * @param index 欄位順序
+     * @return 橫列
+     */
+    int rowAt(int index) {
+        checkIndex(index);
+        return rowOf(index);
+    }
+
+    /**
+     * 取得欄位直行(不建立欄位)
+     *
+     * @param index 欄位順序
+     * @return 直行
+     */
+    int columnAt(int index) {
+        checkIndex(index);
+        return columnOf(index);
+    }
+
+    /** 釋放陣列多餘空間(讀取完畢時呼叫) */
+    public void trimToSize() {
+        strings = Arrays.copyOf(strings, stringCount);
+        if (isSpilled() || closed) return;
+        rows = Arrays.copyOf(rows, size);
+        columns = Arrays.copyOf(columns, size);
+        typeCodes = Arrays.copyOf(typeCodes, size);
+        numberBits = Arrays.copyOf(numberBits, size);
+        stringIndexes = Arrays.copyOf(stringIndexes, size);
+        styleIndexes = Arrays.copyOf(styleIndexes, size);
+    }
+
+    /** 關閉欄位暫存檔(已改存暫存檔時, 關閉後欄位資料不可再使用) */
+    @Override
+    public void close() {
+        if (null != spillStore) {
+            spillStore.close();
+            spillStore = null;
+            closed = true;
+        }
+    }
+
+    /**
+     * 將欄位資料寫入陣列
+     *
+     * @param index 欄位順序
+     * @param cell 欄位資料
+     */
+    private void store(int index, ExcelCell cell) {
+        byte rawValueType = cell.getRawValueType();
+        byte typeCode =
+                (byte) (cell.getCellType().ordinal() << CELL_TYPE_SHIFT | rawValueType);
+        long bits = 0;
+        int stringIndex = NO_STRING;
+        switch (rawValueType) {
+            case ExcelCell.RAW_NUMBER:
+                bits = Double.doubleToRawLongBits(cell.getNumber());
+                break;
+            case ExcelCell.RAW_BOOLEAN:
+                bits = Double.doubleToRawLongBits(cell.getBoolean() ? 1 : 0);
+                break;
+            case ExcelCell.RAW_DATE_TIME:
+                LocalDateTime dateTime = cell.getLocalDateTime();
+                bits = Double.doubleToRawLongBits(toEpochMilli(dateTime));
+                if (null == dateTimeFormatter
+                        || !dateTimeFormatter.format(dateTime).equals(cell.getValue())) {
+                    stringIndex = poolString(cell.getValue());
+                }
+                break;
+            default:
+                String value = cell.getValue();
+                if (null == value) break;
+                Integer pooledIndex = stringIndexMap.get(value);
+                if (null != pooledIndex) {
+                    stringIndex = pooledIndex;
+                } else if (isSpilled()
+                        && (stringIndexMap.size() >= MAX_SPILL_POOLED_STRINGS
+                                || pooledStringBytes >= heapBudget)) {
+                    // 字串池已滿或超過記憶體上限, 字串改存暫存檔並於數值欄位保存位置
+                    bits = spillStore.writeString(value);
+                    stringIndex = SPILLED_STRING;
+                } else {
+                    stringIndex = poolString(value);
+                }
+                break;
+        }
+        styleMap.remove(index);
+        if (null == styleTable && null != cell.getStyleTable()) {
+            styleTable = cell.getStyleTable();
+        }
+        short styleIndex = 0;
+        if (null != cell.getStyleTable() && styleTable == cell.getStyleTable()) {
+            tableStyleSet.set(index);
+            styleIndex = cell.getStyleIndex();
+        } else {
+            tableStyleSet.clear(index);
+            ExcelStyle style = cell.getStyle();
+            if (null != style) styleMap.put(index, style);
+        }
+        writeRecord(
+                index,
+                cell.getRow(),
+                cell.getColumn(),
+                typeCode,
+                bits,
+                stringIndex,
+                styleIndex);
+    }
+
+    private void writeRecord(
+            int index,
+            int row,
+            int column,
+            byte typeCode,
+            long bits,
+            int stringIndex,
+            short styleIndex) {
+        if (isSpilled()) {
+            spillStore.write(index, row, column, typeCode, bits, stringIndex, styleIndex);
+            return;
+        }
+        rows[index] = row;
+        columns[index] = column;
+        typeCodes[index] = typeCode;
+        numberBits[index] = bits;
+        stringIndexes[index] = stringIndex;
+        styleIndexes[index] = styleIndex;
+    }
+
+    private int rowOf(int index) {
+        return isSpilled() ? spillStore.getRow(index) : rows[index];
+    }
+
+    private int columnOf(int index) {
+        return isSpilled() ? spillStore.getColumn(index) : columns[index];
+    }
+
+    private byte typeCodeOf(int index) {
+        return isSpilled() ? spillStore.getTypeCode(index) : typeCodes[index];
+    }
+
+    private long numberBitsOf(int index) {
+        return isSpilled() ? spillStore.getNumberBits(index) : numberBits[index];
+    }
+
+    private double numberOf(int index) {
+        return Double.longBitsToDouble(numberBitsOf(index));
+    }
+
+    private short styleIndexOf(int index) {
+        return isSpilled() ? spillStore.getStyleIndex(index) : styleIndexes[index];
+    }
+
+    private String stringOf(int index) {
+        int stringIndex = isSpilled() ? spillStore.getStringIndex(index) : stringIndexes[index];
+        if (stringIndex == NO_STRING) return null;
+        if (stringIndex == SPILLED_STRING) return spillStore.readString(numberBitsOf(index));
+        return strings[stringIndex];
+    }
+
+    /**
+     * 取得字串池序號(字串不在池中時加入)
+     *
+     * @param value 字串
+     * @return 字串池序號
+     */
+    private int poolString(String value) {
+        Integer stringIndex = stringIndexMap.get(value);
+        if (null != stringIndex) return stringIndex;
+        if (stringCount == strings.length) {
+            strings = Arrays.copyOf(strings, Math.max(DEFAULT_CAPACITY, stringCount * 2));
+        }
+        strings[stringCount] = value;
+        stringIndexMap.put(value, stringCount);
+        pooledStringBytes += POOLED_STRING_OVERHEAD_BYTES + 2L * value.length();
+        return stringCount++;
+    }
+
+    private void allocateArrays() {
+        rows = new int[DEFAULT_CAPACITY];
+        columns = new int[DEFAULT_CAPACITY];
+        typeCodes = new byte[DEFAULT_CAPACITY];
+        numberBits = new long[DEFAULT_CAPACITY];
+        stringIndexes = new int[DEFAULT_CAPACITY];
+        styleIndexes = new short[DEFAULT_CAPACITY];
+    }
+
+    private void ensureCapacity(int capacity) {
+        checkOpen();
+        if (isSpilled()) return;
+        int newCapacity =
+                capacity <= rows.length
+                        ? rows.length
+                        : Math.max(capacity, rows.length + (rows.length >> 1));
+        if (heapBudget > 0
+                && (long) newCapacity * HEAP_BYTES_PER_CELL + pooledStringBytes > heapBudget) {
+            // 字串池也計入記憶體上限
+            spill();
+            return;
+        }
+        if (newCapacity == rows.length) return;
+        rows = Arrays.copyOf(rows, newCapacity);
+        columns = Arrays.copyOf(columns, newCapacity);
+        typeCodes = Arrays.copyOf(typeCodes, newCapacity);
+        numberBits = Arrays.copyOf(numberBits, newCapacity);
+        stringIndexes = Arrays.copyOf(stringIndexes, newCapacity);
+        styleIndexes = Arrays.copyOf(styleIndexes, newCapacity);
+    }
+
+    /** 將欄位陣列改存暫存檔並釋放陣列 */
+    private void spill() {
+        ExcelCellSpillStore store = new ExcelCellSpillStore(tempDirectory);
+        for (int i = 0; i < size; i++) {
+            store.write(
+                    i,
+                    rows[i],
+                    columns[i],
+                    typeCodes[i],
+                    numberBits[i],
+                    stringIndexes[i],
+                    styleIndexes[i]);
+        }
+        spillStore = store;
+        rows = null;
+        columns = null;
+        typeCodes = null;
+        numberBits = null;
+        stringIndexes = null;
+        styleIndexes = null;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Cell list is closed.");
+        }
+    }
+
+    private void checkIndex(int index) {
+        checkOpen();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static double toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(double epochMilli) {
+        long milli = (long) epochMilli;
+        return LocalDateTime.ofEpochSecond(
+                Math.floorDiv(milli, 1000),
+                Math.floorMod(milli, 1000) * 1_000_000,
+                ZoneOffset.UTC);
+    }
+}
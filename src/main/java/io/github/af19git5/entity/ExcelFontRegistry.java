@@ -0,0 +1,88 @@
+package io.github.af19git5.entity;
+
+import lombok.NonNull;
+
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * workbook字體登記表(字體、大小、粗體、斜體、刪除線及顏色相同時只建立一個字體)
+ *
+ * <p>每個workbook各自使用一份, 可供ExcelStyle及ExcelStreamStyle轉換樣式時共用
+ *
+ * @author Jimmy Kang
+ */
+public class ExcelFontRegistry {
+
+    private final Workbook workbook;
+
+    /** 已建立的字體(key: 字體內容) */
+    private final Map<ExcelStyleKey, Font> fontMap = new HashMap<>();
+
+    /**
+     * @param workbook 建立字體的workbook
+     */
+    public ExcelFontRegistry(@NonNull Workbook workbook) {
+        this.workbook = workbook;
+    }
+
+    /**
+     * 取得字體(內容相同的字體已建立時直接回傳)
+     *
+     * @param fontName 文字字體, null或空字串時使用預設字體
+     * @param fontSize 文字大小
+     * @param bold 是否為粗體
+     * @param italic 是否為斜體
+     * @param strikeout 是否加入刪除線
+     * @param color 文字顏色(作為比對內容), null時不設定顏色
+     * @param colorSetter 設定文字顏色的方式(建立字體時呼叫)
+     * @return 字體
+     */
+    Font getFont(
+            String fontName,
+            int fontSize,
+            boolean bold,
+            boolean italic,
+            boolean strikeout,
+            Object color,
+            Consumer<Font> colorSetter) {
+        String name = null == fontName || fontName.isEmpty() ? null : fontName;
+        ExcelStyleKey key = new ExcelStyleKey(name, fontSize, bold, italic, strikeout, color);
+        return fontMap.computeIfAbsent(
+                key,
+                k -> {
+                    Font font = workbook.createFont();
+                    if (null != name) font.setFontName(name);
+                    font.setFontHeightInPoints((short) fontSize);
+                    font.setBold(bold);
+                    font.setItalic(italic);
+                    font.setStrikeout(strikeout);
+                    if (null != color) colorSetter.accept(font);
+                    return font;
+                });
+    }
+
+    /**
+     * 檢查是否為同一workbook的登記表
+     *
+     * @param workbook workbook
+     */
+    void checkWorkbook(Workbook workbook) {
+        if (this.workbook != workbook) {
+            throw new IllegalArgumentException("Font registry belongs to another workbook.");
+        }
+    }
+
+    /**
+     * 已建立的字體數量
+     *
+     * @return 字體數量
+     */
+    public int size() {
+        return fontMap.size();
+    }
+}
@@ -117,6 +117,35 @@ public class ExcelMergedRegion {
         }
     }
 
+    /**
+     * 是否設定任一邊線
+     *
+     * @return 是否設定邊線
+     */
+    public boolean hasBorder() {
+        return !BorderStyle.NONE.equals(borderTop)
+                || !BorderStyle.NONE.equals(borderBottom)
+                || !BorderStyle.NONE.equals(borderLeft)
+                || !BorderStyle.NONE.equals(borderRight);
+    }
+
+    /**
+     * 取得邊線比對key(邊線樣式及顏色相同的規則取得相同的key)
+     *
+     * @return 邊線比對key
+     */
+    public ExcelStyleKey toBorderStyleKey() {
+        return new ExcelStyleKey(
+                borderTop,
+                borderBottom,
+                borderLeft,
+                borderRight,
+                ExcelColors.normalizeColorHex(borderTopColor),
+                ExcelColors.normalizeColorHex(borderBottomColor),
+                ExcelColors.normalizeColorHex(borderLeftColor),
+                ExcelColors.normalizeColorHex(borderRightColor));
+    }
+
     /**
      * 檢查是否符合16進位色碼
      *
@@ -124,6 +153,6 @@ public class ExcelMergedRegion {
      * @return 是否符合格式
      */
     private boolean isValidColorHex(@NonNull String colorHex) {
-        return colorHex.matches("^#(?:[0-9a-fA-F]{3}){1,2}$");
+        return ExcelColors.isValidColorHex(colorHex);
     }
 }
@@ -0,0 +1,139 @@
+package io.github.af19git5.entity;
+
+import lombok.NonNull;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+
+/**
+ * Excel唯讀欄位樣式(讀取時同一樣式由多個欄位共用, 不可修改)
+ *
+ * <p>須修改時以new ExcelStyle(style)複製後再設定
+ *
+ * @author Jimmy Kang
+ */
+final class ExcelReadOnlyStyle extends ExcelStyle {
+
+    /**
+     * @param style 樣式內容
+     */
+    ExcelReadOnlyStyle(@NonNull ExcelStyle style) {
+        super(style);
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException(
+                "Style read from excel is read-only, copy it with new ExcelStyle(style).");
+    }
+
+    @Override
+    public void setIsWrapText(@NonNull Boolean isWrapText) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setIsLock(@NonNull Boolean isLock) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setBorderTop(@NonNull BorderStyle borderTop) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setBorderBottom(@NonNull BorderStyle borderBottom) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setBorderLeft(@NonNull BorderStyle borderLeft) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setBorderRight(@NonNull BorderStyle borderRight) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setBorderTopColor(@NonNull String colorHex) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setBorderBottomColor(@NonNull String colorHex) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setBorderLeftColor(@NonNull String colorHex) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setBorderRightColor(@NonNull String colorHex) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setAllBorder(@NonNull BorderStyle borderStyle) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setAllBorderColor(@NonNull String colorHex) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setHorizontalAlignment(@NonNull HorizontalAlignment horizontalAlignment) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setVerticalAlignment(@NonNull VerticalAlignment verticalAlignment) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setBackgroundColor(@NonNull String colorHex) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setFontName(String fontName) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setFontSize(@NonNull Integer fontSize) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setFontColor(@NonNull String colorHex) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setBold(@NonNull Boolean bold) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setItalic(@NonNull Boolean italic) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setStrikeout(@NonNull Boolean strikeout) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setDataFormat(String dataFormat) {
+        throw readOnly();
+    }
+}
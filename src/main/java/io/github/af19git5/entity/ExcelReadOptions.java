@@ -0,0 +1,114 @@
+package io.github.af19git5.entity;
+
+import io.github.af19git5.builder.ExcelReadOptionsBuilder;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+
+import java.io.File;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Excel讀取設定(於解析時篩選工作表及欄位)
+ *
+ * <p>以read讀取未加密的xlsx時只解析選取的工作表; xls及加密檔案仍會載入整份活頁簿後再篩選,
+ * 須略過未選取的工作表時請改用readStream
+ *
+ * @author Jimmy Kang
+ */
+@Getter
+@Setter
+public class ExcelReadOptions {
+
+    /** 預設日期格式 */
+    public static final DateTimeFormatter DEFAULT_DATE_TIME_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /** 讀取的工作表名稱(與工作表順序皆為空時讀取全部工作表) */
+    @NonNull private Set<String> sheetNameSet = new HashSet<>();
+
+    /** 讀取的工作表順序(從0開始) */
+    @NonNull private Set<Integer> sheetIndexSet = new HashSet<>();
+
+    /** 讀取的起始直行(從0開始) */
+    @NonNull private Integer firstColumn = 0;
+
+    /** 讀取的結束直行(從0開始, null時讀取至最後一行) */
+    private Integer lastColumn;
+
+    /** 是否為稀疏模式(僅保留有資料的欄位, 不補空白欄位) */
+    @NonNull private Boolean sparse = false;
+
+    /** 是否以欄式陣列保存欄位資料(降低記憶體用量, 取用時才建立欄位) */
+    @NonNull private Boolean columnar = false;
+
+    /** 欄式欄位資料每個工作表的記憶體上限(byte), 超過時改存暫存檔, null時不限制 */
+    private Long heapBudget;
+
+    /** 字串池上限(重複的字串共用同一物件), 0時不使用字串池 */
+    @NonNull private Integer internPoolSize = 0;
+
+    /** 是否讀取欄位樣式 */
+    @NonNull private Boolean readStyle = true;
+
+    /** 是否讀取合併欄位規則 */
+    @NonNull private Boolean readMergedRegion = true;
+
+    /** 日期欄位轉為欄位數值時的日期格式 */
+    @NonNull private DateTimeFormatter dateTimeFormatter = DEFAULT_DATE_TIME_FORMATTER;
+
+    /** 同時解析工作表使用的執行器(僅用於xlsx, null時依序解析) */
+    private Executor executor;
+
+    /**
+     * 讀取InputStream時是否先寫入暫存檔再由檔案讀取(大檔時可避免整份檔案載入記憶體)
+     *
+     * <p>StreamReadExcelService讀取InputStream時一律寫入暫存檔, 不受此設定影響
+     */
+    @NonNull private Boolean spoolToTempFile = false;
+
+    /** 暫存目錄(null時使用系統暫存目錄) */
+    private File tempDirectory;
+
+    public static ExcelReadOptionsBuilder init() {
+        return new ExcelReadOptionsBuilder();
+    }
+
+    /**
+     * 是否讀取該工作表
+     *
+     * @param sheetIndex 工作表順序
+     * @param sheetName 工作表名稱
+     * @return 是否讀取
+     */
+    public boolean isSheetSelected(int sheetIndex, String sheetName) {
+        if (sheetNameSet.isEmpty() && sheetIndexSet.isEmpty()) return true;
+        return sheetIndexSet.contains(sheetIndex) || sheetNameSet.contains(sheetName);
+    }
+
+    /**
+     * 是否讀取該直行
+     *
+     * @param columnNum 直行
+     * @return 是否讀取
+     */
+    public boolean isColumnSelected(int columnNum) {
+        return columnNum >= firstColumn && (null == lastColumn || columnNum <= lastColumn);
+    }
+
+    /**
+     * 是否只讀取部分工作表或直行
+     *
+     * @return 是否只讀取部分資料
+     */
+    public boolean isProjected() {
+        return !sheetNameSet.isEmpty()
+                || !sheetIndexSet.isEmpty()
+                || firstColumn > 0
+                || null != lastColumn;
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.af19git5.entity;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.List;
+
+/**
+ * Excel橫列資料(資料流讀取使用)
+ *
+ * @author Jimmy Kang
+ */
+@Getter
+public class ExcelRow {
+
+    /** 工作表順序(從0開始) */
+    private final Integer sheetIndex;
+
+    /** 工作表名稱 */
+    private final String sheetName;
+
+    /** 橫列(從0開始) */
+    private final Integer row;
+
+    /** 欄位資料 */
+    private final List<ExcelCell> cellList;
+
+    public ExcelRow(
+            @NonNull Integer sheetIndex,
+            @NonNull String sheetName,
+            @NonNull Integer row,
+            @NonNull List<ExcelCell> cellList) {
+        this.sheetIndex = sheetIndex;
+        this.sheetName = sheetName;
+        this.row = row;
+        this.cellList = cellList;
+    }
+
+    /**
+     * 取得欄位資料(欄位資料依直行排序, 以二分搜尋取得)
+     *
+     * @param column 直行(從0開始)
+     * @return 欄位資料, 沒有資料時回傳null
+     */
+    public ExcelCell getCell(int column) {
+        int low = 0;
+        int high = cellList.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            ExcelCell cell = cellList.get(mid);
+            int cellColumn = cell.getColumn();
+            if (cellColumn < column) {
+                low = mid + 1;
+            } else if (cellColumn > column) {
+                high = mid - 1;
+            } else {
+                return cell;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 欄位是否為空白(沒有欄位資料或數值為空字串)
+     *
+     * @param column 直行(從0開始)
+     * @return 是否為空白
+     */
+    public boolean isBlank(int column) {
+        ExcelCell cell = getCell(column);
+        return null == cell || null == cell.getValue() || cell.getValue().isEmpty();
+    }
+
+    /**
+     * 取得欄位數值
+     *
+     * @param column 直行(從0開始)
+     * @return 欄位數值, 沒有欄位資料時回傳空字串
+     */
+    public String getValue(int column) {
+        ExcelCell cell = getCell(column);
+        return null == cell ? "" : cell.getValue();
+    }
+}
@@ -2,11 +2,13 @@ package io.github.af19git5.entity;
 
 import io.github.af19git5.builder.ExcelSheetBuilder;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Excel工作表資料
@@ -14,13 +16,33 @@ import java.util.*;
  * @author Jimmy Kang
  */
 @Getter
-public class ExcelSheet {
+public class ExcelSheet implements AutoCloseable {
+
+    /** 每個工作表的估計記憶體用量(不含欄位) */
+    private static final long HEAP_BYTES = 512;
 
     /** 工作表名稱 */
     @Setter @NonNull private String name = "";
 
     /** 欄位資料 */
-    @Setter @NonNull private List<ExcelCell> cellList = new ArrayList<>();
+    @Getter(AccessLevel.NONE)
+    private List<ExcelCell> cellList = new ArrayList<>();
+
+    /** 欄位資料(修改時清除欄位索引) */
+    @Getter(AccessLevel.NONE)
+    private final List<ExcelCell> cellListView = new CellListView();
+
+    /** 二維資料清單(依欄位索引取值) */
+    @Getter(AccessLevel.NONE)
+    private final List<List<String>> valueListView = new ValueListView();
+
+    /** 欄位索引(取用時才建立, 建立完成後才發布, 多個執行緒可同時讀取) */
+    @Getter(AccessLevel.NONE)
+    private volatile ExcelCellIndex cellIndex;
+
+    /** 欄位位置修改次數(欄位修改橫列或直行時遞增, 欄位索引以此判斷是否需重建) */
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong positionModCount = new AtomicLong();
 
     /** 合併欄位規則 */
     @Setter @NonNull private List<ExcelMergedRegion> mergedRegionList = new ArrayList<>();
@@ -53,6 +75,95 @@ public class ExcelSheet {
         this.cellList = cellList;
     }
 
+    /**
+     * 取得欄位資料(透過此清單修改時會同步清除欄位索引)
+     *
+     * @return 欄位資料
+     */
+    public List<ExcelCell> getCellList() {
+        return cellListView;
+    }
+
+    public void setCellList(@NonNull List<ExcelCell> cellList) {
+        this.cellList = cellList;
+        this.cellIndex = null;
+    }
+
+    /**
+     * 取得欄位(第一次取用時建立索引)
+     *
+     * <p>索引存於記憶體(每個欄位約30~50 byte), 欄位已改存暫存檔時索引仍使用記憶體
+     *
+     * @param row 橫列(從0開始)
+     * @param column 直行(從0開始)
+     * @return 欄位資料, 沒有欄位時回傳null
+     */
+    public ExcelCell getCell(int row, int column) {
+        int index = getCellIndex().indexOf(row, column);
+        return index < 0 ? null : cellList.get(index);
+    }
+
+    /**
+     * 取得橫列欄位(依直行排序, 第一次取用時建立索引)
+     *
+     * @param row 橫列(從0開始)
+     * @return 欄位資料
+     */
+    public List<ExcelCell> getRow(int row) {
+        int[] indexes = getCellIndex().rowIndexesOf(row);
+        List<ExcelCell> rowCellList = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            rowCellList.add(cellList.get(index));
+        }
+        return rowCellList;
+    }
+
+    /**
+     * 取得欄位索引(欄位數量改變、欄位位置直接修改或新增欄位過多時重建)
+     *
+     * @return 欄位索引
+     */
+    private ExcelCellIndex getCellIndex() {
+        ExcelCellIndex index = cellIndex;
+        if (null == index
+                || index.size() != cellList.size()
+                || index.isStale()
+                || index.appendedCount() > maxAppendedCount(index.size())) {
+            index = new ExcelCellIndex(cellList, positionModCount);
+            cellIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * 估計工作表的記憶體用量(不轉換欄位數值, 欄式欄位資料不建立欄位)
+     *
+     * @return 記憶體用量(byte)
+     */
+    public long estimateHeapBytes() {
+        if (cellList instanceof ExcelColumnarCellList) {
+            return HEAP_BYTES + ((ExcelColumnarCellList) cellList).estimateHeapBytes();
+        }
+        long bytes = HEAP_BYTES;
+        for (ExcelCell cell : cellList) {
+            bytes += cell.estimateHeapBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * 釋放欄位資料佔用的資源(以spillToDisk讀取時關閉暫存檔, 關閉後欄位資料不可再使用)
+     *
+     * <p>一般欄位資料不須關閉; 由CachingExcelReader取得的工作表為共用物件, 請勿關閉
+     */
+    @Override
+    public void close() {
+        cellIndex = null;
+        if (cellList instanceof ExcelColumnarCellList) {
+            ((ExcelColumnarCellList) cellList).close();
+        }
+    }
+
     public static ExcelSheetBuilder init() {
         return new ExcelSheetBuilder();
     }
@@ -84,35 +195,197 @@ public class ExcelSheet {
      * 會依照Excel column及row的最大值印出該大小值的二維矩陣
      * 欄位數值為空時會補空字串
      *
+     * <p>回傳可修改的複本; 不須複製時請使用toValueListView
+     *
      * @return 二維資料陣列
      */
     public List<List<String>> toValueList() {
-        List<ExcelCell> cellList = new ArrayList<>(this.cellList);
-        cellList.sort(
-                Comparator.comparingInt(ExcelCell::getRow).thenComparingInt(ExcelCell::getColumn));
-        Map<Integer, List<String>> dataMap = new LinkedHashMap<>();
-        int maxColumnNum = 0;
+        String[][] values = toValueArray();
+        List<List<String>> valueList = new ArrayList<>(values.length);
+        for (String[] rowValues : values) {
+            valueList.add(new ArrayList<>(Arrays.asList(rowValues)));
+        }
+        return valueList;
+    }
+
+    /**
+     * 取得二維資料的唯讀清單(依欄位索引取值, 不複製欄位資料)
+     *
+     * <p>列數、行數及數值皆依目前的欄位資料計算, 欄位資料修改後立即反映
+     *
+     * @return 二維資料清單
+     */
+    public List<List<String>> toValueListView() {
+        return valueListView;
+    }
+
+    /**
+     * 將cell陣列資料轉為二維字串陣列(依橫列、直行放入, 欄位數值為空時會補空字串)
+     *
+     * @return 二維字串陣列
+     */
+    public String[][] toValueArray() {
+        ExcelCellIndex index = getCellIndex();
+        String[][] values = new String[index.getMaxRow() + 1][index.getMaxColumn() + 1];
+        for (String[] rowValues : values) {
+            Arrays.fill(rowValues, "");
+        }
         for (ExcelCell cell : cellList) {
-            List<String> columnList =
-                    dataMap.computeIfAbsent(cell.getRow(), k -> new ArrayList<>());
-            columnList.add(cell.getValue());
-            maxColumnNum = Math.max(maxColumnNum, columnList.size());
-        }
-        List<List<String>> dataList = new ArrayList<>();
-        for (Integer rowNum : dataMap.keySet()) {
-            while (rowNum > dataList.size()) {
-                List<String> beforeColumnList = new ArrayList<>();
-                for (int i = 0; i < maxColumnNum; i++) {
-                    beforeColumnList.add("");
+            int row = cell.getRow();
+            int column = cell.getColumn();
+            if (row < 0 || row >= values.length || column < 0 || column >= values[row].length) {
+                // 索引建立後欄位位置又被修改(例如其他執行緒同時修改)
+                continue;
+            }
+            if (null != cell.getValue()) values[row][column] = cell.getValue();
+        }
+        return values;
+    }
+
+    /**
+     * 取得欄位數值
+     *
+     * @param row 橫列
+     * @param column 直行
+     * @return 欄位數值, 沒有欄位或數值為null時回傳空字串
+     */
+    private String getValue(int row, int column) {
+        ExcelCell cell = getCell(row, column);
+        return null == cell || null == cell.getValue() ? "" : cell.getValue();
+    }
+
+    /** 二維資料清單(依欄位索引取值, 列數依目前的最大橫列) */
+    private class ValueListView extends AbstractList<List<String>> implements RandomAccess {
+
+        @Override
+        public List<String> get(int row) {
+            Objects.checkIndex(row, size());
+            return new RowValueListView(row);
+        }
+
+        @Override
+        public int size() {
+            return getCellIndex().getMaxRow() + 1;
+        }
+    }
+
+    /** 橫列資料清單(依欄位索引取值, 行數依目前的最大直行) */
+    private class RowValueListView extends AbstractList<String> implements RandomAccess {
+
+        private final int row;
+
+        private RowValueListView(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public String get(int column) {
+            Objects.checkIndex(column, size());
+            return getValue(row, column);
+        }
+
+        @Override
+        public int size() {
+            return getCellIndex().getMaxColumn() + 1;
+        }
+    }
+
+    /**
+     * 索引建立後可新增的欄位數量(超過時重建索引)
+     *
+     * @param size 欄位數量
+     * @return 欄位數量
+     */
+    private static int maxAppendedCount(int size) {
+        return Math.max(1024, size >>> 3);
+    }
+
+    /** 欄位資料清單(新增於尾端時更新欄位索引, 其他修改時清除欄位索引) */
+    private class CellListView extends AbstractList<ExcelCell> implements RandomAccess {
+
+        @Override
+        public ExcelCell get(int index) {
+            return cellList.get(index);
+        }
+
+        @Override
+        public int size() {
+            return cellList.size();
+        }
+
+        @Override
+        public ExcelCell set(int index, ExcelCell cell) {
+            ExcelCell previousCell = cellList.set(index, cell);
+            if (null == previousCell
+                    || !Objects.equals(previousCell.getRow(), cell.getRow())
+                    || !Objects.equals(previousCell.getColumn(), cell.getColumn())) {
+                cellIndex = null;
+            } else {
+                cell.attachPositionModCount(positionModCount);
+            }
+            return previousCell;
+        }
+
+        @Override
+        public void add(int index, ExcelCell cell) {
+            boolean isAppend = index == cellList.size();
+            cellList.add(index, cell);
+            modCount++;
+            ExcelCellIndex currentIndex = cellIndex;
+            if (isAppend
+                    && null != currentIndex
+                    && currentIndex.size() == cellList.size() - 1) {
+                appendToIndex(cell);
+            } else {
+                cellIndex = null;
+            }
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends ExcelCell> cells) {
+            modCount++;
+            boolean isChanged = cellList.addAll(cells);
+            ExcelCellIndex index = cellIndex;
+            if (null != index && index.size() + cells.size() == cellList.size()) {
+                for (ExcelCell cell : cells) {
+                    appendToIndex(cell);
                 }
-                dataList.add(beforeColumnList);
+            } else {
+                cellIndex = null;
             }
-            List<String> columnList = new ArrayList<>(dataMap.get(rowNum));
-            for (int i = columnList.size(); i < maxColumnNum; i++) {
-                columnList.add("");
+            return isChanged;
+        }
+
+        /**
+         * 將新增於尾端的欄位加入索引(新增過多時清除索引, 下次取用時重建)
+         *
+         * @param cell 欄位資料
+         */
+        private void appendToIndex(ExcelCell cell) {
+            ExcelCellIndex index = cellIndex;
+            if (null == index) return;
+            if (index.appendedCount() >= maxAppendedCount(index.size())) {
+                cellIndex = null;
+                return;
             }
-            dataList.add(columnList);
+            cell.attachPositionModCount(positionModCount);
+            index.append(
+                    null == cell.getRow() ? -1 : cell.getRow(),
+                    null == cell.getColumn() ? -1 : cell.getColumn());
+        }
+
+        @Override
+        public ExcelCell remove(int index) {
+            cellIndex = null;
+            modCount++;
+            return cellList.remove(index);
+        }
+
+        @Override
+        public void clear() {
+            cellIndex = null;
+            modCount++;
+            cellList.clear();
         }
-        return dataList;
     }
 }
@@ -0,0 +1,554 @@
+package io.github.af19git5.entity;
+
+import lombok.NonNull;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Excel工作表快照編碼(將讀取結果存為精簡二進位格式, 載入時不須重新解析Excel)
+ *
+ * <p>座標及長度以varint保存(座標為與前一欄位的差值), 字串及樣式於第一次出現時寫入並登記序號,
+ * 之後只寫序號; 數值、布林值及日期保存原始數值
+ *
+ * @author Jimmy Kang
+ */
+public final class ExcelSnapshotCodec {
+
+    private static final byte[] MAGIC = {'E', 'X', 'S', 'N'};
+
+    private static final int VERSION = 1;
+
+    private static final CellType[] CELL_TYPES = CellType.values();
+    private static final BorderStyle[] BORDER_STYLES = BorderStyle.values();
+    private static final HorizontalAlignment[] HORIZONTAL_ALIGNMENTS =
+            HorizontalAlignment.values();
+    private static final VerticalAlignment[] VERTICAL_ALIGNMENTS = VerticalAlignment.values();
+
+    /** 欄位類別代碼位移(低2位元為原始數值類別) */
+    private static final int CELL_TYPE_SHIFT = 2;
+
+    private static final int RAW_VALUE_TYPE_MASK = (1 << CELL_TYPE_SHIFT) - 1;
+
+    /** 參照代碼: 無 */
+    private static final int NULL_REF = 0;
+
+    /** 參照代碼: 新項目(內容緊接於後, 之後以序號 + 2參照) */
+    private static final int NEW_REF = 1;
+
+    private ExcelSnapshotCodec() {}
+
+    /**
+     * 寫出快照
+     *
+     * @param sheetList 工作表資料
+     * @param outputStream OutputStream(不負責關閉)
+     * @throws IOException 寫出錯誤
+     */
+    public static void encode(
+            @NonNull List<ExcelSheet> sheetList, @NonNull OutputStream outputStream)
+            throws IOException {
+        Encoder encoder = new Encoder(outputStream);
+        encoder.writeBytes(MAGIC);
+        encoder.writeVarInt(VERSION);
+        encoder.writeVarInt(sheetList.size());
+        for (ExcelSheet sheet : sheetList) {
+            encoder.writeSheet(sheet);
+        }
+        encoder.flush();
+    }
+
+    /**
+     * 載入快照
+     *
+     * @param bytes 快照內容
+     * @return 工作表資料
+     * @throws IOException 快照格式錯誤
+     */
+    public static List<ExcelSheet> decode(@NonNull byte[] bytes) throws IOException {
+        Decoder decoder = new Decoder(bytes);
+        if (bytes.length < MAGIC.length
+                || !Arrays.equals(Arrays.copyOf(bytes, MAGIC.length), MAGIC)) {
+            throw new IOException("Not an excel snapshot.");
+        }
+        decoder.position = MAGIC.length;
+        int version = decoder.readVarInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported excel snapshot version: " + version);
+        }
+        int sheetCount = decoder.readVarInt();
+        List<ExcelSheet> sheetList = new ArrayList<>(sheetCount);
+        for (int i = 0; i < sheetCount; i++) {
+            sheetList.add(decoder.readSheet());
+        }
+        return sheetList;
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long zigZagLong(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZagLong(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /** 快照寫出(自行緩衝, 不使用DataOutputStream) */
+    private static class Encoder {
+
+        private final OutputStream outputStream;
+        private final byte[] buffer = new byte[1 << 16];
+        private int position = 0;
+
+        /** 已寫出的字串序號 */
+        private final Map<String, Integer> stringIndexMap = new HashMap<>();
+
+        /** 已寫出的樣式序號(讀取時相同樣式共用同一物件) */
+        private final Map<ExcelStyle, Integer> styleIndexMap = new IdentityHashMap<>();
+
+        private Encoder(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        private void writeSheet(ExcelSheet sheet) throws IOException {
+            writeString(sheet.getName());
+            writeBoolean(sheet.getIsProtect());
+            writeString(sheet.getPassword());
+            writeVarInt(sheet.getFreezeColumnNum());
+            writeVarInt(sheet.getFreezeRowNum());
+            writeIntSet(sheet.getHiddenRowNumSet());
+            writeIntSet(sheet.getHiddenColumnNumSet());
+            writeVarInt(sheet.getOverrideColumnWidthMap().size());
+            for (Map.Entry<Integer, Integer> entry : sheet.getOverrideColumnWidthMap().entrySet()) {
+                writeVarInt(entry.getKey());
+                writeVarInt(entry.getValue());
+            }
+
+            List<ExcelMergedRegion> mergedRegionList = sheet.getMergedRegionList();
+            writeVarInt(mergedRegionList.size());
+            for (ExcelMergedRegion mergedRegion : mergedRegionList) {
+                writeVarInt(mergedRegion.getFirstRow());
+                writeVarInt(mergedRegion.getLastRow());
+                writeVarInt(mergedRegion.getFirstColumn());
+                writeVarInt(mergedRegion.getLastColumn());
+                writeEnum(mergedRegion.getBorderTop());
+                writeEnum(mergedRegion.getBorderBottom());
+                writeEnum(mergedRegion.getBorderLeft());
+                writeEnum(mergedRegion.getBorderRight());
+                writeString(mergedRegion.getBorderTopColor());
+                writeString(mergedRegion.getBorderBottomColor());
+                writeString(mergedRegion.getBorderLeftColor());
+                writeString(mergedRegion.getBorderRightColor());
+            }
+
+            List<ExcelCell> cellList = sheet.getCellList();
+            writeVarInt(cellList.size());
+            int previousRow = 0;
+            int previousColumn = 0;
+            for (ExcelCell cell : cellList) {
+                writeVarInt(zigZag(cell.getRow() - previousRow));
+                writeVarInt(zigZag(cell.getColumn() - previousColumn));
+                previousRow = cell.getRow();
+                previousColumn = cell.getColumn();
+                writeCell(cell);
+            }
+        }
+
+        private void writeCell(ExcelCell cell) throws IOException {
+            byte rawValueType = cell.getRawValueType();
+            writeByte(cell.getCellType().ordinal() << CELL_TYPE_SHIFT | rawValueType);
+            switch (rawValueType) {
+                case ExcelCell.RAW_NUMBER:
+                    writeLong(Double.doubleToRawLongBits(cell.getNumber()));
+                    break;
+                case ExcelCell.RAW_BOOLEAN:
+                    writeBoolean(cell.getBoolean());
+                    break;
+                case ExcelCell.RAW_DATE_TIME:
+                    LocalDateTime dateTime = cell.getLocalDateTime();
+                    writeVarLong(zigZagLong(dateTime.toEpochSecond(ZoneOffset.UTC)));
+                    writeVarInt(dateTime.getNano());
+                    writeString(cell.getValue());
+                    break;
+                default:
+                    writeString(cell.getValue());
+                    break;
+            }
+            writeStyle(cell.getStyle());
+        }
+
+        private void writeStyle(ExcelStyle style) throws IOException {
+            if (null == style) {
+                writeVarInt(NULL_REF);
+                return;
+            }
+            Integer styleIndex = styleIndexMap.get(style);
+            if (null != styleIndex) {
+                writeVarInt(styleIndex + 2);
+                return;
+            }
+            styleIndexMap.put(style, styleIndexMap.size());
+            writeVarInt(NEW_REF);
+            writeByte(
+                    (style.getIsWrapText() ? 1 : 0)
+                            | (style.getIsLock() ? 2 : 0)
+                            | (style.getBold() ? 4 : 0)
+                            | (style.getItalic() ? 8 : 0)
+                            | (style.getStrikeout() ? 16 : 0));
+            writeEnum(style.getBorderTop());
+            writeEnum(style.getBorderBottom());
+            writeEnum(style.getBorderLeft());
+            writeEnum(style.getBorderRight());
+            writeString(style.getBorderTopColor());
+            writeString(style.getBorderBottomColor());
+            writeString(style.getBorderLeftColor());
+            writeString(style.getBorderRightColor());
+            writeEnum(style.getHorizontalAlignment());
+            writeEnum(style.getVerticalAlignment());
+            writeString(style.getBackgroundColor());
+            writeString(style.getFontName());
+            writeVarInt(style.getFontSize());
+            writeString(style.getFontColor());
+        }
+
+        private void writeString(String value) throws IOException {
+            if (null == value) {
+                writeVarInt(NULL_REF);
+                return;
+            }
+            Integer stringIndex = stringIndexMap.get(value);
+            if (null != stringIndex) {
+                writeVarInt(stringIndex + 2);
+                return;
+            }
+            stringIndexMap.put(value, stringIndexMap.size());
+            writeVarInt(NEW_REF);
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            writeBytes(bytes);
+        }
+
+        private void writeIntSet(Iterable<Integer> values) throws IOException {
+            int[] sortedValues = new int[0];
+            int count = 0;
+            for (Integer value : values) {
+                if (count == sortedValues.length) {
+                    sortedValues = Arrays.copyOf(sortedValues, Math.max(8, count * 2));
+                }
+                sortedValues[count++] = value;
+            }
+            Arrays.sort(sortedValues, 0, count);
+            writeVarInt(count);
+            int previousValue = 0;
+            for (int i = 0; i < count; i++) {
+                writeVarInt(zigZag(sortedValues[i] - previousValue));
+                previousValue = sortedValues[i];
+            }
+        }
+
+        private void writeEnum(Enum<?> value) throws IOException {
+            writeVarInt(null == value ? NULL_REF : value.ordinal() + 1);
+        }
+
+        private void writeBoolean(Boolean value) throws IOException {
+            writeByte(null != value && value ? 1 : 0);
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            ensureSpace(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeVarLong(long value) throws IOException {
+            ensureSpace(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeLong(long value) throws IOException {
+            ensureSpace(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void writeByte(int value) throws IOException {
+            ensureSpace(1);
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeBytes(byte[] bytes) throws IOException {
+            if (bytes.length > buffer.length) {
+                flush();
+                outputStream.write(bytes);
+                return;
+            }
+            ensureSpace(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private void ensureSpace(int length) throws IOException {
+            if (position + length > buffer.length) flush();
+        }
+
+        private void flush() throws IOException {
+            outputStream.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    /** 快照載入(直接讀取位元組陣列) */
+    private static class Decoder {
+
+        private final byte[] bytes;
+        private int position = 0;
+
+        /** 已載入的字串(依序號) */
+        private String[] strings = new String[64];
+
+        private int stringCount = 0;
+
+        /** 已載入的樣式(依序號) */
+        private final List<ExcelStyle> styleList = new ArrayList<>();
+
+        private Decoder(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private ExcelSheet readSheet() throws IOException {
+            String name = readString();
+            ExcelSheet sheet = new ExcelSheet();
+            sheet.setName(null == name ? "" : name);
+            boolean isProtect = readBoolean();
+            String password = readString();
+            if (isProtect) sheet.protect(null == password ? "" : password);
+            sheet.freezePane(readVarInt(), readVarInt());
+            readIntSet(sheet.getHiddenRowNumSet());
+            readIntSet(sheet.getHiddenColumnNumSet());
+            int overrideColumnWidthCount = readVarInt();
+            for (int i = 0; i < overrideColumnWidthCount; i++) {
+                sheet.addOverrideColumnWidth(readVarInt(), readVarInt());
+            }
+
+            int mergedRegionCount = readVarInt();
+            List<ExcelMergedRegion> mergedRegionList = new ArrayList<>(mergedRegionCount);
+            for (int i = 0; i < mergedRegionCount; i++) {
+                ExcelMergedRegion mergedRegion =
+                        new ExcelMergedRegion(
+                                readVarInt(), readVarInt(), readVarInt(), readVarInt());
+                mergedRegion.setBorderTop(readEnum(BORDER_STYLES));
+                mergedRegion.setBorderBottom(readEnum(BORDER_STYLES));
+                mergedRegion.setBorderLeft(readEnum(BORDER_STYLES));
+                mergedRegion.setBorderRight(readEnum(BORDER_STYLES));
+                String borderTopColor = readString();
+                String borderBottomColor = readString();
+                String borderLeftColor = readString();
+                String borderRightColor = readString();
+                if (null != borderTopColor) mergedRegion.setBorderTopColor(borderTopColor);
+                if (null != borderBottomColor) {
+                    mergedRegion.setBorderBottomColor(borderBottomColor);
+                }
+                if (null != borderLeftColor) mergedRegion.setBorderLeftColor(borderLeftColor);
+                if (null != borderRightColor) {
+                    mergedRegion.setBorderRightColor(borderRightColor);
+                }
+                mergedRegionList.add(mergedRegion);
+            }
+            sheet.setMergedRegionList(mergedRegionList);
+
+            int cellCount = readVarInt();
+            List<ExcelCell> cellList = new ArrayList<>(cellCount);
+            int row = 0;
+            int column = 0;
+            for (int i = 0; i < cellCount; i++) {
+                row += unZigZag(readVarInt());
+                column += unZigZag(readVarInt());
+                cellList.add(readCell(row, column));
+            }
+            sheet.setCellList(cellList);
+            return sheet;
+        }
+
+        private ExcelCell readCell(int row, int column) throws IOException {
+            int typeCode = readByte();
+            int cellTypeIndex = typeCode >>> CELL_TYPE_SHIFT;
+            if (cellTypeIndex >= CELL_TYPES.length) {
+                throw new IOException("Invalid cell type: " + cellTypeIndex);
+            }
+            ExcelCell cell = new ExcelCell(row, column, null, CELL_TYPES[cellTypeIndex]);
+            switch (typeCode & RAW_VALUE_TYPE_MASK) {
+                case ExcelCell.RAW_NUMBER:
+                    cell.setNumber(Double.longBitsToDouble(readLong()));
+                    break;
+                case ExcelCell.RAW_BOOLEAN:
+                    cell.setBoolean(readBoolean());
+                    break;
+                case ExcelCell.RAW_DATE_TIME:
+                    long epochSecond = unZigZagLong(readVarLong());
+                    int nano = readVarInt();
+                    cell.setRawDateTime(
+                            LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC),
+                            readString());
+                    break;
+                default:
+                    cell.setValue(readString());
+                    break;
+            }
+            cell.setStyle(readStyle());
+            return cell;
+        }
+
+        private ExcelStyle readStyle() throws IOException {
+            int ref = readVarInt();
+            if (ref == NULL_REF) return null;
+            if (ref != NEW_REF) {
+                if (ref - 2 >= styleList.size()) {
+                    throw new IOException("Invalid style reference: " + ref);
+                }
+                return styleList.get(ref - 2);
+            }
+            ExcelStyle style = new ExcelStyle();
+            int flags = readByte();
+            style.setIsWrapText((flags & 1) != 0);
+            style.setIsLock((flags & 2) != 0);
+            style.setBold((flags & 4) != 0);
+            style.setItalic((flags & 8) != 0);
+            style.setStrikeout((flags & 16) != 0);
+            style.setBorderTop(readEnum(BORDER_STYLES));
+            style.setBorderBottom(readEnum(BORDER_STYLES));
+            style.setBorderLeft(readEnum(BORDER_STYLES));
+            style.setBorderRight(readEnum(BORDER_STYLES));
+            String borderTopColor = readString();
+            String borderBottomColor = readString();
+            String borderLeftColor = readString();
+            String borderRightColor = readString();
+            if (null != borderTopColor) style.setBorderTopColor(borderTopColor);
+            if (null != borderBottomColor) style.setBorderBottomColor(borderBottomColor);
+            if (null != borderLeftColor) style.setBorderLeftColor(borderLeftColor);
+            if (null != borderRightColor) style.setBorderRightColor(borderRightColor);
+            style.setHorizontalAlignment(readEnum(HORIZONTAL_ALIGNMENTS));
+            style.setVerticalAlignment(readEnum(VERTICAL_ALIGNMENTS));
+            String backgroundColor = readString();
+            if (null != backgroundColor) style.setBackgroundColor(backgroundColor);
+            style.setFontName(readString());
+            style.setFontSize(readVarInt());
+            String fontColor = readString();
+            if (null != fontColor) style.setFontColor(fontColor);
+            // 同一樣式由多個欄位共用, 以唯讀樣式回傳
+            ExcelStyle readOnlyStyle = new ExcelReadOnlyStyle(style);
+            styleList.add(readOnlyStyle);
+            return readOnlyStyle;
+        }
+
+        private String readString() throws IOException {
+            int ref = readVarInt();
+            if (ref == NULL_REF) return null;
+            if (ref != NEW_REF) {
+                if (ref - 2 >= stringCount) {
+                    throw new IOException("Invalid string reference: " + ref);
+                }
+                return strings[ref - 2];
+            }
+            int length = readVarInt();
+            require(length);
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            if (stringCount == strings.length) {
+                strings = Arrays.copyOf(strings, stringCount * 2);
+            }
+            strings[stringCount++] = value;
+            return value;
+        }
+
+        private void readIntSet(Set<Integer> values) throws IOException {
+            int count = readVarInt();
+            int value = 0;
+            for (int i = 0; i < count; i++) {
+                value += unZigZag(readVarInt());
+                values.add(value);
+            }
+        }
+
+        private <E extends Enum<E>> E readEnum(E[] values) throws IOException {
+            int ref = readVarInt();
+            if (ref == NULL_REF) return null;
+            if (ref > values.length) throw new IOException("Invalid enum ordinal: " + ref);
+            return values[ref - 1];
+        }
+
+        private boolean readBoolean() throws IOException {
+            return readByte() != 0;
+        }
+
+        private int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IOException("Malformed varint.");
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 70; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IOException("Malformed varint.");
+        }
+
+        private long readLong() throws IOException {
+            require(8);
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = value << 8 | (bytes[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        private int readByte() throws IOException {
+            require(1);
+            return bytes[position++] & 0xFF;
+        }
+
+        private void require(int length) throws IOException {
+            if (length < 0 || length > bytes.length - position) {
+                throw new EOFException("Unexpected end of excel snapshot.");
+            }
+        }
+    }
+}
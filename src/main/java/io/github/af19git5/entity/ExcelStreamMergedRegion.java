@@ -107,4 +107,33 @@ public class ExcelStreamMergedRegion {
         this.borderLeftColor = indexedColor;
         this.borderRightColor = indexedColor;
     }
+
+    /**
+     * 是否設定任一邊線
+     *
+     * @return 是否設定邊線
+     */
+    public boolean hasBorder() {
+        return !BorderStyle.NONE.equals(borderTop)
+                || !BorderStyle.NONE.equals(borderBottom)
+                || !BorderStyle.NONE.equals(borderLeft)
+                || !BorderStyle.NONE.equals(borderRight);
+    }
+
+    /**
+     * 取得邊線比對key(邊線樣式及顏色相同的規則取得相同的key)
+     *
+     * @return 邊線比對key
+     */
+    public ExcelStyleKey toBorderStyleKey() {
+        return new ExcelStyleKey(
+                borderTop,
+                borderBottom,
+                borderLeft,
+                borderRight,
+                borderTopColor,
+                borderBottomColor,
+                borderLeftColor,
+                borderRightColor);
+    }
 }
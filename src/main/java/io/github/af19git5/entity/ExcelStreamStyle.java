@@ -91,7 +91,48 @@ public class ExcelStreamStyle {
         this.borderRightColor = indexedColor;
     }
 
+    /**
+     * 取得樣式比對key(內容相同的樣式取得相同的key)
+     *
+     * @return 樣式比對key
+     */
+    public ExcelStyleKey toStyleKey() {
+        return new ExcelStyleKey(
+                isWrapText,
+                isLock,
+                borderTop,
+                borderBottom,
+                borderLeft,
+                borderRight,
+                borderTopColor,
+                borderBottomColor,
+                borderLeftColor,
+                borderRightColor,
+                horizontalAlignment,
+                verticalAlignment,
+                backgroundColor,
+                null == fontName || fontName.isEmpty() ? null : fontName,
+                fontSize,
+                fontColor,
+                bold,
+                italic,
+                strikeout);
+    }
+
     public CellStyle toCellStyle(Workbook workbook) {
+        return toCellStyle(workbook, new ExcelFontRegistry(workbook));
+    }
+
+    /**
+     * 轉換為workbook樣式(內容相同的字體共用)
+     *
+     * @param workbook workbook
+     * @param fontRegistry 同一workbook的字體登記表
+     * @return workbook樣式
+     */
+    public CellStyle toCellStyle(
+            @NonNull Workbook workbook, @NonNull ExcelFontRegistry fontRegistry) {
+        fontRegistry.checkWorkbook(workbook);
         CellStyle cellStyle = workbook.createCellStyle();
         cellStyle.setWrapText(this.isWrapText);
         cellStyle.setLocked(this.isLock);
@@ -124,19 +165,15 @@ public class ExcelStreamStyle {
             cellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
         }
 
-        Font font = workbook.createFont();
-        if (null != this.fontName && !this.fontName.isEmpty()) {
-            font.setFontName(this.fontName);
-        }
-        font.setFontHeightInPoints(this.fontSize.shortValue());
-        font.setBold(this.bold);
-        font.setItalic(this.italic);
-        font.setStrikeout(this.strikeout);
-
-        if (null != this.fontColor) {
-            font.setColor(fontColor.getIndex());
-        }
-
+        Font font =
+                fontRegistry.getFont(
+                        this.fontName,
+                        this.fontSize,
+                        this.bold,
+                        this.italic,
+                        this.strikeout,
+                        this.fontColor,
+                        f -> f.setColor(fontColor.getIndex()));
         cellStyle.setFont(font);
         return cellStyle;
     }
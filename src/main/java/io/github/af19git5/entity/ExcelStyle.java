@@ -13,9 +13,6 @@ import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.hssf.util.HSSFColor;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.*;
-import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTColor;
-
-import java.awt.Color;
 
 /**
  * Excel欄位樣式資料
@@ -83,6 +80,9 @@ public class ExcelStyle {
     /** 是否加入刪除線 */
     @NonNull private Boolean strikeout = false;
 
+    /** 資料格式(例如yyyy-mm-dd hh:mm:ss), null時使用一般格式 */
+    private String dataFormat;
+
     public static ExcelStyleBuilder init() {
         return new ExcelStyleBuilder();
     }
@@ -130,7 +130,7 @@ public class ExcelStyle {
      * @return 是否符合格式
      */
     private boolean isValidColorHex(@NonNull String colorHex) {
-        return colorHex.matches("^#(?:[0-9a-fA-F]{3}){1,2}$");
+        return ExcelColors.isValidColorHex(colorHex);
     }
 
     public void setAllBorder(@NonNull BorderStyle borderStyle) {
@@ -151,6 +151,34 @@ public class ExcelStyle {
 
     public ExcelStyle() {}
 
+    /**
+     * 複製樣式(讀取取得的樣式為唯讀, 須修改時複製後再設定)
+     *
+     * @param style 樣式
+     */
+    public ExcelStyle(@NonNull ExcelStyle style) {
+        this.isWrapText = style.isWrapText;
+        this.isLock = style.isLock;
+        this.borderTop = style.borderTop;
+        this.borderBottom = style.borderBottom;
+        this.borderLeft = style.borderLeft;
+        this.borderRight = style.borderRight;
+        this.borderTopColor = style.borderTopColor;
+        this.borderBottomColor = style.borderBottomColor;
+        this.borderLeftColor = style.borderLeftColor;
+        this.borderRightColor = style.borderRightColor;
+        this.horizontalAlignment = style.horizontalAlignment;
+        this.verticalAlignment = style.verticalAlignment;
+        this.backgroundColor = style.backgroundColor;
+        this.fontName = style.fontName;
+        this.fontSize = style.fontSize;
+        this.fontColor = style.fontColor;
+        this.bold = style.bold;
+        this.italic = style.italic;
+        this.strikeout = style.strikeout;
+        this.dataFormat = style.dataFormat;
+    }
+
     public ExcelStyle(@NonNull HSSFWorkbook workbook, @NonNull HSSFCellStyle cellStyle) {
         HSSFPalette palette = workbook.getCustomPalette();
         this.isWrapText = cellStyle.getWrapText();
@@ -159,40 +187,34 @@ public class ExcelStyle {
         this.borderBottom = cellStyle.getBorderBottom();
         this.borderLeft = cellStyle.getBorderLeft();
         this.borderRight = cellStyle.getBorderRight();
-        this.borderTopColor =
-                convertRGBToHex(palette.getColor(cellStyle.getTopBorderColor()).getTriplet());
+        this.borderTopColor = convertHSSColorToHex(palette.getColor(cellStyle.getTopBorderColor()));
         this.borderBottomColor =
-                convertRGBToHex(palette.getColor(cellStyle.getBottomBorderColor()).getTriplet());
+                convertHSSColorToHex(palette.getColor(cellStyle.getBottomBorderColor()));
         this.borderLeftColor =
-                convertRGBToHex(palette.getColor(cellStyle.getLeftBorderColor()).getTriplet());
+                convertHSSColorToHex(palette.getColor(cellStyle.getLeftBorderColor()));
         this.borderRightColor =
-                convertRGBToHex(palette.getColor(cellStyle.getRightBorderColor()).getTriplet());
+                convertHSSColorToHex(palette.getColor(cellStyle.getRightBorderColor()));
         this.horizontalAlignment = cellStyle.getAlignment();
         this.verticalAlignment = cellStyle.getVerticalAlignment();
-        this.backgroundColor =
-                convertRGBToHex(cellStyle.getFillForegroundColorColor().getTriplet());
+        this.backgroundColor = convertHSSColorToHex(cellStyle.getFillForegroundColorColor());
         HSSFFont font = cellStyle.getFont(workbook);
         this.fontName = font.getFontName();
         this.fontSize = (int) font.getFontHeightInPoints();
         this.bold = font.getBold();
         this.italic = font.getItalic();
         this.strikeout = font.getStrikeout();
-        HSSFColor hssfColor = font.getHSSFColor(workbook);
-        if (null != hssfColor) {
-            this.fontColor = convertRGBToHex(hssfColor.getTriplet());
-        }
+        this.fontColor = convertHSSColorToHex(font.getHSSFColor(workbook));
     }
 
-    private String convertRGBToHex(short[] rgbArray) {
-        if (rgbArray.length != 3) return null;
-        try {
-            String hexRed = String.format("%02X", rgbArray[0]);
-            String hexGreen = String.format("%02X", rgbArray[1]);
-            String hexBlue = String.format("%02X", rgbArray[2]);
-            return "#" + hexRed + hexGreen + hexBlue;
-        } catch (NumberFormatException e) {
-            return null;
-        }
+    /**
+     * xls顏色轉為16進位色碼
+     *
+     * @param color xls顏色(色盤中沒有該序號時為null)
+     * @return 16進位色碼, 沒有顏色時回傳null
+     */
+    private String convertHSSColorToHex(HSSFColor color) {
+        if (null == color) return null;
+        return ExcelColors.toColorHex(color.getTriplet());
     }
 
     public ExcelStyle(@NonNull XSSFCellStyle cellStyle) {
@@ -224,8 +246,66 @@ public class ExcelStyle {
         return "#" + color.getARGBHex().substring(2);
     }
 
+    /**
+     * 取得樣式比對key(內容相同的樣式取得相同的key)
+     *
+     * @return 樣式比對key
+     */
+    public ExcelStyleKey toStyleKey() {
+        return new ExcelStyleKey(
+                isWrapText,
+                isLock,
+                borderTop,
+                borderBottom,
+                borderLeft,
+                borderRight,
+                ExcelColors.normalizeColorHex(borderTopColor),
+                ExcelColors.normalizeColorHex(borderBottomColor),
+                ExcelColors.normalizeColorHex(borderLeftColor),
+                ExcelColors.normalizeColorHex(borderRightColor),
+                horizontalAlignment,
+                verticalAlignment,
+                ExcelColors.normalizeColorHex(backgroundColor),
+                null == fontName || fontName.isEmpty() ? null : fontName,
+                fontSize,
+                ExcelColors.normalizeColorHex(fontColor),
+                bold,
+                italic,
+                strikeout,
+                null == dataFormat || dataFormat.isEmpty() ? null : dataFormat);
+    }
+
     public HSSFCellStyle toHSSCellStyle(@NonNull HSSFWorkbook workbook) {
-        HSSFPalette palette = workbook.getCustomPalette();
+        return toHSSCellStyle(
+                workbook, new ExcelFontRegistry(workbook), new ExcelColorRegistry(workbook));
+    }
+
+    /**
+     * 轉換為xls樣式(內容相同的字體共用)
+     *
+     * @param workbook workbook
+     * @param fontRegistry 同一workbook的字體登記表
+     * @return xls樣式
+     */
+    public HSSFCellStyle toHSSCellStyle(
+            @NonNull HSSFWorkbook workbook, @NonNull ExcelFontRegistry fontRegistry) {
+        return toHSSCellStyle(workbook, fontRegistry, new ExcelColorRegistry(workbook));
+    }
+
+    /**
+     * 轉換為xls樣式(內容相同的字體共用, 色碼只轉換一次)
+     *
+     * @param workbook workbook
+     * @param fontRegistry 同一workbook的字體登記表
+     * @param colorRegistry 同一workbook的顏色登記表
+     * @return xls樣式
+     */
+    public HSSFCellStyle toHSSCellStyle(
+            @NonNull HSSFWorkbook workbook,
+            @NonNull ExcelFontRegistry fontRegistry,
+            @NonNull ExcelColorRegistry colorRegistry) {
+        fontRegistry.checkWorkbook(workbook);
+        colorRegistry.checkWorkbook(workbook);
         HSSFCellStyle cellStyle = workbook.createCellStyle();
         cellStyle.setLocked(this.isLock);
         cellStyle.setWrapText(this.isWrapText);
@@ -235,80 +315,77 @@ public class ExcelStyle {
         cellStyle.setBorderRight(this.borderRight);
 
         if (null != this.borderTopColor) {
-            Color rgbColor = Color.decode(this.borderTopColor);
-            HSSFColor color =
-                    palette.findSimilarColor(
-                            (byte) rgbColor.getRed(),
-                            (byte) rgbColor.getGreen(),
-                            (byte) rgbColor.getBlue());
-            cellStyle.setTopBorderColor(color.getIndex());
+            cellStyle.setTopBorderColor(colorRegistry.getIndex(this.borderTopColor));
         }
 
         if (null != this.borderBottomColor) {
-            Color rgbColor = Color.decode(this.borderBottomColor);
-            HSSFColor color =
-                    palette.findSimilarColor(
-                            (byte) rgbColor.getRed(),
-                            (byte) rgbColor.getGreen(),
-                            (byte) rgbColor.getBlue());
-            cellStyle.setBottomBorderColor(color.getIndex());
+            cellStyle.setBottomBorderColor(colorRegistry.getIndex(this.borderBottomColor));
         }
 
         if (null != this.borderLeftColor) {
-            Color rgbColor = Color.decode(this.borderLeftColor);
-            HSSFColor color =
-                    palette.findSimilarColor(
-                            (byte) rgbColor.getRed(),
-                            (byte) rgbColor.getGreen(),
-                            (byte) rgbColor.getBlue());
-            cellStyle.setLeftBorderColor(color.getIndex());
+            cellStyle.setLeftBorderColor(colorRegistry.getIndex(this.borderLeftColor));
         }
 
         if (null != this.borderRightColor) {
-            Color rgbColor = Color.decode(this.borderRightColor);
-            HSSFColor color =
-                    palette.findSimilarColor(
-                            (byte) rgbColor.getRed(),
-                            (byte) rgbColor.getGreen(),
-                            (byte) rgbColor.getBlue());
-            cellStyle.setRightBorderColor(color.getIndex());
+            cellStyle.setRightBorderColor(colorRegistry.getIndex(this.borderRightColor));
         }
 
         cellStyle.setAlignment(this.horizontalAlignment);
         cellStyle.setVerticalAlignment(this.verticalAlignment);
 
         if (null != this.backgroundColor) {
-            Color rgbColor = Color.decode(this.backgroundColor);
-            HSSFColor color =
-                    palette.findSimilarColor(
-                            (byte) rgbColor.getRed(),
-                            (byte) rgbColor.getGreen(),
-                            (byte) rgbColor.getBlue());
-            cellStyle.setFillForegroundColor(color.getIndex());
+            cellStyle.setFillForegroundColor(colorRegistry.getIndex(this.backgroundColor));
             cellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
         }
 
-        HSSFFont font = workbook.createFont();
-        if (null != this.fontName && !this.fontName.isEmpty()) {
-            font.setFontName(this.fontName);
-        }
-        font.setFontHeightInPoints(this.fontSize.shortValue());
-        font.setBold(this.bold);
-        font.setItalic(this.italic);
-        font.setStrikeout(this.strikeout);
-
-        if (null != this.fontColor) {
-            Color rgbColor = Color.decode(this.fontColor);
-            HSSFColor hssfColor =
-                    palette.findSimilarColor(
-                            rgbColor.getRed(), rgbColor.getGreen(), rgbColor.getBlue());
-            font.setColor(hssfColor.getIndex());
-        }
+        Font font =
+                fontRegistry.getFont(
+                        this.fontName,
+                        this.fontSize,
+                        this.bold,
+                        this.italic,
+                        this.strikeout,
+                        ExcelColors.normalizeColorHex(this.fontColor),
+                        f -> f.setColor(colorRegistry.getIndex(this.fontColor)));
         cellStyle.setFont(font);
+
+        if (null != this.dataFormat && !this.dataFormat.isEmpty()) {
+            cellStyle.setDataFormat(workbook.createDataFormat().getFormat(this.dataFormat));
+        }
         return cellStyle;
     }
 
     public XSSFCellStyle toXSSCellStyle(@NonNull XSSFWorkbook workbook) {
+        return toXSSCellStyle(
+                workbook, new ExcelFontRegistry(workbook), new ExcelColorRegistry(workbook));
+    }
+
+    /**
+     * 轉換為xlsx樣式(內容相同的字體共用)
+     *
+     * @param workbook workbook
+     * @param fontRegistry 同一workbook的字體登記表
+     * @return xlsx樣式
+     */
+    public XSSFCellStyle toXSSCellStyle(
+            @NonNull XSSFWorkbook workbook, @NonNull ExcelFontRegistry fontRegistry) {
+        return toXSSCellStyle(workbook, fontRegistry, new ExcelColorRegistry(workbook));
+    }
+
+    /**
+     * 轉換為xlsx樣式(內容相同的字體共用, 同一色碼共用顏色物件)
+     *
+     * @param workbook workbook
+     * @param fontRegistry 同一workbook的字體登記表
+     * @param colorRegistry 同一workbook的顏色登記表
+     * @return xlsx樣式
+     */
+    public XSSFCellStyle toXSSCellStyle(
+            @NonNull XSSFWorkbook workbook,
+            @NonNull ExcelFontRegistry fontRegistry,
+            @NonNull ExcelColorRegistry colorRegistry) {
+        fontRegistry.checkWorkbook(workbook);
+        colorRegistry.checkWorkbook(workbook);
         XSSFCellStyle cellStyle = workbook.createCellStyle();
         cellStyle.setLocked(this.isLock);
         cellStyle.setWrapText(this.isWrapText);
@@ -318,60 +395,43 @@ public class ExcelStyle {
         cellStyle.setBorderRight(this.borderRight);
 
         if (null != this.borderTopColor) {
-            XSSFColor color =
-                    XSSFColor.from(CTColor.Factory.newInstance(), new DefaultIndexedColorMap());
-            color.setARGBHex(this.borderTopColor.substring(1));
-            cellStyle.setTopBorderColor(color);
+            cellStyle.setTopBorderColor(colorRegistry.getXSSFColor(this.borderTopColor));
         }
 
         if (null != this.borderBottomColor) {
-            XSSFColor color =
-                    XSSFColor.from(CTColor.Factory.newInstance(), new DefaultIndexedColorMap());
-            color.setARGBHex(this.borderBottomColor.substring(1));
-            cellStyle.setBottomBorderColor(color);
+            cellStyle.setBottomBorderColor(colorRegistry.getXSSFColor(this.borderBottomColor));
         }
 
         if (null != this.borderLeftColor) {
-            XSSFColor color =
-                    XSSFColor.from(CTColor.Factory.newInstance(), new DefaultIndexedColorMap());
-            color.setARGBHex(this.borderLeftColor.substring(1));
-            cellStyle.setLeftBorderColor(color);
+            cellStyle.setLeftBorderColor(colorRegistry.getXSSFColor(this.borderLeftColor));
         }
 
         if (null != this.borderRightColor) {
-            XSSFColor color =
-                    XSSFColor.from(CTColor.Factory.newInstance(), new DefaultIndexedColorMap());
-            color.setARGBHex(this.borderRightColor.substring(1));
-            cellStyle.setRightBorderColor(color);
+            cellStyle.setRightBorderColor(colorRegistry.getXSSFColor(this.borderRightColor));
         }
 
         cellStyle.setAlignment(this.horizontalAlignment);
         cellStyle.setVerticalAlignment(this.verticalAlignment);
 
         if (null != this.backgroundColor) {
-            XSSFColor color =
-                    XSSFColor.from(CTColor.Factory.newInstance(), new DefaultIndexedColorMap());
-            color.setARGBHex(this.backgroundColor.substring(1));
-            cellStyle.setFillForegroundColor(color);
+            cellStyle.setFillForegroundColor(colorRegistry.getXSSFColor(this.backgroundColor));
             cellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
         }
 
-        XSSFFont font = workbook.createFont();
-        if (null != this.fontName && !this.fontName.isEmpty()) {
-            font.setFontName(this.fontName);
-        }
-        font.setFontHeightInPoints(this.fontSize.shortValue());
-        font.setBold(this.bold);
-        font.setItalic(this.italic);
-        font.setStrikeout(this.strikeout);
-
-        if (null != this.fontColor) {
-            XSSFColor color =
-                    XSSFColor.from(CTColor.Factory.newInstance(), new DefaultIndexedColorMap());
-            color.setARGBHex(this.fontColor.substring(1));
-            font.setColor(color);
-        }
+        Font font =
+                fontRegistry.getFont(
+                        this.fontName,
+                        this.fontSize,
+                        this.bold,
+                        this.italic,
+                        this.strikeout,
+                        ExcelColors.normalizeColorHex(this.fontColor),
+                        f -> ((XSSFFont) f).setColor(colorRegistry.getXSSFColor(this.fontColor)));
         cellStyle.setFont(font);
+
+        if (null != this.dataFormat && !this.dataFormat.isEmpty()) {
+            cellStyle.setDataFormat(workbook.createDataFormat().getFormat(this.dataFormat));
+        }
         return cellStyle;
     }
 }
@@ -0,0 +1,39 @@
+package io.github.af19git5.entity;
+
+import java.util.Arrays;
+
+/**
+ * Excel樣式比對key(以樣式內容比對, 建立後不可修改)
+ *
+ * <p>內容相同的樣式物件取得的key相同, 寫出時可共用同一個workbook樣式
+ *
+ * @author Jimmy Kang
+ */
+public final class ExcelStyleKey {
+
+    /** 樣式內容 */
+    private final Object[] values;
+
+    private final int hash;
+
+    /**
+     * @param values 樣式內容(依固定順序)
+     */
+    ExcelStyleKey(Object... values) {
+        this.values = values;
+        this.hash = Arrays.hashCode(values);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ExcelStyleKey)) return false;
+        ExcelStyleKey other = (ExcelStyleKey) o;
+        return hash == other.hash && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
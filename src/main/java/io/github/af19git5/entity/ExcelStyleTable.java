@@ -0,0 +1,94 @@
+package io.github.af19git5.entity;
+
+import lombok.NonNull;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Excel讀取樣式表(欄位只保存樣式序號, 取用樣式時才轉換為ExcelStyle, 同一序號只轉換一次)
+ *
+ * <p>讀取服務內部使用; 已轉換的樣式以序號直接取用, 不須同步, 只有第一次轉換時加鎖.
+ * 同一樣式由多個欄位共用, 取得的樣式為唯讀
+ *
+ * @author Jimmy Kang
+ */
+public final class ExcelStyleTable {
+
+    /** 樣式來源沒有該序號的樣式 */
+    private static final ExcelStyle NO_STYLE = new ExcelStyle();
+
+    /** 已轉換的樣式(index: 樣式序號) */
+    private final AtomicReferenceArray<ExcelStyle> styles;
+
+    /** 欄位使用過的樣式序號(index: 樣式序號, 僅由讀取執行緒寫入) */
+    private final boolean[] referencedIndexes;
+
+    /** 樣式轉換方式, 釋放樣式來源後為null */
+    private Function<Short, ExcelStyle> resolver;
+
+    /**
+     * @param styleCount 樣式數量
+     * @param resolver 樣式轉換方式(傳入樣式序號回傳樣式)
+     */
+    public ExcelStyleTable(int styleCount, @NonNull Function<Short, ExcelStyle> resolver) {
+        this.styles = new AtomicReferenceArray<>(Math.max(styleCount, 0));
+        this.referencedIndexes = new boolean[Math.max(styleCount, 0)];
+        this.resolver = resolver;
+    }
+
+    /**
+     * 登記欄位使用的樣式序號(釋放樣式來源時會先轉換已登記的樣式)
+     *
+     * @param index 樣式序號
+     */
+    public void reference(short index) {
+        int i = Short.toUnsignedInt(index);
+        if (i < referencedIndexes.length) {
+            referencedIndexes[i] = true;
+        }
+    }
+
+    /**
+     * 取得樣式(第一次取用時才轉換)
+     *
+     * @param index 樣式序號
+     * @return 樣式, 沒有該序號的樣式時回傳null
+     */
+    public ExcelStyle getStyle(short index) {
+        int i = Short.toUnsignedInt(index);
+        if (i >= styles.length()) return null;
+        ExcelStyle style = styles.get(i);
+        if (null == style) {
+            style = resolve(i);
+        }
+        return style == NO_STYLE ? null : style;
+    }
+
+    /** 轉換所有已登記的樣式並釋放樣式來源(樣式來源即將關閉時呼叫) */
+    public synchronized void detach() {
+        if (null == resolver) return;
+        for (int i = 0; i < referencedIndexes.length; i++) {
+            if (referencedIndexes[i] && null == styles.get(i)) {
+                resolve(i);
+            }
+        }
+        resolver = null;
+    }
+
+    /**
+     * 轉換樣式(樣式來源不一定可同時存取, 轉換時加鎖)
+     *
+     * @param i 樣式序號
+     * @return 樣式
+     */
+    private synchronized ExcelStyle resolve(int i) {
+        ExcelStyle style = styles.get(i);
+        if (null != style) return style;
+        if (null == resolver) return NO_STYLE;
+        style = resolver.apply((short) i);
+        style = null == style ? NO_STYLE : new ExcelReadOnlyStyle(style);
+        styles.set(i, style);
+        return style;
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.af19git5.exception;
+
+/**
+ * Excel處理錯誤(非受檢例外, 用於Stream等無法拋出ExcelException的情境)
+ *
+ * @author Jimmy Kang
+ */
+public class ExcelUncheckedException extends RuntimeException {
+
+    public ExcelUncheckedException(ExcelException e) {
+        super(e);
+    }
+
+    @Override
+    public synchronized ExcelException getCause() {
+        return (ExcelException) super.getCause();
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.af19git5.handler;
+
+import io.github.af19git5.entity.ExcelRow;
+import io.github.af19git5.exception.ExcelException;
+
+/**
+ * Excel橫列資料處理(資料流讀取時逐列回呼)
+ *
+ * @author Jimmy Kang
+ */
+@FunctionalInterface
+public interface ExcelRowHandler {
+
+    /**
+     * 處理單列資料
+     *
+     * @param row 橫列資料
+     * @throws ExcelException 拋出時會中止讀取
+     */
+    void handle(ExcelRow row) throws ExcelException;
+}
@@ -0,0 +1,295 @@
+package io.github.af19git5.service;
+
+import io.github.af19git5.entity.ExcelReadOptions;
+import io.github.af19git5.entity.ExcelSheet;
+import io.github.af19git5.exception.ExcelException;
+
+import lombok.NonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Excel讀取快取(檔案以路徑、大小及修改時間, InputStream以內容雜湊值判斷是否相同, 相同時直接回傳已讀取的資料)
+ *
+ * <p>依估計的記憶體用量以最近最少使用淘汰; 同一份資料同時讀取時只解析一次. 回傳的資料為共用物件, 請勿修改
+ *
+ * <p>回傳的工作表請勿呼叫close(), 關閉後其他取得同一份資料的使用者也無法再讀取欄位;
+ * 以spillToDisk讀取時, 暫存檔於資料被淘汰且回收後自動關閉
+ *
+ * @author Jimmy Kang
+ */
+public class CachingExcelReader {
+
+    private final ReadExcelService readExcelService = new ReadExcelService();
+
+    /** 讀取設定 */
+    private final ExcelReadOptions options;
+
+    /** 記憶體用量上限(byte) */
+    private final long maxHeapBytes;
+
+    /** 已快取的資料(依最近使用排序) */
+    private final LinkedHashMap<String, CacheEntry> entryMap = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** 檔案路徑目前對應的key(檔案修改後移除舊資料) */
+    private final Map<String, String> pathKeyMap = new HashMap<>();
+
+    /** 讀取中的資料 */
+    private final Map<String, CompletableFuture<List<ExcelSheet>>> loadingMap = new HashMap<>();
+
+    /** 目前估計的記憶體用量 */
+    private long heapBytes = 0;
+
+    private long hitCount = 0;
+    private long missCount = 0;
+
+    /**
+     * @param maxHeapBytes 記憶體用量上限(byte)
+     */
+    public CachingExcelReader(long maxHeapBytes) {
+        this(maxHeapBytes, new ExcelReadOptions());
+    }
+
+    /**
+     * @param maxHeapBytes 記憶體用量上限(byte)
+     * @param options 讀取設定
+     */
+    public CachingExcelReader(long maxHeapBytes, @NonNull ExcelReadOptions options) {
+        this.maxHeapBytes = maxHeapBytes;
+        this.options = options;
+    }
+
+    /**
+     * 讀取excel資料(檔案未修改時回傳快取資料)
+     *
+     * @param excelFile excel檔案
+     * @return excel資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    public List<ExcelSheet> read(@NonNull File excelFile) throws ExcelException {
+        String path;
+        try {
+            path = excelFile.getCanonicalPath();
+        } catch (IOException e) {
+            throw new ExcelException(e.getMessage());
+        }
+        if (!excelFile.isFile()) {
+            throw new ExcelException("File not found: " + path);
+        }
+        String key = "file:" + path + ":" + excelFile.length() + ":" + excelFile.lastModified();
+        return read(key, path, () -> readExcelService.readWithOptions(excelFile, options));
+    }
+
+    /**
+     * 讀取excel資料(內容相同時回傳快取資料)
+     *
+     * @param inputStream InputStream(不負責關閉)
+     * @return excel資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    public List<ExcelSheet> read(@NonNull InputStream inputStream) throws ExcelException {
+        byte[] bytes;
+        try {
+            bytes = inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new ExcelException(e.getMessage());
+        }
+        String key = "sha256:" + sha256(bytes);
+        return read(
+                key,
+                null,
+                () -> readExcelService.readWithOptions(new ByteArrayInputStream(bytes), options));
+    }
+
+    /**
+     * 移除檔案的快取資料
+     *
+     * @param excelFile excel檔案
+     */
+    public synchronized void invalidate(@NonNull File excelFile) {
+        try {
+            String key = pathKeyMap.remove(excelFile.getCanonicalPath());
+            if (null != key) remove(key);
+        } catch (IOException ignored) {
+            // 路徑無法解析時不會有快取資料
+        }
+    }
+
+    /** 清除所有快取資料 */
+    public synchronized void clear() {
+        entryMap.clear();
+        pathKeyMap.clear();
+        heapBytes = 0;
+    }
+
+    /**
+     * 目前估計的記憶體用量
+     *
+     * @return 記憶體用量(byte)
+     */
+    public synchronized long getHeapBytes() {
+        return heapBytes;
+    }
+
+    /**
+     * 快取命中次數
+     *
+     * @return 命中次數
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * 快取未命中次數(實際解析次數)
+     *
+     * @return 未命中次數
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * 讀取資料(同一key同時讀取時等待第一個讀取結果)
+     *
+     * @param key 快取key
+     * @param path 檔案路徑, 非檔案時為null
+     * @param loader 讀取方式
+     * @return excel資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    private List<ExcelSheet> read(String key, String path, Loader loader) throws ExcelException {
+        CompletableFuture<List<ExcelSheet>> future;
+        synchronized (this) {
+            CacheEntry entry = entryMap.get(key);
+            if (null != entry) {
+                hitCount++;
+                return entry.sheetList;
+            }
+            future = loadingMap.get(key);
+            if (null == future) {
+                missCount++;
+                loadingMap.put(key, new CompletableFuture<>());
+            } else {
+                hitCount++;
+            }
+        }
+        if (null != future) return join(future);
+
+        try {
+            List<ExcelSheet> sheetList = loader.load();
+            long entryHeapBytes = estimateHeapBytes(sheetList);
+            synchronized (this) {
+                put(key, path, new CacheEntry(sheetList, entryHeapBytes));
+                loadingMap.remove(key).complete(sheetList);
+            }
+            return sheetList;
+        } catch (Throwable t) {
+            // 包含Error(例如OutOfMemoryError), 避免等待中的讀取永遠無法結束
+            synchronized (this) {
+                CompletableFuture<List<ExcelSheet>> loading = loadingMap.remove(key);
+                if (null != loading) loading.completeExceptionally(t);
+            }
+            throw t;
+        }
+    }
+
+    private void put(String key, String path, CacheEntry entry) {
+        if (null != path) {
+            String previousKey = pathKeyMap.put(path, key);
+            if (null != previousKey && !previousKey.equals(key)) remove(previousKey);
+        }
+        if (entry.heapBytes > maxHeapBytes) {
+            // 超過上限的資料不快取
+            if (null != path) pathKeyMap.remove(path);
+            return;
+        }
+        entryMap.put(key, entry);
+        heapBytes += entry.heapBytes;
+        Iterator<Map.Entry<String, CacheEntry>> iterator = entryMap.entrySet().iterator();
+        while (heapBytes > maxHeapBytes && iterator.hasNext()) {
+            Map.Entry<String, CacheEntry> eldest = iterator.next();
+            heapBytes -= eldest.getValue().heapBytes;
+            iterator.remove();
+            pathKeyMap.values().remove(eldest.getKey());
+        }
+    }
+
+    private void remove(String key) {
+        CacheEntry entry = entryMap.remove(key);
+        if (null != entry) heapBytes -= entry.heapBytes;
+    }
+
+    private static List<ExcelSheet> join(CompletableFuture<List<ExcelSheet>> future)
+            throws ExcelException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ExcelException) {
+                throw new ExcelException(cause.getMessage());
+            }
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+    }
+
+    /**
+     * 估計資料的記憶體用量(不轉換欄位數值)
+     *
+     * @param sheetList excel資料
+     * @return 記憶體用量(byte)
+     */
+    static long estimateHeapBytes(List<ExcelSheet> sheetList) {
+        long bytes = 0;
+        for (ExcelSheet sheet : sheetList) {
+            bytes += sheet.estimateHeapBytes();
+        }
+        return bytes;
+    }
+
+    private static String sha256(byte[] bytes) throws ExcelException {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16))
+                        .append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new ExcelException(e.getMessage());
+        }
+    }
+
+    /** 讀取方式 */
+    private interface Loader {
+
+        List<ExcelSheet> load() throws ExcelException;
+    }
+
+    /** 快取資料 */
+    private static class CacheEntry {
+
+        private final List<ExcelSheet> sheetList;
+        private final long heapBytes;
+
+        private CacheEntry(List<ExcelSheet> sheetList, long heapBytes) {
+            this.sheetList = sheetList;
+            this.heapBytes = heapBytes;
+        }
+    }
+}
@@ -0,0 +1,469 @@
+package io.github.af19git5.service;
+
+import io.github.af19git5.annotation.ExcelColumn;
+import io.github.af19git5.entity.ExcelCell;
+import io.github.af19git5.entity.ExcelReadOptions;
+import io.github.af19git5.entity.ExcelRow;
+import io.github.af19git5.entity.ExcelStyle;
+import io.github.af19git5.exception.ExcelException;
+import io.github.af19git5.exception.ExcelUncheckedException;
+
+import lombok.NonNull;
+
+import org.apache.poi.ss.usermodel.CellType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Excel物件欄位對應(依@ExcelColumn將橫列資料與物件互相轉換)
+ *
+ * <p>每個類別只解析一次欄位對應, 欄位存取使用預先建立的MethodHandle
+ *
+ * @author Jimmy Kang
+ */
+public class ExcelBeanBinding<T> {
+
+    /** 各類別的欄位對應 */
+    private static final ClassValue<ExcelBeanBinding<?>> BINDINGS =
+            new ClassValue<>() {
+                @Override
+                protected ExcelBeanBinding<?> computeValue(Class<?> type) {
+                    try {
+                        return new ExcelBeanBinding<>(type);
+                    } catch (ExcelException e) {
+                        throw new ExcelUncheckedException(e);
+                    }
+                }
+            };
+
+    /** 日期欄位寫入時的顯示格式 */
+    private static final String DATE_TIME_FORMAT = "yyyy-mm-dd hh:mm:ss";
+
+    /** 無參數建構子((): Object) */
+    private final MethodHandle constructor;
+
+    /** 欄位對應(依直行排序) */
+    private final List<ColumnBinding> columnList;
+
+    private ExcelBeanBinding(Class<T> type) throws ExcelException {
+        try {
+            MethodHandles.Lookup lookup =
+                    MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            this.constructor =
+                    lookup.findConstructor(type, MethodType.methodType(void.class))
+                            .asType(MethodType.methodType(Object.class));
+            List<Field> fieldList = new ArrayList<>();
+            for (Class<?> c = type; null != c && c != Object.class; c = c.getSuperclass()) {
+                List<Field> declaredFieldList = new ArrayList<>();
+                for (Field field : c.getDeclaredFields()) {
+                    if (field.isAnnotationPresent(ExcelColumn.class)
+                            && !Modifier.isStatic(field.getModifiers())) {
+                        declaredFieldList.add(field);
+                    }
+                }
+                // 父類別欄位排在前面
+                fieldList.addAll(0, declaredFieldList);
+            }
+            if (fieldList.isEmpty()) {
+                throw new ExcelException("No @ExcelColumn field in " + type.getName() + ".");
+            }
+            BitSet usedColumnSet = new BitSet();
+            for (Field field : fieldList) {
+                int index = field.getAnnotation(ExcelColumn.class).index();
+                if (index >= 0) {
+                    if (usedColumnSet.get(index)) {
+                        throw new ExcelException("Duplicate @ExcelColumn index " + index + ".");
+                    }
+                    usedColumnSet.set(index);
+                }
+            }
+            List<ColumnBinding> columnList = new ArrayList<>();
+            for (Field field : fieldList) {
+                if (Modifier.isFinal(field.getModifiers())) {
+                    throw new ExcelException("@ExcelColumn field must not be final: " + field);
+                }
+                ExcelColumn excelColumn = field.getAnnotation(ExcelColumn.class);
+                int column = excelColumn.index();
+                if (column < 0) {
+                    // 未設定直行時依宣告順序使用未被指定的直行
+                    column = usedColumnSet.nextClearBit(0);
+                    usedColumnSet.set(column);
+                }
+                columnList.add(
+                        new ColumnBinding(
+                                excelColumn.value().isEmpty()
+                                        ? field.getName()
+                                        : excelColumn.value(),
+                                column,
+                                excelColumn.index() >= 0,
+                                lookup.unreflectGetter(field)
+                                        .asType(
+                                                MethodType.methodType(
+                                                        Object.class, Object.class)),
+                                lookup.unreflectSetter(field)
+                                        .asType(
+                                                MethodType.methodType(
+                                                        void.class, Object.class, Object.class)),
+                                toCellReader(field)));
+            }
+            columnList.sort(Comparator.comparingInt(columnBinding -> columnBinding.column));
+            this.columnList = columnList;
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new ExcelException(e.getMessage());
+        }
+    }
+
+    /**
+     * 取得類別的欄位對應(同一類別只解析一次)
+     *
+     * @param type 類別(須有無參數建構子)
+     * @return 欄位對應
+     * @throws ExcelException 類別沒有可對應的欄位
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ExcelBeanBinding<T> of(@NonNull Class<T> type) throws ExcelException {
+        try {
+            return (ExcelBeanBinding<T>) BINDINGS.get(type);
+        } catch (ExcelUncheckedException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 建立標題列欄位
+     *
+     * @param rowNum 橫列
+     * @return 標題列欄位
+     */
+    public List<ExcelCell> toHeaderCellList(int rowNum) {
+        List<ExcelCell> cellList = new ArrayList<>(columnList.size());
+        for (ColumnBinding columnBinding : columnList) {
+            cellList.add(new ExcelCell(columnBinding.name, rowNum, columnBinding.column));
+        }
+        return cellList;
+    }
+
+    /**
+     * 將物件轉為橫列欄位
+     *
+     * @param bean 物件
+     * @param rowNum 橫列
+     * @return 橫列欄位
+     * @throws ExcelException 欄位取值錯誤
+     */
+    public List<ExcelCell> toCellList(@NonNull T bean, int rowNum) throws ExcelException {
+        List<ExcelCell> cellList = new ArrayList<>(columnList.size());
+        // 同一列的日期欄位共用樣式, 寫出時內容相同的樣式共用同一個workbook樣式
+        ExcelStyle dateTimeStyle = null;
+        for (ColumnBinding columnBinding : columnList) {
+            Object value;
+            try {
+                value = (Object) columnBinding.getter.invokeExact((Object) bean);
+            } catch (Throwable e) {
+                throw new ExcelException(e.getMessage());
+            }
+            LocalDateTime dateTime = toLocalDateTime(value);
+            if (null == dateTime) {
+                cellList.add(toCell(value, rowNum, columnBinding.column));
+                continue;
+            }
+            if (null == dateTimeStyle) {
+                dateTimeStyle = ExcelStyle.init().dataFormat(DATE_TIME_FORMAT).build();
+            }
+            ExcelCell cell =
+                    new ExcelCell(
+                            null, rowNum, columnBinding.column, CellType.NUMERIC, dateTimeStyle);
+            cell.setLocalDateTime(dateTime, ExcelReadOptions.DEFAULT_DATE_TIME_FORMATTER);
+            cellList.add(cell);
+        }
+        return cellList;
+    }
+
+    /**
+     * 依標題列取得各欄位對應的直行(有設定直行的欄位不依標題對應)
+     *
+     * @param headerRow 標題列
+     * @return 各欄位對應的直行, 查無標題時為-1
+     */
+    int[] resolveColumns(ExcelRow headerRow) {
+        int[] columns = new int[columnList.size()];
+        for (int i = 0; i < columns.length; i++) {
+            ColumnBinding columnBinding = columnList.get(i);
+            columns[i] = columnBinding.isIndexed ? columnBinding.column : -1;
+        }
+        for (ExcelCell cell : headerRow.getCellList()) {
+            String header = null == cell.getValue() ? "" : cell.getValue().trim();
+            for (int i = 0; i < columns.length; i++) {
+                ColumnBinding columnBinding = columnList.get(i);
+                if (!columnBinding.isIndexed
+                        && columns[i] < 0
+                        && columnBinding.name.equals(header)) {
+                    columns[i] = cell.getColumn();
+                }
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * 將橫列資料轉為物件
+     *
+     * @param row 橫列資料
+     * @param columns 各欄位對應的直行
+     * @param dateTimeFormatter 日期格式(轉換字串欄位為日期時使用)
+     * @return 物件
+     * @throws ExcelException 欄位轉換錯誤
+     */
+    @SuppressWarnings("unchecked")
+    T toBean(ExcelRow row, int[] columns, DateTimeFormatter dateTimeFormatter)
+            throws ExcelException {
+        try {
+            Object bean = (Object) constructor.invokeExact();
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i] < 0) continue;
+                ExcelCell cell = row.getCell(columns[i]);
+                if (null == cell || null == cell.getValue() || cell.getValue().isEmpty()) {
+                    continue;
+                }
+                ColumnBinding columnBinding = columnList.get(i);
+                Object value = columnBinding.cellReader.apply(cell, dateTimeFormatter);
+                if (null != value) {
+                    columnBinding.setter.invokeExact(bean, value);
+                }
+            }
+            return (T) bean;
+        } catch (ExcelException e) {
+            throw e;
+        } catch (ExcelUncheckedException e) {
+            throw new ExcelException(
+                    "Row " + row.getRow() + " cannot be converted: " + e.getCause().getMessage());
+        } catch (Throwable e) {
+            throw new ExcelException(
+                    "Row " + row.getRow() + " cannot be converted: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 將欄位數值轉為欄位資料
+     *
+     * @param value 欄位數值
+     * @param rowNum 橫列
+     * @param column 直行
+     * @return 欄位資料
+     */
+    private static ExcelCell toCell(Object value, int rowNum, int column) {
+        if (null == value) {
+            return new ExcelCell("", rowNum, column);
+        } else if (value instanceof BigDecimal) {
+            return new ExcelCell(
+                    ((BigDecimal) value).toPlainString(), rowNum, column, CellType.NUMERIC);
+        } else if (value instanceof Number) {
+            return new ExcelCell(value.toString(), rowNum, column, CellType.NUMERIC);
+        } else if (value instanceof Boolean) {
+            return new ExcelCell(value.toString(), rowNum, column, CellType.BOOLEAN);
+        } else if (value instanceof Enum) {
+            return new ExcelCell(((Enum<?>) value).name(), rowNum, column);
+        }
+        return new ExcelCell(value.toString(), rowNum, column);
+    }
+
+    /**
+     * 將日期類別的欄位數值轉為日期
+     *
+     * @param value 欄位數值
+     * @return 日期, 非日期類別時回傳null
+     */
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof LocalDateTime) {
+            return (LocalDateTime) value;
+        } else if (value instanceof Date) {
+            return LocalDateTime.ofInstant(((Date) value).toInstant(), ZoneId.systemDefault());
+        }
+        return null;
+    }
+
+    /**
+     * 依欄位類別建立欄位數值轉換方式
+     *
+     * @param field 物件欄位
+     * @return 欄位數值轉換方式
+     * @throws ExcelException 不支援的欄位類別
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static BiFunction<ExcelCell, DateTimeFormatter, Object> toCellReader(Field field)
+            throws ExcelException {
+        Class<?> type = field.getType();
+        if (type == String.class) {
+            return (cell, formatter) -> cell.getValue();
+        } else if (type == int.class || type == Integer.class) {
+            return (cell, formatter) ->
+                    (int) readWholeNumber(cell, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        } else if (type == long.class || type == Long.class) {
+            return (cell, formatter) -> readWholeNumber(cell, -0x1p63, Math.nextDown(0x1p63));
+        } else if (type == double.class || type == Double.class) {
+            return (cell, formatter) -> readNumber(cell);
+        } else if (type == float.class || type == Float.class) {
+            return (cell, formatter) -> readFloat(cell);
+        } else if (type == short.class || type == Short.class) {
+            return (cell, formatter) ->
+                    (short) readWholeNumber(cell, Short.MIN_VALUE, Short.MAX_VALUE);
+        } else if (type == byte.class || type == Byte.class) {
+            return (cell, formatter) ->
+                    (byte) readWholeNumber(cell, Byte.MIN_VALUE, Byte.MAX_VALUE);
+        } else if (type == boolean.class || type == Boolean.class) {
+            return (cell, formatter) -> readBoolean(cell);
+        } else if (type == BigDecimal.class) {
+            return (cell, formatter) -> readBigDecimal(cell);
+        } else if (type == BigInteger.class) {
+            return (cell, formatter) -> readBigDecimal(cell).toBigInteger();
+        } else if (type == LocalDateTime.class) {
+            return ExcelBeanBinding::readLocalDateTime;
+        } else if (type == LocalDate.class) {
+            return (cell, formatter) -> {
+                if (null == cell.getLocalDateTime()) {
+                    try {
+                        return LocalDate.parse(cell.getValue().trim());
+                    } catch (DateTimeParseException ignored) {
+                        // 非ISO日期, 改用日期格式轉換
+                    }
+                }
+                return readLocalDateTime(cell, formatter).toLocalDate();
+            };
+        } else if (type == Date.class) {
+            return (cell, formatter) ->
+                    Date.from(
+                            readLocalDateTime(cell, formatter)
+                                    .atZone(ZoneId.systemDefault())
+                                    .toInstant());
+        } else if (type.isEnum()) {
+            return (cell, formatter) -> Enum.valueOf((Class<Enum>) type, cell.getValue().trim());
+        }
+        throw new ExcelException("Unsupported @ExcelColumn type: " + field);
+    }
+
+    private static double readNumber(ExcelCell cell) {
+        try {
+            return cell.getNumber();
+        } catch (IllegalStateException e) {
+            return Double.parseDouble(cell.getValue().trim());
+        }
+    }
+
+    /**
+     * 讀取整數(不可有小數且須在範圍內, 避免轉型時截斷數值)
+     *
+     * @param cell 欄位資料
+     * @param min 最小值
+     * @param max 最大值
+     * @return 整數
+     * @throws ExcelUncheckedException 數值不是整數或超出範圍
+     */
+    private static long readWholeNumber(ExcelCell cell, double min, double max) {
+        double number = readNumber(cell);
+        if (number != Math.rint(number) || number < min || number > max) {
+            throw new ExcelUncheckedException(
+                    new ExcelException(
+                            "Value "
+                                    + cell.getValue()
+                                    + " is not a whole number between "
+                                    + (long) min
+                                    + " and "
+                                    + (long) max
+                                    + "."));
+        }
+        return (long) number;
+    }
+
+    /**
+     * 讀取單精度浮點數
+     *
+     * @param cell 欄位資料
+     * @return 單精度浮點數
+     * @throws ExcelUncheckedException 數值超出範圍
+     */
+    private static float readFloat(ExcelCell cell) {
+        double number = readNumber(cell);
+        float value = (float) number;
+        if (Float.isInfinite(value) && !Double.isInfinite(number)) {
+            throw new ExcelUncheckedException(
+                    new ExcelException("Value " + cell.getValue() + " is out of float range."));
+        }
+        return value;
+    }
+
+    private static boolean readBoolean(ExcelCell cell) {
+        try {
+            return cell.getBoolean();
+        } catch (IllegalStateException e) {
+            String value = cell.getValue().trim();
+            return "1".equals(value) || Boolean.parseBoolean(value);
+        }
+    }
+
+    private static BigDecimal readBigDecimal(ExcelCell cell) {
+        if (cell.getCellType() == CellType.NUMERIC) {
+            return BigDecimal.valueOf(readNumber(cell));
+        }
+        return new BigDecimal(cell.getValue().trim());
+    }
+
+    private static LocalDateTime readLocalDateTime(
+            ExcelCell cell, DateTimeFormatter dateTimeFormatter) {
+        if (null != cell.getLocalDateTime()) return cell.getLocalDateTime();
+        return LocalDateTime.parse(cell.getValue().trim(), dateTimeFormatter);
+    }
+
+    /** 欄位對應 */
+    private static class ColumnBinding {
+
+        /** 標題名稱 */
+        private final String name;
+
+        /** 直行 */
+        private final int column;
+
+        /** 是否有設定直行 */
+        private final boolean isIndexed;
+
+        /** 取值方式((Object): Object) */
+        private final MethodHandle getter;
+
+        /** 設值方式((Object, Object): void) */
+        private final MethodHandle setter;
+
+        /** 欄位數值轉換方式 */
+        private final BiFunction<ExcelCell, DateTimeFormatter, Object> cellReader;
+
+        private ColumnBinding(
+                String name,
+                int column,
+                boolean isIndexed,
+                MethodHandle getter,
+                MethodHandle setter,
+                BiFunction<ExcelCell, DateTimeFormatter, Object> cellReader) {
+            this.name = name;
+            this.column = column;
+            this.isIndexed = isIndexed;
+            this.getter = getter;
+            this.setter = setter;
+            this.cellReader = cellReader;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.af19git5.service;
+
+import io.github.af19git5.entity.ExcelRow;
+import io.github.af19git5.exception.ExcelException;
+
+/**
+ * Excel逐列讀取器(呼叫時才解析下一列)
+ *
+ * @author Jimmy Kang
+ */
+interface ExcelRowReader extends AutoCloseable {
+
+    /**
+     * 讀取下一列資料
+     *
+     * @return 橫列資料, 已讀取完畢時回傳null
+     * @throws ExcelException Excel處理錯誤
+     */
+    ExcelRow nextRow() throws ExcelException;
+
+    /**
+     * 關閉讀取器(可重複呼叫)
+     *
+     * @throws ExcelException Excel處理錯誤
+     */
+    @Override
+    void close() throws ExcelException;
+}
@@ -0,0 +1,77 @@
+package io.github.af19git5.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * Excel讀取字串快取(同一共用字串序號只保留一個String, 其餘字串可放入有上限的字串池)
+ *
+ * <p>可供多個工作表同時解析使用
+ *
+ * @author Jimmy Kang
+ */
+class ExcelStringCache {
+
+    /** 共用字串(key: 共用字串序號) */
+    private final AtomicReferenceArray<String> sharedStrings;
+
+    /** 字串池, 不使用時為null */
+    private final Map<String, String> internPool;
+
+    /** 字串池上限 */
+    private final int internPoolSize;
+
+    /** 字串池已使用數量(先保留名額再加入, 確保不超過上限) */
+    private final AtomicInteger internPoolCount = new AtomicInteger();
+
+    /**
+     * @param sharedStringCount 共用字串數量
+     * @param internPoolSize 字串池上限, 0時不使用字串池
+     */
+    ExcelStringCache(int sharedStringCount, int internPoolSize) {
+        this.sharedStrings = new AtomicReferenceArray<>(Math.max(sharedStringCount, 0));
+        this.internPool = internPoolSize > 0 ? new ConcurrentHashMap<>() : null;
+        this.internPoolSize = internPoolSize;
+    }
+
+    /**
+     * 取得共用字串(第一次取用時載入)
+     *
+     * @param index 共用字串序號
+     * @param loader 共用字串載入方式
+     * @return 共用字串
+     */
+    String getSharedString(int index, IntFunction<String> loader) {
+        if (index < 0 || index >= sharedStrings.length()) return loader.apply(index);
+        String value = sharedStrings.get(index);
+        if (null != value) return value;
+        // 多個執行緒同時載入時只保留第一個寫入的字串, 確保同一序號回傳同一String
+        value = loader.apply(index);
+        if (sharedStrings.compareAndSet(index, null, value)) return value;
+        return sharedStrings.get(index);
+    }
+
+    /**
+     * 取得字串池中的相同字串(字串池已滿時不再加入)
+     *
+     * @param value 字串
+     * @return 字串池中的字串, 不在字串池中時回傳原字串
+     */
+    String intern(String value) {
+        if (null == internPool || null == value) return value;
+        String pooledValue = internPool.get(value);
+        if (null != pooledValue) return pooledValue;
+        if (internPoolCount.incrementAndGet() > internPoolSize) {
+            internPoolCount.decrementAndGet();
+            return value;
+        }
+        pooledValue = internPool.putIfAbsent(value, value);
+        if (null == pooledValue) return value;
+        // 其他執行緒已加入相同字串, 歸還保留的名額
+        internPoolCount.decrementAndGet();
+        return pooledValue;
+    }
+}
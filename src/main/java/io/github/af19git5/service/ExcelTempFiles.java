@@ -0,0 +1,58 @@
+package io.github.af19git5.service;
+
+import io.github.af19git5.exception.ExcelException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Excel暫存檔處理(將InputStream寫入暫存檔, 改由檔案讀取而不須將整份檔案載入記憶體)
+ *
+ * @author Jimmy Kang
+ */
+class ExcelTempFiles {
+
+    private ExcelTempFiles() {}
+
+    /**
+     * 將InputStream寫入暫存檔
+     *
+     * @param inputStream InputStream(不負責關閉)
+     * @param tempDirectory 暫存目錄, null時使用系統暫存目錄
+     * @return 暫存檔
+     * @throws ExcelException Excel處理錯誤
+     */
+    static File spool(InputStream inputStream, File tempDirectory) throws ExcelException {
+        File tempFile = null;
+        try {
+            tempFile =
+                    null == tempDirectory
+                            ? Files.createTempFile("easy-excel-", ".tmp").toFile()
+                            : Files.createTempFile(tempDirectory.toPath(), "easy-excel-", ".tmp")
+                                    .toFile();
+            Files.copy(inputStream, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return tempFile;
+        } catch (IOException e) {
+            delete(tempFile);
+            throw new ExcelException(e.getMessage());
+        }
+    }
+
+    /**
+     * 刪除暫存檔
+     *
+     * @param tempFile 暫存檔
+     */
+    static void delete(File tempFile) {
+        if (null == tempFile) return;
+        try {
+            Files.deleteIfExists(tempFile.toPath());
+        } catch (IOException ignored) {
+            // 刪除失敗時於結束程式時再刪除
+            tempFile.deleteOnExit();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package io.github.af19git5.service;
+
+import io.github.af19git5.entity.ExcelCell;
+import io.github.af19git5.entity.ExcelReadOptions;
+import io.github.af19git5.entity.ExcelRow;
+
+import org.apache.poi.hssf.eventusermodel.EventWorkbookBuilder;
+import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.eventusermodel.MissingRecordAwareHSSFListener;
+import org.apache.poi.hssf.eventusermodel.dummyrecord.LastCellOfRowDummyRecord;
+import org.apache.poi.hssf.model.HSSFFormulaParser;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.DateWindow1904Record;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.FormulaError;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * xls資料流讀取(HSSF事件模型, 逐列轉為ExcelRow並交給接收者)
+ *
+ * <p>事件模型不建立活頁簿物件, 因此讀出的欄位不包含樣式
+ *
+ * @author Jimmy Kang
+ */
+class HSSFStreamRecordListener implements HSSFListener {
+
+    private final Consumer<ExcelRow> rowConsumer;
+    private final ExcelReadOptions options;
+
+    private final EventWorkbookBuilder.SheetRecordCollectingListener workbookBuildingListener;
+    private final FormatTrackingHSSFListener formatListener;
+
+    private final List<BoundSheetRecord> boundSheetRecordList = new ArrayList<>();
+    private BoundSheetRecord[] orderedBoundSheetRecords;
+    private SSTRecord sstRecord;
+    private boolean use1904Windowing = false;
+
+    /** 目前所在的BOF/EOF巢狀層數 */
+    private int bofDepth = 0;
+
+    private int sheetIndex = -1;
+    private String sheetName = "";
+    private boolean isSheetSelected = false;
+
+    /** 最後一個需讀取的工作表序號 */
+    private int lastSelectedSheetIndex = -1;
+
+    private List<ExcelCell> cellList = new ArrayList<>();
+
+    /** 字串快取(共用字串表的字串已為同一物件, 僅使用字串池) */
+    private final ExcelStringCache stringCache;
+
+    HSSFStreamRecordListener(Consumer<ExcelRow> rowConsumer, ExcelReadOptions options) {
+        this.rowConsumer = rowConsumer;
+        this.options = options;
+        this.stringCache = new ExcelStringCache(0, options.getInternPoolSize());
+        this.formatListener =
+                new FormatTrackingHSSFListener(new MissingRecordAwareHSSFListener(this));
+        this.workbookBuildingListener =
+                new EventWorkbookBuilder.SheetRecordCollectingListener(formatListener);
+    }
+
+    /**
+     * 取得須接收所有紀錄的監聽器(含格式追蹤及缺漏紀錄補齊)
+     *
+     * @return 監聽器
+     */
+    HSSFListener getRequestListener() {
+        return workbookBuildingListener;
+    }
+
+    /**
+     * 需讀取的工作表是否皆已讀取完畢
+     *
+     * @return 是否讀取完畢
+     */
+    boolean isSelectedSheetsRead() {
+        return null != orderedBoundSheetRecords && sheetIndex > lastSelectedSheetIndex;
+    }
+
+    @Override
+    public void processRecord(Record record) {
+        if (record instanceof CellValueRecordInterface
+                && !isCellSelected((CellValueRecordInterface) record)) {
+            // 不在讀取範圍內的欄位不轉換數值
+            return;
+        }
+        switch (record.getSid()) {
+            case BoundSheetRecord.sid:
+                boundSheetRecordList.add((BoundSheetRecord) record);
+                break;
+            case BOFRecord.sid:
+                BOFRecord bofRecord = (BOFRecord) record;
+                // 工作表內嵌的圖表等子資料流不是獨立工作表
+                if (bofDepth++ == 0 && bofRecord.getType() != BOFRecord.TYPE_WORKBOOK) {
+                    if (null == orderedBoundSheetRecords) {
+                        orderedBoundSheetRecords =
+                                BoundSheetRecord.orderByBofPosition(boundSheetRecordList);
+                        for (int i = 0; i < orderedBoundSheetRecords.length; i++) {
+                            if (options.isSheetSelected(
+                                    i, orderedBoundSheetRecords[i].getSheetname())) {
+                                lastSelectedSheetIndex = i;
+                            }
+                        }
+                    }
+                    sheetIndex++;
+                    sheetName = orderedBoundSheetRecords[sheetIndex].getSheetname();
+                    // 圖表及巨集工作表仍佔用工作表序號, 但不讀取欄位
+                    isSheetSelected =
+                            bofRecord.getType() == BOFRecord.TYPE_WORKSHEET
+                                    && options.isSheetSelected(sheetIndex, sheetName);
+                    cellList = new ArrayList<>();
+                }
+                break;
+            case EOFRecord.sid:
+                bofDepth--;
+                break;
+            case DateWindow1904Record.sid:
+                use1904Windowing = ((DateWindow1904Record) record).getWindowing() == 1;
+                break;
+            case SSTRecord.sid:
+                sstRecord = (SSTRecord) record;
+                break;
+            case BoolErrRecord.sid:
+                BoolErrRecord boolErrRecord = (BoolErrRecord) record;
+                if (boolErrRecord.isBoolean()) {
+                    addCell(boolErrRecord, CellType.BOOLEAN)
+                            .setBoolean(boolErrRecord.getBooleanValue());
+                } else {
+                    addCell(
+                            boolErrRecord,
+                            FormulaError.forInt(boolErrRecord.getErrorValue()).getString(),
+                            CellType.ERROR);
+                }
+                break;
+            case FormulaRecord.sid:
+                FormulaRecord formulaRecord = (FormulaRecord) record;
+                addCell(
+                        formulaRecord,
+                        stringCache.intern(
+                                HSSFFormulaParser.toFormulaString(
+                                        workbookBuildingListener.getStubHSSFWorkbook(),
+                                        formulaRecord.getParsedExpression())),
+                        CellType.FORMULA);
+                break;
+            case LabelRecord.sid:
+                LabelRecord labelRecord = (LabelRecord) record;
+                addCell(labelRecord, stringCache.intern(labelRecord.getValue()), CellType.STRING);
+                break;
+            case LabelSSTRecord.sid:
+                LabelSSTRecord labelSSTRecord = (LabelSSTRecord) record;
+                String value =
+                        null == sstRecord
+                                ? ""
+                                : sstRecord.getString(labelSSTRecord.getSSTIndex()).getString();
+                addCell(labelSSTRecord, value, CellType.STRING);
+                break;
+            case NumberRecord.sid:
+                NumberRecord numberRecord = (NumberRecord) record;
+                readNumberValue(numberRecord, addCell(numberRecord, CellType.NUMERIC));
+                break;
+            default:
+                if (record instanceof LastCellOfRowDummyRecord) {
+                    endRow(((LastCellOfRowDummyRecord) record).getRow());
+                }
+                break;
+        }
+    }
+
+    /**
+     * 讀取數值欄位(保留原始數值及日期)
+     *
+     * @param numberRecord 數值紀錄
+     * @param cell 欄位資料
+     */
+    private void readNumberValue(NumberRecord numberRecord, ExcelCell cell) {
+        double value = numberRecord.getValue();
+        if (DateUtil.isADateFormat(
+                        formatListener.getFormatIndex(numberRecord),
+                        formatListener.getFormatString(numberRecord))
+                && DateUtil.isValidExcelDate(value)) {
+            // 判斷欄位是否為日期格式
+            cell.setLocalDateTime(
+                    DateUtil.getLocalDateTime(value, use1904Windowing),
+                    options.getDateTimeFormatter());
+        } else {
+            cell.setNumber(value);
+        }
+    }
+
+    private boolean isCellSelected(CellValueRecordInterface record) {
+        return isSheetSelected && options.isColumnSelected(record.getColumn());
+    }
+
+    private ExcelCell addCell(CellValueRecordInterface record, CellType cellType) {
+        ExcelCell cell = new ExcelCell(null, record.getRow(), (int) record.getColumn(), cellType);
+        cellList.add(cell);
+        return cell;
+    }
+
+    private void addCell(CellValueRecordInterface record, String value, CellType cellType) {
+        addCell(record, cellType).setValue(value);
+    }
+
+    private void endRow(int rowNum) {
+        if (cellList.isEmpty()) return;
+        rowConsumer.accept(new ExcelRow(sheetIndex, sheetName, rowNum, cellList));
+        cellList = new ArrayList<>();
+    }
+}
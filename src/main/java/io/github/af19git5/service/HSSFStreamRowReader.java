@@ -0,0 +1,93 @@
+package io.github.af19git5.service;
+
+import io.github.af19git5.entity.ExcelReadOptions;
+import io.github.af19git5.entity.ExcelRow;
+import io.github.af19git5.exception.ExcelException;
+
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RecordFactoryInputStream;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * xls逐列讀取器(逐筆讀取BIFF紀錄交給HSSF事件監聽器, 呼叫時才解析下一列)
+ *
+ * @author Jimmy Kang
+ */
+class HSSFStreamRowReader implements ExcelRowReader {
+
+    private final POIFSFileSystem fileSystem;
+    private final InputStream documentInputStream;
+    private final RecordFactoryInputStream recordInputStream;
+    private final HSSFStreamRecordListener recordListener;
+    private final HSSFListener requestListener;
+
+    /** 監聽器已組成但尚未取出的橫列 */
+    private final Deque<ExcelRow> rowQueue = new ArrayDeque<>();
+
+    private boolean finished = false;
+    private boolean closed = false;
+
+    /**
+     * @param fileSystem xls檔案(由讀取器負責關閉)
+     * @param options 讀取設定
+     */
+    HSSFStreamRowReader(POIFSFileSystem fileSystem, ExcelReadOptions options)
+            throws ExcelException {
+        this.fileSystem = fileSystem;
+        this.recordListener = new HSSFStreamRecordListener(rowQueue::add, options);
+        this.requestListener = recordListener.getRequestListener();
+        try {
+            this.documentInputStream =
+                    fileSystem.createDocumentInputStream(
+                            HSSFWorkbook.getWorkbookDirEntryName(fileSystem.getRoot()));
+            this.recordInputStream = new RecordFactoryInputStream(documentInputStream, false);
+        } catch (IOException | RuntimeException e) {
+            try {
+                fileSystem.close();
+            } catch (IOException ignored) {
+                // 已在處理開啟錯誤
+            }
+            throw new ExcelException(e.getMessage());
+        }
+    }
+
+    @Override
+    public ExcelRow nextRow() throws ExcelException {
+        while (!finished) {
+            ExcelRow row = rowQueue.poll();
+            if (null != row) return row;
+            if (recordListener.isSelectedSheetsRead()) {
+                // 指定工作表已讀取完畢, 不須再解析後續工作表
+                finished = true;
+                break;
+            }
+            Record record = recordInputStream.nextRecord();
+            if (null == record) {
+                finished = true;
+            } else {
+                requestListener.processRecord(record);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws ExcelException {
+        if (closed) return;
+        closed = true;
+        finished = true;
+        try {
+            documentInputStream.close();
+            fileSystem.close();
+        } catch (IOException e) {
+            throw new ExcelException(e.getMessage());
+        }
+    }
+}
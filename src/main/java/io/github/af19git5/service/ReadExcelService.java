@@ -1,29 +1,48 @@
 package io.github.af19git5.service;
 
 import io.github.af19git5.entity.ExcelCell;
+import io.github.af19git5.entity.ExcelColumnarCellList;
 import io.github.af19git5.entity.ExcelMergedRegion;
+import io.github.af19git5.entity.ExcelReadOptions;
+import io.github.af19git5.entity.ExcelRow;
 import io.github.af19git5.entity.ExcelSheet;
 import io.github.af19git5.entity.ExcelStyle;
+import io.github.af19git5.entity.ExcelStyleTable;
 import io.github.af19git5.exception.ExcelException;
+import io.github.af19git5.exception.ExcelUncheckedException;
+
+import lombok.NonNull;
 
-import org.apache.poi.hssf.usermodel.HSSFCell;
-import org.apache.poi.hssf.usermodel.HSSFRow;
-import org.apache.poi.hssf.usermodel.HSSFSheet;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.model.ThemesTable;
 import org.apache.poi.xssf.usermodel.XSSFCell;
-import org.apache.poi.xssf.usermodel.XSSFRow;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTCell;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.STCellType;
+import org.xml.sax.SAXException;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.text.SimpleDateFormat;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import javax.xml.stream.XMLStreamException;
 
 /**
  * 讀取excel服務
@@ -32,8 +51,6 @@ import java.util.List;
  */
 public class ReadExcelService {
 
-    private final String dateTimeFormat = "yyyy-MM-dd HH:mm:ss";
-
     /**
      * 讀取excel資料
      *
@@ -57,6 +74,19 @@ public class ReadExcelService {
         return read(new File(excelFilePath), password);
     }
 
+    /**
+     * 讀取excel資料
+     *
+     * @param excelFilePath excel檔案路徑
+     * @param options 讀取設定
+     * @return excel資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    public List<ExcelSheet> readWithOptions(String excelFilePath, ExcelReadOptions options)
+            throws ExcelException {
+        return readWithOptions(new File(excelFilePath), options);
+    }
+
     /**
      * 讀取excel資料
      *
@@ -65,9 +95,34 @@ public class ReadExcelService {
      * @throws ExcelException Excel處理錯誤
      */
     public List<ExcelSheet> read(File excelFile) throws ExcelException {
+        return readWithOptions(excelFile, new ExcelReadOptions());
+    }
+
+    /**
+     * 讀取excel資料
+     *
+     * <p>xlsx只解析選取的工作表; xls須載入整份活頁簿, 讀取後才篩選工作表及欄位
+     *
+     * @param excelFile excel檔案
+     * @param options 讀取設定
+     * @return excel資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    public List<ExcelSheet> readWithOptions(File excelFile, @NonNull ExcelReadOptions options)
+            throws ExcelException {
+        if (null != options.getExecutor() || options.isProjected()) {
+            try {
+                if (FileMagic.valueOf(excelFile) == FileMagic.OOXML) {
+                    return readXSSF(OPCPackage.open(excelFile, PackageAccess.READ), options);
+                }
+            } catch (IOException | InvalidFormatException e) {
+                throw new ExcelException(e.getMessage());
+            }
+        }
         List<ExcelSheet> excelSheetList = new ArrayList<>();
-        try (Workbook workbook = WorkbookFactory.create(excelFile)) {
-            excelSheetList.addAll(read(workbook));
+        // 以唯讀方式開啟, xls直接由檔案讀取, xlsx關閉時不會寫回檔案
+        try (Workbook workbook = WorkbookFactory.create(excelFile, null, true)) {
+            excelSheetList.addAll(read(workbook, options));
         } catch (IOException e) {
             throw new ExcelException(e.getMessage());
         }
@@ -83,9 +138,24 @@ public class ReadExcelService {
      * @throws ExcelException Excel處理錯誤
      */
     public List<ExcelSheet> read(File excelFile, String password) throws ExcelException {
+        return readWithOptions(excelFile, password, new ExcelReadOptions());
+    }
+
+    /**
+     * 讀取excel資料
+     *
+     * @param excelFile excel檔案
+     * @param password 密碼
+     * @param options 讀取設定
+     * @return excel資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    public List<ExcelSheet> readWithOptions(
+            File excelFile, String password, @NonNull ExcelReadOptions options)
+            throws ExcelException {
         List<ExcelSheet> excelSheetList = new ArrayList<>();
-        try (Workbook workbook = WorkbookFactory.create(excelFile, password)) {
-            excelSheetList.addAll(read(workbook));
+        try (Workbook workbook = WorkbookFactory.create(excelFile, password, true)) {
+            excelSheetList.addAll(read(workbook, options));
         } catch (IOException e) {
             throw new ExcelException(e.getMessage());
         }
@@ -100,9 +170,42 @@ public class ReadExcelService {
      * @throws ExcelException Excel處理錯誤
      */
     public List<ExcelSheet> read(InputStream inputStream) throws ExcelException {
+        return readWithOptions(inputStream, new ExcelReadOptions());
+    }
+
+    /**
+     * 讀取excel資料
+     *
+     * <p>xlsx只解析選取的工作表; xls須載入整份活頁簿, 讀取後才篩選工作表及欄位
+     *
+     * @param inputStream InputStream
+     * @param options 讀取設定
+     * @return excel資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    public List<ExcelSheet> readWithOptions(
+            InputStream inputStream, @NonNull ExcelReadOptions options) throws ExcelException {
+        if (options.getSpoolToTempFile()) {
+            File tempFile = ExcelTempFiles.spool(inputStream, options.getTempDirectory());
+            try {
+                return readWithOptions(tempFile, options);
+            } finally {
+                ExcelTempFiles.delete(tempFile);
+            }
+        }
+        if (null != options.getExecutor() || options.isProjected()) {
+            try {
+                inputStream = FileMagic.prepareToCheckMagic(inputStream);
+                if (FileMagic.valueOf(inputStream) == FileMagic.OOXML) {
+                    return readXSSF(OPCPackage.open(inputStream), options);
+                }
+            } catch (IOException | InvalidFormatException e) {
+                throw new ExcelException(e.getMessage());
+            }
+        }
         List<ExcelSheet> excelSheetList = new ArrayList<>();
         try (Workbook workbook = WorkbookFactory.create(inputStream)) {
-            excelSheetList.addAll(read(workbook));
+            excelSheetList.addAll(read(workbook, options));
         } catch (IOException e) {
             throw new ExcelException(e.getMessage());
         }
@@ -118,9 +221,32 @@ public class ReadExcelService {
      * @throws ExcelException Excel處理錯誤
      */
     public List<ExcelSheet> read(InputStream inputStream, String password) throws ExcelException {
+        return readWithOptions(inputStream, password, new ExcelReadOptions());
+    }
+
+    /**
+     * 讀取excel資料
+     *
+     * @param inputStream InputStream
+     * @param password 密碼
+     * @param options 讀取設定
+     * @return excel資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    public List<ExcelSheet> readWithOptions(
+            InputStream inputStream, String password, @NonNull ExcelReadOptions options)
+            throws ExcelException {
+        if (options.getSpoolToTempFile()) {
+            File tempFile = ExcelTempFiles.spool(inputStream, options.getTempDirectory());
+            try {
+                return readWithOptions(tempFile, password, options);
+            } finally {
+                ExcelTempFiles.delete(tempFile);
+            }
+        }
         List<ExcelSheet> excelSheetList = new ArrayList<>();
         try (Workbook workbook = WorkbookFactory.create(inputStream, password)) {
-            excelSheetList.addAll(read(workbook));
+            excelSheetList.addAll(read(workbook, options));
         } catch (IOException e) {
             throw new ExcelException(e.getMessage());
         }
@@ -131,22 +257,60 @@ public class ReadExcelService {
      * 讀取excel資料
      *
      * @param workbook Workbook
+     * @param options 讀取設定
      * @return excel資料
      * @throws ExcelException Excel處理錯誤
      */
-    private List<ExcelSheet> read(Workbook workbook) throws ExcelException {
+    private List<ExcelSheet> read(Workbook workbook, ExcelReadOptions options)
+            throws ExcelException {
         List<ExcelSheet> excelSheetList = new ArrayList<>();
         if (workbook instanceof XSSFWorkbook) {
             XSSFWorkbook xssfWorkbook = (XSSFWorkbook) workbook;
+            ExcelStyleTable styleTable =
+                    options.getReadStyle() ? createStyleTable(xssfWorkbook) : null;
+            ExcelStringCache stringCache =
+                    new ExcelStringCache(
+                            null == xssfWorkbook.getSharedStringSource()
+                                    ? 0
+                                    : xssfWorkbook.getSharedStringSource().getUniqueCount(),
+                            options.getInternPoolSize());
             for (int sheetNum = 0; sheetNum < xssfWorkbook.getNumberOfSheets(); sheetNum++) {
-                XSSFSheet sheet = xssfWorkbook.getSheetAt(sheetNum);
-                excelSheetList.add(readSheet(xssfWorkbook, sheet));
+                if (!options.isSheetSelected(sheetNum, xssfWorkbook.getSheetName(sheetNum))) {
+                    continue;
+                }
+                excelSheetList.add(
+                        readSheet(
+                                xssfWorkbook.getSheetAt(sheetNum),
+                                options,
+                                styleTable,
+                                stringCache));
             }
         } else if (workbook instanceof HSSFWorkbook) {
             HSSFWorkbook hssfWorkbook = (HSSFWorkbook) workbook;
+            ExcelStyleTable styleTable =
+                    options.getReadStyle()
+                            ? new ExcelStyleTable(
+                                    hssfWorkbook.getNumCellStyles(),
+                                    index ->
+                                            new ExcelStyle(
+                                                    hssfWorkbook,
+                                                    hssfWorkbook.getCellStyleAt(index)))
+                            : null;
+            ExcelStringCache stringCache = new ExcelStringCache(0, options.getInternPoolSize());
             for (int sheetNum = 0; sheetNum < hssfWorkbook.getNumberOfSheets(); sheetNum++) {
-                HSSFSheet sheet = hssfWorkbook.getSheetAt(sheetNum);
-                excelSheetList.add(readSheet(hssfWorkbook, sheet));
+                if (!options.isSheetSelected(sheetNum, hssfWorkbook.getSheetName(sheetNum))) {
+                    continue;
+                }
+                excelSheetList.add(
+                        readSheet(
+                                hssfWorkbook.getSheetAt(sheetNum),
+                                options,
+                                styleTable,
+                                stringCache));
+            }
+            if (null != styleTable) {
+                // 活頁簿讀取後即關閉, 先轉換欄位用到的樣式
+                styleTable.detach();
             }
         } else {
             throw new ExcelException("File is not excel.");
@@ -155,44 +319,111 @@ public class ReadExcelService {
     }
 
     /**
-     * 讀取工作表資料
+     * 逐一解析選取的工作表(xlsx的工作表為獨立的壓縮檔項目, 共用字串表及樣式表只載入一次並共用)
      *
-     * @param workbook excel資料
-     * @param sheet 工作表資料
-     * @return 工作表資料
+     * <p>未選取的工作表不會解析, 設定執行器時同時解析各工作表
+     *
+     * @param opcPackage xlsx檔案(讀取完畢後關閉)
+     * @param options 讀取設定
+     * @return excel資料(依工作表順序)
+     * @throws ExcelException Excel處理錯誤
      */
-    private ExcelSheet readSheet(HSSFWorkbook workbook, HSSFSheet sheet) {
-        ExcelSheet excelSheet = new ExcelSheet(sheet.getSheetName(), new ArrayList<>());
-        excelSheet.setMergedRegionList(new ArrayList<>());
-        for (CellRangeAddress cellAddresses : sheet.getMergedRegions()) {
-            excelSheet
-                    .getMergedRegionList()
-                    .add(
-                            new ExcelMergedRegion(
-                                    cellAddresses.getFirstRow(),
-                                    cellAddresses.getLastRow(),
-                                    cellAddresses.getFirstColumn(),
-                                    cellAddresses.getLastColumn()));
+    private List<ExcelSheet> readXSSF(OPCPackage opcPackage, ExcelReadOptions options)
+            throws ExcelException {
+        Executor executor = null == options.getExecutor() ? Runnable::run : options.getExecutor();
+        try {
+            XSSFReader xssfReader = new XSSFReader(opcPackage);
+            XSSFReadContext context = new XSSFReadContext(opcPackage, xssfReader, options);
+            XSSFReader.SheetIterator sheetIterator =
+                    (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+            List<CompletableFuture<ExcelSheet>> futureList = new ArrayList<>();
+            for (int sheetIndex = 0; sheetIterator.hasNext(); sheetIndex++) {
+                sheetIterator.next().close();
+                String sheetName = sheetIterator.getSheetName();
+                if (!options.isSheetSelected(sheetIndex, sheetName)) continue;
+                PackagePart sheetPart = sheetIterator.getSheetPart();
+                int index = sheetIndex;
+                futureList.add(
+                        CompletableFuture.supplyAsync(
+                                () -> readSheet(sheetPart, index, sheetName, context),
+                                executor));
+            }
+            // 等待所有工作表解析完畢後才關閉檔案
+            List<ExcelSheet> excelSheetList = new ArrayList<>();
+            ExcelException exception = null;
+            for (CompletableFuture<ExcelSheet> future : futureList) {
+                try {
+                    excelSheetList.add(future.join());
+                } catch (CompletionException e) {
+                    if (null == exception) {
+                        exception =
+                                e.getCause() instanceof ExcelUncheckedException
+                                        ? ((ExcelUncheckedException) e.getCause()).getCause()
+                                        : new ExcelException(e.getCause().getMessage());
+                    }
+                }
+            }
+            if (null != exception) throw exception;
+            return excelSheetList;
+        } catch (IOException | OpenXML4JException | SAXException e) {
+            throw new ExcelException(e.getMessage());
+        } finally {
+            opcPackage.revert();
         }
-        for (int rowNum = 0; rowNum <= sheet.getLastRowNum(); rowNum++) {
-            HSSFRow row = sheet.getRow(rowNum);
-            if (null == row) continue;
-            for (int columnNum = 0; columnNum < row.getLastCellNum(); columnNum++) {
-                HSSFCell cell = row.getCell(columnNum);
-                if (cell == null) {
-                    excelSheet
-                            .getCellList()
-                            .add(new ExcelCell("", rowNum, columnNum, CellType.STRING));
-                } else {
-                    excelSheet
-                            .getCellList()
-                            .add(
-                                    new ExcelCell(
-                                            readHSSFCellValue(cell),
-                                            rowNum,
-                                            columnNum,
-                                            cell.getCellType(),
-                                            new ExcelStyle(workbook, cell.getCellStyle())));
+    }
+
+    /**
+     * 解析工作表資料(與活頁簿讀取結果相同, 非稀疏模式時橫列中沒有資料的欄位補上空白欄位)
+     *
+     * @param sheetPart 工作表
+     * @param sheetIndex 工作表順序
+     * @param sheetName 工作表名稱
+     * @param context xlsx共用讀取資料
+     * @return 工作表資料
+     */
+    private ExcelSheet readSheet(
+            PackagePart sheetPart, int sheetIndex, String sheetName, XSSFReadContext context) {
+        ExcelReadOptions options = context.getOptions();
+        List<ExcelCell> cellList =
+                createCellList(options, options.getReadStyle() ? context.getStyleTable() : null);
+        ExcelSheet excelSheet = new ExcelSheet(sheetName, cellList);
+        XSSFSheetParser parser = null;
+        try {
+            parser =
+                    new XSSFSheetParser(
+                            sheetPart.getInputStream(),
+                            sheetIndex,
+                            sheetName,
+                            context,
+                            !options.getSparse());
+            ExcelRow row;
+            while (null != (row = parser.nextRow())) {
+                if (options.getSparse()) {
+                    cellList.addAll(row.getCellList());
+                    continue;
+                }
+                int columnNum = options.getFirstColumn();
+                for (ExcelCell cell : row.getCellList()) {
+                    for (; columnNum < cell.getColumn(); columnNum++) {
+                        cellList.add(new ExcelCell("", row.getRow(), columnNum, CellType.STRING));
+                    }
+                    cellList.add(cell);
+                    columnNum = cell.getColumn() + 1;
+                }
+            }
+            if (options.getReadMergedRegion()) {
+                excelSheet.setMergedRegionList(
+                        toMergedRegionList(parser.readMergedRegionList(), options));
+            }
+            trimCellList(cellList);
+        } catch (IOException | XMLStreamException e) {
+            throw new ExcelUncheckedException(new ExcelException(e.getMessage()));
+        } finally {
+            if (null != parser) {
+                try {
+                    parser.close();
+                } catch (IOException | XMLStreamException ignored) {
+                    // 工作表已讀取完畢
                 }
             }
         }
@@ -200,79 +431,252 @@ public class ReadExcelService {
     }
 
     /**
-     * 讀取工作表資料
+     * 建立xlsx樣式表(另行解析樣式及佈景主題, 讀取完畢後不須保留整份活頁簿)
      *
      * @param workbook excel資料
+     * @return 樣式表
+     * @throws ExcelException Excel處理錯誤
+     */
+    private ExcelStyleTable createStyleTable(XSSFWorkbook workbook) throws ExcelException {
+        try {
+            StylesTable stylesTable;
+            try (InputStream stylesInputStream =
+                    workbook.getStylesSource().getPackagePart().getInputStream()) {
+                stylesTable = new StylesTable(stylesInputStream);
+            }
+            if (null != workbook.getTheme()) {
+                try (InputStream themeInputStream =
+                        workbook.getTheme().getPackagePart().getInputStream()) {
+                    stylesTable.setTheme(new ThemesTable(themeInputStream));
+                }
+            }
+            return new ExcelStyleTable(
+                    stylesTable.getNumCellStyles(),
+                    index -> {
+                        XSSFCellStyle cellStyle =
+                                stylesTable.getStyleAt(Short.toUnsignedInt(index));
+                        return null == cellStyle ? null : new ExcelStyle(cellStyle);
+                    });
+        } catch (IOException e) {
+            throw new ExcelException(e.getMessage());
+        }
+    }
+
+    /**
+     * 讀取合併欄位規則(僅保留與讀取直行範圍重疊的規則)
+     *
      * @param sheet 工作表資料
-     * @return 工作表資料
+     * @param options 讀取設定
+     * @return 合併欄位規則
+     */
+    private List<ExcelMergedRegion> readMergedRegionList(Sheet sheet, ExcelReadOptions options) {
+        if (!options.getReadMergedRegion()) return new ArrayList<>();
+        return toMergedRegionList(sheet.getMergedRegions(), options);
+    }
+
+    /**
+     * 轉換合併欄位規則(僅保留與讀取直行範圍重疊的規則)
+     *
+     * @param cellAddressesList 合併欄位範圍
+     * @param options 讀取設定
+     * @return 合併欄位規則
+     */
+    private List<ExcelMergedRegion> toMergedRegionList(
+            List<CellRangeAddress> cellAddressesList, ExcelReadOptions options) {
+        List<ExcelMergedRegion> mergedRegionList = new ArrayList<>();
+        for (CellRangeAddress cellAddresses : cellAddressesList) {
+            if (cellAddresses.getLastColumn() < options.getFirstColumn()
+                    || (null != options.getLastColumn()
+                            && cellAddresses.getFirstColumn() > options.getLastColumn())) {
+                continue;
+            }
+            mergedRegionList.add(
+                    new ExcelMergedRegion(
+                            cellAddresses.getFirstRow(),
+                            cellAddresses.getLastRow(),
+                            cellAddresses.getFirstColumn(),
+                            cellAddresses.getLastColumn()));
+        }
+        return mergedRegionList;
+    }
+
+    /**
+     * 取得讀取的結束直行(不含)
+     *
+     * @param row 橫列資料
+     * @param options 讀取設定
+     * @return 結束直行
      */
-    private ExcelSheet readSheet(XSSFWorkbook workbook, XSSFSheet sheet) {
-        ExcelSheet excelSheet = new ExcelSheet(sheet.getSheetName(), new ArrayList<>());
-        excelSheet.setMergedRegionList(new ArrayList<>());
-        for (CellRangeAddress cellAddresses : sheet.getMergedRegions()) {
-            excelSheet
-                    .getMergedRegionList()
-                    .add(
-                            new ExcelMergedRegion(
-                                    cellAddresses.getFirstRow(),
-                                    cellAddresses.getLastRow(),
-                                    cellAddresses.getFirstColumn(),
-                                    cellAddresses.getLastColumn()));
+    private int getEndColumnNum(Row row, ExcelReadOptions options) {
+        int endColumnNum = row.getLastCellNum();
+        if (null != options.getLastColumn()) {
+            endColumnNum = Math.min(endColumnNum, options.getLastColumn() + 1);
         }
+        return endColumnNum;
+    }
+
+    /**
+     * 讀取工作表資料
+     *
+     * @param sheet 工作表資料
+     * @param options 讀取設定
+     * @param styleTable 樣式表, null時不讀取樣式
+     * @param stringCache 字串快取
+     * @return 工作表資料
+     */
+    private ExcelSheet readSheet(
+            Sheet sheet,
+            ExcelReadOptions options,
+            ExcelStyleTable styleTable,
+            ExcelStringCache stringCache) {
+        List<ExcelCell> cellList = createCellList(options, styleTable);
+        ExcelSheet excelSheet = new ExcelSheet(sheet.getSheetName(), cellList);
+        excelSheet.setMergedRegionList(readMergedRegionList(sheet, options));
         for (int rowNum = 0; rowNum <= sheet.getLastRowNum(); rowNum++) {
-            XSSFRow row = sheet.getRow(rowNum);
+            Row row = sheet.getRow(rowNum);
             if (null == row) continue;
-            for (int columnNum = 0; columnNum < row.getLastCellNum(); columnNum++) {
-                XSSFCell cell = row.getCell(columnNum);
+            if (options.getSparse()) {
+                // 僅保留有資料的欄位
+                for (Cell cell : row) {
+                    if (cell.getCellType() == CellType.BLANK
+                            || !options.isColumnSelected(cell.getColumnIndex())) {
+                        continue;
+                    }
+                    cellList.add(readCell(cell, options, styleTable, stringCache));
+                }
+                continue;
+            }
+            int endColumnNum = getEndColumnNum(row, options);
+            for (int columnNum = options.getFirstColumn(); columnNum < endColumnNum; columnNum++) {
+                Cell cell = row.getCell(columnNum);
                 if (cell == null) {
-                    excelSheet
-                            .getCellList()
-                            .add(new ExcelCell("", rowNum, columnNum, CellType.STRING));
+                    cellList.add(new ExcelCell("", rowNum, columnNum, CellType.STRING));
                 } else {
-                    excelSheet
-                            .getCellList()
-                            .add(
-                                    new ExcelCell(
-                                            readXSSFCellValue(cell),
-                                            rowNum,
-                                            columnNum,
-                                            cell.getCellType(),
-                                            new ExcelStyle(cell.getCellStyle())));
+                    cellList.add(readCell(cell, options, styleTable, stringCache));
                 }
             }
         }
+        trimCellList(cellList);
         return excelSheet;
     }
 
     /**
-     * 讀取XSSFCell數值
+     * 建立工作表欄位資料
      *
-     * @param cell XSSFCell
-     * @return 數值
+     * @param options 讀取設定
+     * @param styleTable 樣式表, null時不讀取樣式
+     * @return 欄位資料
      */
-    private String readHSSFCellValue(HSSFCell cell) {
-        if (cell.getCellType() == CellType.NUMERIC && DateUtil.isCellDateFormatted(cell)) {
-            // 判斷欄位是否為日期格式
-            Date date = cell.getDateCellValue();
-            return new SimpleDateFormat(dateTimeFormat).format(date);
-        } else {
-            return cell.toString();
+    private List<ExcelCell> createCellList(ExcelReadOptions options, ExcelStyleTable styleTable) {
+        if (options.getColumnar()) {
+            return new ExcelColumnarCellList(
+                    styleTable,
+                    options.getDateTimeFormatter(),
+                    null == options.getHeapBudget() ? 0 : options.getHeapBudget(),
+                    options.getTempDirectory());
         }
+        return new ArrayList<>();
     }
 
     /**
-     * 讀取XSSFCell數值
+     * 釋放欄式欄位資料的多餘空間
      *
-     * @param cell XSSFCell
-     * @return 數值
+     * @param cellList 欄位資料
      */
-    private String readXSSFCellValue(XSSFCell cell) {
-        if (cell.getCellType() == CellType.NUMERIC && DateUtil.isCellDateFormatted(cell)) {
-            // 判斷欄位是否為日期格式
-            Date date = cell.getDateCellValue();
-            return new SimpleDateFormat(dateTimeFormat).format(date);
+    private void trimCellList(List<ExcelCell> cellList) {
+        if (cellList instanceof ExcelColumnarCellList) {
+            ((ExcelColumnarCellList) cellList).trimToSize();
+        }
+    }
+
+    /**
+     * 讀取欄位資料
+     *
+     * @param cell 欄位
+     * @param options 讀取設定
+     * @param styleTable 樣式表, null時不讀取樣式
+     * @param stringCache 字串快取
+     * @return 欄位資料
+     */
+    private ExcelCell readCell(
+            Cell cell,
+            ExcelReadOptions options,
+            ExcelStyleTable styleTable,
+            ExcelStringCache stringCache) {
+        ExcelCell excelCell;
+        if (null == styleTable) {
+            excelCell =
+                    new ExcelCell(
+                            null, cell.getRowIndex(), cell.getColumnIndex(), cell.getCellType());
         } else {
-            return cell.toString();
+            short styleIndex;
+            if (cell instanceof XSSFCell) {
+                // 直接取得樣式序號, 不建立XSSFCellStyle
+                styleIndex = (short) ((XSSFCell) cell).getCTCell().getS();
+            } else {
+                styleIndex = cell.getCellStyle().getIndex();
+                // 活頁簿關閉前須轉換的樣式
+                styleTable.reference(styleIndex);
+            }
+            excelCell =
+                    new ExcelCell(
+                            null,
+                            cell.getRowIndex(),
+                            cell.getColumnIndex(),
+                            cell.getCellType(),
+                            styleTable,
+                            styleIndex);
+        }
+        readCellValue(cell, excelCell, options.getDateTimeFormatter(), stringCache);
+        return excelCell;
+    }
+
+    /**
+     * 讀取欄位數值(保留原始數值、布林值及日期, 其餘與Cell.toString()一致)
+     *
+     * @param cell 欄位
+     * @param excelCell 欄位資料
+     * @param dateTimeFormatter 日期格式
+     * @param stringCache 字串快取
+     */
+    private void readCellValue(
+            Cell cell,
+            ExcelCell excelCell,
+            DateTimeFormatter dateTimeFormatter,
+            ExcelStringCache stringCache) {
+        switch (cell.getCellType()) {
+            case NUMERIC:
+                if (DateUtil.isCellDateFormatted(cell)) {
+                    // 判斷欄位是否為日期格式
+                    excelCell.setLocalDateTime(cell.getLocalDateTimeCellValue(), dateTimeFormatter);
+                } else {
+                    excelCell.setNumber(cell.getNumericCellValue());
+                }
+                break;
+            case BOOLEAN:
+                excelCell.setBoolean(cell.getBooleanCellValue());
+                break;
+            default:
+                excelCell.setValue(readStringValue(cell, stringCache));
+                break;
+        }
+    }
+
+    /**
+     * 讀取欄位字串(與Cell.toString()一致, 同一共用字串序號的欄位共用同一String)
+     *
+     * @param cell 欄位
+     * @param stringCache 字串快取
+     * @return 欄位字串
+     */
+    private String readStringValue(Cell cell, ExcelStringCache stringCache) {
+        if (cell.getCellType() == CellType.STRING && cell instanceof XSSFCell) {
+            CTCell ctCell = ((XSSFCell) cell).getCTCell();
+            if (ctCell.getT() == STCellType.S && ctCell.isSetV()) {
+                return stringCache.getSharedString(
+                        Integer.parseInt(ctCell.getV()), index -> cell.toString());
+            }
         }
+        return stringCache.intern(cell.toString());
     }
 }
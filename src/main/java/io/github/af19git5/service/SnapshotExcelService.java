@@ -0,0 +1,84 @@
+package io.github.af19git5.service;
+
+import io.github.af19git5.entity.ExcelSheet;
+import io.github.af19git5.entity.ExcelSnapshotCodec;
+import io.github.af19git5.exception.ExcelException;
+
+import lombok.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Excel快照處理(將讀取結果存為二進位快照, 之後由快照載入而不須重新解析Excel)
+ *
+ * @author Jimmy Kang
+ */
+public class SnapshotExcelService {
+
+    /**
+     * 寫出快照
+     *
+     * @param sheetList 工作表資料
+     * @param snapshotFile 快照檔案
+     * @throws ExcelException Excel處理錯誤
+     */
+    public void write(@NonNull List<ExcelSheet> sheetList, @NonNull File snapshotFile)
+            throws ExcelException {
+        try (OutputStream outputStream = Files.newOutputStream(snapshotFile.toPath())) {
+            ExcelSnapshotCodec.encode(sheetList, outputStream);
+        } catch (IOException e) {
+            throw new ExcelException(e.getMessage());
+        }
+    }
+
+    /**
+     * 寫出快照
+     *
+     * @param sheetList 工作表資料
+     * @param outputStream OutputStream(不負責關閉)
+     * @throws ExcelException Excel處理錯誤
+     */
+    public void write(@NonNull List<ExcelSheet> sheetList, @NonNull OutputStream outputStream)
+            throws ExcelException {
+        try {
+            ExcelSnapshotCodec.encode(sheetList, outputStream);
+        } catch (IOException e) {
+            throw new ExcelException(e.getMessage());
+        }
+    }
+
+    /**
+     * 載入快照
+     *
+     * @param snapshotFile 快照檔案
+     * @return 工作表資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    public List<ExcelSheet> read(@NonNull File snapshotFile) throws ExcelException {
+        try {
+            return ExcelSnapshotCodec.decode(Files.readAllBytes(snapshotFile.toPath()));
+        } catch (IOException e) {
+            throw new ExcelException(e.getMessage());
+        }
+    }
+
+    /**
+     * 載入快照
+     *
+     * @param inputStream InputStream(不負責關閉)
+     * @return 工作表資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    public List<ExcelSheet> read(@NonNull InputStream inputStream) throws ExcelException {
+        try {
+            return ExcelSnapshotCodec.decode(inputStream.readAllBytes());
+        } catch (IOException e) {
+            throw new ExcelException(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package io.github.af19git5.service;
+
+import io.github.af19git5.entity.ExcelReadOptions;
+import io.github.af19git5.entity.ExcelRow;
+import io.github.af19git5.exception.ExcelException;
+import io.github.af19git5.exception.ExcelUncheckedException;
+import io.github.af19git5.handler.ExcelRowHandler;
+
+import lombok.NonNull;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 讀取excel服務(資料流讀取, 逐列處理而不保留整份資料, 可以用在大檔匯入)
+ *
+ * @author Jimmy Kang
+ */
+public class StreamReadExcelService {
+
+    /**
+     * 逐列讀取excel資料
+     *
+     * @param excelFilePath excel檔案路徑
+     * @param rowHandler 橫列資料處理
+     * @throws ExcelException Excel處理錯誤
+     */
+    public void read(@NonNull String excelFilePath, @NonNull ExcelRowHandler rowHandler)
+            throws ExcelException {
+        read(new File(excelFilePath), rowHandler);
+    }
+
+    /**
+     * 逐列讀取excel資料
+     *
+     * @param excelFile excel檔案
+     * @param rowHandler 橫列資料處理
+     * @throws ExcelException Excel處理錯誤
+     */
+    public void read(@NonNull File excelFile, @NonNull ExcelRowHandler rowHandler)
+            throws ExcelException {
+        read(excelFile, new ExcelReadOptions(), rowHandler);
+    }
+
+    /**
+     * 逐列讀取excel資料
+     *
+     * @param excelFile excel檔案
+     * @param options 讀取設定
+     * @param rowHandler 橫列資料處理
+     * @throws ExcelException Excel處理錯誤
+     */
+    public void read(
+            @NonNull File excelFile,
+            @NonNull ExcelReadOptions options,
+            @NonNull ExcelRowHandler rowHandler)
+            throws ExcelException {
+        try (ExcelRowReader rowReader = openRowReader(excelFile, options)) {
+            read(rowReader, rowHandler);
+        }
+    }
+
+    /**
+     * 逐列讀取excel資料
+     *
+     * @param inputStream InputStream
+     * @param rowHandler 橫列資料處理
+     * @throws ExcelException Excel處理錯誤
+     */
+    public void read(@NonNull InputStream inputStream, @NonNull ExcelRowHandler rowHandler)
+            throws ExcelException {
+        read(inputStream, new ExcelReadOptions(), rowHandler);
+    }
+
+    /**
+     * 逐列讀取excel資料
+     *
+     * @param inputStream InputStream
+     * @param options 讀取設定
+     * @param rowHandler 橫列資料處理
+     * @throws ExcelException Excel處理錯誤
+     */
+    public void read(
+            @NonNull InputStream inputStream,
+            @NonNull ExcelReadOptions options,
+            @NonNull ExcelRowHandler rowHandler)
+            throws ExcelException {
+        try (ExcelRowReader rowReader = openRowReader(inputStream, options)) {
+            read(rowReader, rowHandler);
+        }
+    }
+
+    /**
+     * 逐列讀取excel資料
+     *
+     * @param rowReader 逐列讀取器
+     * @param rowHandler 橫列資料處理
+     * @throws ExcelException Excel處理錯誤
+     */
+    private void read(ExcelRowReader rowReader, ExcelRowHandler rowHandler)
+            throws ExcelException {
+        ExcelRow row;
+        while (null != (row = rowReader.nextRow())) {
+            rowHandler.handle(row);
+        }
+    }
+
+    /**
+     * 讀取excel資料並轉為物件(讀取第一個工作表, 第一列為標題列)
+     *
+     * @param excelFile excel檔案
+     * @param type 物件類別(以@ExcelColumn標示對應欄位)
+     * @return 物件資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    public <T> List<T> readBeans(@NonNull File excelFile, @NonNull Class<T> type)
+            throws ExcelException {
+        return readBeans(excelFile, toBeanOptions(), type);
+    }
+
+    /**
+     * 讀取excel資料並轉為物件(讀取符合設定的第一個工作表, 第一列為標題列)
+     *
+     * @param excelFile excel檔案
+     * @param options 讀取設定
+     * @param type 物件類別(以@ExcelColumn標示對應欄位)
+     * @return 物件資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    public <T> List<T> readBeans(
+            @NonNull File excelFile, @NonNull ExcelReadOptions options, @NonNull Class<T> type)
+            throws ExcelException {
+        ExcelBeanBinding<T> binding = ExcelBeanBinding.of(type);
+        try (ExcelRowReader rowReader = openRowReader(excelFile, options)) {
+            return read(rowReader, binding, options);
+        }
+    }
+
+    /**
+     * 讀取excel資料並轉為物件(讀取第一個工作表, 第一列為標題列)
+     *
+     * @param inputStream InputStream
+     * @param type 物件類別(以@ExcelColumn標示對應欄位)
+     * @return 物件資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    public <T> List<T> readBeans(@NonNull InputStream inputStream, @NonNull Class<T> type)
+            throws ExcelException {
+        return readBeans(inputStream, toBeanOptions(), type);
+    }
+
+    /**
+     * 讀取excel資料並轉為物件(讀取符合設定的第一個工作表, 第一列為標題列)
+     *
+     * @param inputStream InputStream
+     * @param options 讀取設定
+     * @param type 物件類別(以@ExcelColumn標示對應欄位)
+     * @return 物件資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    public <T> List<T> readBeans(
+            @NonNull InputStream inputStream,
+            @NonNull ExcelReadOptions options,
+            @NonNull Class<T> type)
+            throws ExcelException {
+        ExcelBeanBinding<T> binding = ExcelBeanBinding.of(type);
+        try (ExcelRowReader rowReader = openRowReader(inputStream, options)) {
+            return read(rowReader, binding, options);
+        }
+    }
+
+    /**
+     * 逐列讀取excel資料並轉為物件
+     *
+     * @param rowReader 逐列讀取器
+     * @param binding 物件欄位對應
+     * @param options 讀取設定
+     * @return 物件資料
+     * @throws ExcelException Excel處理錯誤
+     */
+    private <T> List<T> read(
+            ExcelRowReader rowReader, ExcelBeanBinding<T> binding, ExcelReadOptions options)
+            throws ExcelException {
+        List<T> beanList = new ArrayList<>();
+        ExcelRow headerRow = rowReader.nextRow();
+        if (null == headerRow) return beanList;
+        int[] columns = binding.resolveColumns(headerRow);
+        ExcelRow row;
+        while (null != (row = rowReader.nextRow())
+                && row.getSheetIndex().equals(headerRow.getSheetIndex())) {
+            beanList.add(binding.toBean(row, columns, options.getDateTimeFormatter()));
+        }
+        return beanList;
+    }
+
+    /**
+     * 建立物件讀取的預設設定(只讀取第一個工作表, 不讀取樣式)
+     *
+     * @return 讀取設定
+     */
+    private ExcelReadOptions toBeanOptions() {
+        return ExcelReadOptions.init().sheetIndexes(0).skipStyle().build();
+    }
+
+    /**
+     * 取得橫列資料流(取用時才解析, 使用完畢須關閉)
+     *
+     * @param excelFile excel檔案
+     * @param sheetName 工作表名稱, null時讀取全部工作表
+     * @return 橫列資料流
+     * @throws ExcelException Excel處理錯誤
+     */
+    public Stream<ExcelRow> rows(@NonNull File excelFile, String sheetName)
+            throws ExcelException {
+        return rowsWithOptions(excelFile, toOptions(sheetName));
+    }
+
+    /**
+     * 取得橫列資料流(取用時才解析, 使用完畢須關閉)
+     *
+     * @param excelFile excel檔案
+     * @param options 讀取設定
+     * @return 橫列資料流
+     * @throws ExcelException Excel處理錯誤
+     */
+    public Stream<ExcelRow> rowsWithOptions(
+            @NonNull File excelFile, @NonNull ExcelReadOptions options) throws ExcelException {
+        return toStream(openRowReader(excelFile, options));
+    }
+
+    /**
+     * 取得橫列資料流(取用時才解析, 使用完畢須關閉)
+     *
+     * @param inputStream InputStream
+     * @param sheetName 工作表名稱, null時讀取全部工作表
+     * @return 橫列資料流
+     * @throws ExcelException Excel處理錯誤
+     */
+    public Stream<ExcelRow> rows(@NonNull InputStream inputStream, String sheetName)
+            throws ExcelException {
+        return rowsWithOptions(inputStream, toOptions(sheetName));
+    }
+
+    /**
+     * 取得橫列資料流(取用時才解析, 使用完畢須關閉)
+     *
+     * @param inputStream InputStream
+     * @param options 讀取設定
+     * @return 橫列資料流
+     * @throws ExcelException Excel處理錯誤
+     */
+    public Stream<ExcelRow> rowsWithOptions(
+            @NonNull InputStream inputStream, @NonNull ExcelReadOptions options)
+            throws ExcelException {
+        return toStream(openRowReader(inputStream, options));
+    }
+
+    /**
+     * 依工作表名稱建立讀取設定
+     *
+     * @param sheetName 工作表名稱, null時讀取全部工作表
+     * @return 讀取設定
+     */
+    private ExcelReadOptions toOptions(String sheetName) {
+        if (null == sheetName) return new ExcelReadOptions();
+        return ExcelReadOptions.init().sheetNames(sheetName).build();
+    }
+
+    /**
+     * 將逐列讀取器包裝為資料流(讀取完畢或關閉資料流時關閉讀取器)
+     *
+     * @param rowReader 逐列讀取器
+     * @return 橫列資料流
+     */
+    private Stream<ExcelRow> toStream(ExcelRowReader rowReader) {
+        Iterator<ExcelRow> iterator =
+                new Iterator<>() {
+
+                    private ExcelRow nextRow;
+
+                    @Override
+                    public boolean hasNext() {
+                        if (null == nextRow) {
+                            try {
+                                nextRow = rowReader.nextRow();
+                                if (null == nextRow) {
+                                    rowReader.close();
+                                }
+                            } catch (ExcelException e) {
+                                throw new ExcelUncheckedException(e);
+                            }
+                        }
+                        return null != nextRow;
+                    }
+
+                    @Override
+                    public ExcelRow next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        ExcelRow row = nextRow;
+                        nextRow = null;
+                        return row;
+                    }
+                };
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(
+                                iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .onClose(
+                        () -> {
+                            try {
+                                rowReader.close();
+                            } catch (ExcelException e) {
+                                throw new ExcelUncheckedException(e);
+                            }
+                        });
+    }
+
+    /**
+     * 開啟逐列讀取器
+     *
+     * @param excelFile excel檔案
+     * @param options 讀取設定
+     * @return 逐列讀取器
+     * @throws ExcelException Excel處理錯誤
+     */
+    private ExcelRowReader openRowReader(File excelFile, ExcelReadOptions options)
+            throws ExcelException {
+        try {
+            FileMagic fileMagic = FileMagic.valueOf(excelFile);
+            if (fileMagic == FileMagic.OOXML) {
+                return new XSSFStreamRowReader(
+                        OPCPackage.open(excelFile, PackageAccess.READ), options);
+            } else if (fileMagic == FileMagic.OLE2) {
+                return new HSSFStreamRowReader(new POIFSFileSystem(excelFile, true), options);
+            } else {
+                throw new ExcelException("File is not excel.");
+            }
+        } catch (IOException | InvalidFormatException e) {
+            throw new ExcelException(e.getMessage());
+        }
+    }
+
+    /**
+     * 開啟逐列讀取器(InputStream一律先寫入暫存檔再由檔案讀取, 避免整份檔案載入記憶體)
+     *
+     * @param inputStream InputStream
+     * @param options 讀取設定(暫存目錄)
+     * @return 逐列讀取器
+     * @throws ExcelException Excel處理錯誤
+     */
+    private ExcelRowReader openRowReader(InputStream inputStream, ExcelReadOptions options)
+            throws ExcelException {
+        File tempFile = ExcelTempFiles.spool(inputStream, options.getTempDirectory());
+        ExcelRowReader rowReader;
+        try {
+            rowReader = openRowReader(tempFile, options);
+        } catch (ExcelException e) {
+            ExcelTempFiles.delete(tempFile);
+            throw e;
+        }
+        return new ExcelRowReader() {
+
+            @Override
+            public ExcelRow nextRow() throws ExcelException {
+                return rowReader.nextRow();
+            }
+
+            @Override
+            public void close() throws ExcelException {
+                try {
+                    rowReader.close();
+                } finally {
+                    ExcelTempFiles.delete(tempFile);
+                }
+            }
+        };
+    }
+}
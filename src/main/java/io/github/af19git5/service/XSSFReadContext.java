@@ -0,0 +1,155 @@
+package io.github.af19git5.service;
+
+import io.github.af19git5.entity.ExcelReadOptions;
+import io.github.af19git5.entity.ExcelStyle;
+import io.github.af19git5.entity.ExcelStyleTable;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * xlsx共用讀取資料(共用字串表及樣式表只載入一次, 載入後唯讀, 可供多個工作表同時解析)
+ *
+ * @author Jimmy Kang
+ */
+class XSSFReadContext {
+
+    private final ExcelReadOptions options;
+    private final SharedStrings sharedStrings;
+
+    /** 字串快取 */
+    private final ExcelStringCache stringCache;
+
+    /** 樣式表(取用樣式時才轉換) */
+    private final ExcelStyleTable styleTable;
+
+    /** 各樣式是否為日期格式(key: 樣式序號) */
+    private final boolean[] dateStyles;
+
+    /** 日期是否以1904年為基準 */
+    private final boolean date1904;
+
+    /**
+     * @param opcPackage xlsx檔案
+     * @param xssfReader xlsx讀取器
+     * @param options 讀取設定
+     */
+    XSSFReadContext(OPCPackage opcPackage, XSSFReader xssfReader, ExcelReadOptions options)
+            throws IOException, OpenXML4JException, SAXException {
+        this.options = options;
+        this.date1904 = readDate1904(xssfReader);
+        this.sharedStrings = new ReadOnlySharedStringsTable(opcPackage);
+        this.stringCache =
+                new ExcelStringCache(sharedStrings.getUniqueCount(), options.getInternPoolSize());
+        StylesTable stylesTable = xssfReader.getStylesTable();
+        if (null == stylesTable) {
+            this.dateStyles = new boolean[0];
+            this.styleTable = new ExcelStyleTable(0, index -> null);
+            return;
+        }
+        this.dateStyles = new boolean[stylesTable.getNumCellStyles()];
+        for (int i = 0; i < dateStyles.length; i++) {
+            XSSFCellStyle style = stylesTable.getStyleAt(i);
+            dateStyles[i] =
+                    DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+        }
+        this.styleTable =
+                new ExcelStyleTable(
+                        dateStyles.length,
+                        index -> {
+                            XSSFCellStyle cellStyle =
+                                    stylesTable.getStyleAt(Short.toUnsignedInt(index));
+                            return null == cellStyle ? null : new ExcelStyle(cellStyle);
+                        });
+    }
+
+    ExcelReadOptions getOptions() {
+        return options;
+    }
+
+    ExcelStyleTable getStyleTable() {
+        return styleTable;
+    }
+
+    boolean isDate1904() {
+        return date1904;
+    }
+
+    /**
+     * 取得共用字串(同一序號回傳同一String)
+     *
+     * @param index 共用字串序號
+     * @return 字串
+     */
+    String getSharedString(int index) {
+        return stringCache.getSharedString(
+                index, sharedIndex -> sharedStrings.getItemAt(sharedIndex).getString());
+    }
+
+    /**
+     * 取得字串池中的相同字串
+     *
+     * @param value 字串
+     * @return 字串
+     */
+    String intern(String value) {
+        return stringCache.intern(value);
+    }
+
+    /**
+     * 樣式是否為日期格式
+     *
+     * @param styleIndex 樣式序號
+     * @return 是否為日期格式
+     */
+    boolean isDateStyle(int styleIndex) {
+        return styleIndex < dateStyles.length && dateStyles[styleIndex];
+    }
+
+    /**
+     * 讀取活頁簿的日期基準(workbookPr的date1904屬性)
+     *
+     * @param xssfReader xlsx讀取器
+     * @return 日期是否以1904年為基準
+     */
+    private static boolean readDate1904(XSSFReader xssfReader)
+            throws IOException, OpenXML4JException {
+        try (InputStream workbookInputStream = xssfReader.getWorkbookData()) {
+            XMLStreamReader xmlReader =
+                    XMLHelper.newXMLInputFactory().createXMLStreamReader(workbookInputStream);
+            try {
+                while (xmlReader.hasNext()) {
+                    if (xmlReader.next() != XMLStreamConstants.START_ELEMENT) continue;
+                    String localName = xmlReader.getLocalName();
+                    if ("workbookPr".equals(localName)) {
+                        String date1904 = xmlReader.getAttributeValue(null, "date1904");
+                        return "1".equals(date1904) || "true".equalsIgnoreCase(date1904);
+                    } else if ("sheets".equals(localName)) {
+                        // workbookPr位於sheets之前
+                        return false;
+                    }
+                }
+                return false;
+            } finally {
+                xmlReader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+}
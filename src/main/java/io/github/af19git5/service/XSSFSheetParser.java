@@ -0,0 +1,294 @@
+package io.github.af19git5.service;
+
+import io.github.af19git5.entity.ExcelCell;
+import io.github.af19git5.entity.ExcelReadOptions;
+import io.github.af19git5.entity.ExcelRow;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.util.XMLHelper;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * xlsx工作表解析(以StAX逐列解析單一工作表)
+ *
+ * @author Jimmy Kang
+ */
+class XSSFSheetParser {
+
+    private final int sheetIndex;
+    private final String sheetName;
+    private final XSSFReadContext context;
+    private final ExcelReadOptions options;
+    private final boolean isReadBlankCell;
+    private final InputStream sheetInputStream;
+    private final XMLStreamReader xmlReader;
+
+    private int rowNum;
+    private int nextRowNum = 0;
+    private int columnNum;
+    private String cellType;
+    private int styleIndex;
+    private String value;
+    private String formula;
+
+    /**
+     * @param inputStream 工作表內容(由解析器負責關閉)
+     * @param sheetIndex 工作表順序
+     * @param sheetName 工作表名稱
+     * @param context xlsx共用讀取資料
+     * @param isReadBlankCell 是否保留沒有數值的欄位
+     */
+    XSSFSheetParser(
+            InputStream inputStream,
+            int sheetIndex,
+            String sheetName,
+            XSSFReadContext context,
+            boolean isReadBlankCell)
+            throws XMLStreamException {
+        this.sheetIndex = sheetIndex;
+        this.sheetName = sheetName;
+        this.context = context;
+        this.options = context.getOptions();
+        this.isReadBlankCell = isReadBlankCell;
+        this.sheetInputStream = new BufferedInputStream(inputStream);
+        this.xmlReader = XMLHelper.newXMLInputFactory().createXMLStreamReader(sheetInputStream);
+    }
+
+    /**
+     * 讀取下一列(跳過沒有資料的列)
+     *
+     * @return 橫列資料, 工作表資料讀取完畢時回傳null
+     */
+    ExcelRow nextRow() throws XMLStreamException {
+        List<ExcelCell> cellList = null;
+        int lastColumnNum = -1;
+        while (xmlReader.hasNext()) {
+            int event = xmlReader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (xmlReader.getLocalName()) {
+                    case "row":
+                        String rowRef = xmlReader.getAttributeValue(null, "r");
+                        rowNum = null == rowRef ? nextRowNum : Integer.parseInt(rowRef) - 1;
+                        cellList = new ArrayList<>();
+                        lastColumnNum = -1;
+                        break;
+                    case "c":
+                        String cellRef = xmlReader.getAttributeValue(null, "r");
+                        columnNum = null == cellRef ? lastColumnNum + 1 : parseColumnNum(cellRef);
+                        cellType = xmlReader.getAttributeValue(null, "t");
+                        String style = xmlReader.getAttributeValue(null, "s");
+                        styleIndex = null == style ? 0 : Integer.parseInt(style);
+                        value = null;
+                        formula = null;
+                        break;
+                    case "v":
+                        value = xmlReader.getElementText();
+                        break;
+                    case "f":
+                        formula = xmlReader.getElementText();
+                        break;
+                    case "is":
+                        value = readInlineString();
+                        break;
+                    default:
+                        break;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                switch (xmlReader.getLocalName()) {
+                    case "c":
+                        lastColumnNum = columnNum;
+                        ExcelCell cell = createCell();
+                        if (null != cell && null != cellList) {
+                            cellList.add(cell);
+                        }
+                        break;
+                    case "row":
+                        nextRowNum = rowNum + 1;
+                        if (null != cellList && !cellList.isEmpty()) {
+                            return new ExcelRow(sheetIndex, sheetName, rowNum, cellList);
+                        }
+                        break;
+                    case "sheetData":
+                        return null;
+                    default:
+                        break;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 讀取合併欄位規則(須於橫列讀取完畢後呼叫)
+     *
+     * @return 合併欄位規則
+     */
+    List<CellRangeAddress> readMergedRegionList() throws XMLStreamException {
+        List<CellRangeAddress> mergedRegionList = new ArrayList<>();
+        while (xmlReader.hasNext()) {
+            if (xmlReader.next() == XMLStreamConstants.START_ELEMENT
+                    && "mergeCell".equals(xmlReader.getLocalName())) {
+                String ref = xmlReader.getAttributeValue(null, "ref");
+                if (null != ref) {
+                    mergedRegionList.add(CellRangeAddress.valueOf(ref));
+                }
+            }
+        }
+        return mergedRegionList;
+    }
+
+    /**
+     * 讀取行內字串(略過注音標示)
+     *
+     * @return 字串
+     */
+    private String readInlineString() throws XMLStreamException {
+        StringBuilder builder = new StringBuilder();
+        boolean isPhonetic = false;
+        while (xmlReader.hasNext()) {
+            int event = xmlReader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if ("rPh".equals(xmlReader.getLocalName())) {
+                    isPhonetic = true;
+                } else if ("t".equals(xmlReader.getLocalName()) && !isPhonetic) {
+                    builder.append(xmlReader.getElementText());
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if ("rPh".equals(xmlReader.getLocalName())) {
+                    isPhonetic = false;
+                } else if ("is".equals(xmlReader.getLocalName())) {
+                    break;
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 依欄位原始資料建立欄位(保留原始數值、布林值及日期, 其餘與Cell.toString()一致)
+     *
+     * @return 欄位資料, 沒有數值(且不保留空白欄位)或不在讀取範圍時回傳null
+     */
+    private ExcelCell createCell() {
+        if (!options.isColumnSelected(columnNum)) return null;
+        ExcelCell cell;
+        if (null != formula) {
+            // 共用公式的延伸欄位沒有公式內容, 改用計算結果(與整份載入時回傳平移後的公式不同)
+            cell = newCell(CellType.FORMULA);
+            cell.setValue(
+                    context.intern(!formula.isEmpty() ? formula : null == value ? "" : value));
+        } else if (null == value) {
+            return isReadBlankCell ? newCell(CellType.BLANK) : null;
+        } else if ("b".equals(cellType)) {
+            cell = newCell(CellType.BOOLEAN);
+            cell.setBoolean("1".equals(value) || "true".equalsIgnoreCase(value));
+        } else if ("e".equals(cellType)) {
+            cell = newCell(CellType.ERROR);
+            cell.setValue(context.intern(value));
+        } else if ("s".equals(cellType)) {
+            cell = newCell(CellType.STRING);
+            cell.setValue(context.getSharedString(Integer.parseInt(value.trim())));
+        } else if ("inlineStr".equals(cellType) || "str".equals(cellType)) {
+            cell = newCell(CellType.STRING);
+            cell.setValue(context.intern(value));
+        } else if ("d".equals(cellType)) {
+            LocalDateTime dateTime = parseIsoDateTime(value);
+            if (null == dateTime) {
+                cell = newCell(CellType.STRING);
+                cell.setValue(context.intern(value));
+            } else {
+                cell = newCell(CellType.NUMERIC);
+                cell.setLocalDateTime(dateTime, options.getDateTimeFormatter());
+            }
+        } else {
+            if (value.isEmpty()) return isReadBlankCell ? newCell(CellType.BLANK) : null;
+            cell = newCell(CellType.NUMERIC);
+            double numericValue = Double.parseDouble(value);
+            if (context.isDateStyle(styleIndex) && DateUtil.isValidExcelDate(numericValue)) {
+                // 判斷欄位是否為日期格式
+                cell.setLocalDateTime(
+                        DateUtil.getLocalDateTime(numericValue, context.isDate1904()),
+                        options.getDateTimeFormatter());
+            } else {
+                cell.setNumber(numericValue);
+            }
+        }
+        return cell;
+    }
+
+    /**
+     * 解析ISO 8601日期欄位(t="d")的內容
+     *
+     * @param value 欄位內容
+     * @return 日期時間, 無法解析時回傳null
+     */
+    private static LocalDateTime parseIsoDateTime(String value) {
+        String text = value.trim();
+        try {
+            if (text.indexOf('T') >= 0) {
+                return LocalDateTime.parse(text, DateTimeFormatter.ISO_DATE_TIME);
+            }
+            if (text.indexOf(':') >= 0) {
+                // 只有時間時與數值日期相同, 以1899/12/31為日期
+                return LocalTime.parse(text, DateTimeFormatter.ISO_TIME)
+                        .atDate(LocalDate.of(1899, 12, 31));
+            }
+            return LocalDate.parse(text, DateTimeFormatter.ISO_DATE).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private ExcelCell newCell(CellType excelCellType) {
+        if (!options.getReadStyle()) {
+            return new ExcelCell(null, rowNum, columnNum, excelCellType);
+        }
+        return new ExcelCell(
+                null,
+                rowNum,
+                columnNum,
+                excelCellType,
+                context.getStyleTable(),
+                (short) styleIndex);
+    }
+
+    /**
+     * 由欄位代號(如AB12)取得直行(從0開始)
+     *
+     * @param cellRef 欄位代號
+     * @return 直行
+     */
+    private static int parseColumnNum(String cellRef) {
+        int columnNum = 0;
+        for (int i = 0; i < cellRef.length(); i++) {
+            char c = cellRef.charAt(i);
+            if (c < 'A' || c > 'Z') break;
+            columnNum = columnNum * 26 + (c - 'A' + 1);
+        }
+        return columnNum - 1;
+    }
+
+    void close() throws XMLStreamException, IOException {
+        try {
+            xmlReader.close();
+        } finally {
+            sheetInputStream.close();
+        }
+    }
+}
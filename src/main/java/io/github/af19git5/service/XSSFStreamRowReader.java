@@ -0,0 +1,111 @@
+package io.github.af19git5.service;
+
+import io.github.af19git5.entity.ExcelReadOptions;
+import io.github.af19git5.entity.ExcelRow;
+import io.github.af19git5.exception.ExcelException;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * xlsx逐列讀取器(以StAX解析工作表, 呼叫時才解析下一列)
+ *
+ * @author Jimmy Kang
+ */
+class XSSFStreamRowReader implements ExcelRowReader {
+
+    private final OPCPackage opcPackage;
+    private final XSSFReadContext context;
+    private final XSSFReader.SheetIterator sheetIterator;
+    private final ExcelReadOptions options;
+
+    private int sheetIndex = -1;
+    private XSSFSheetParser sheetParser;
+    private boolean finished = false;
+    private boolean closed = false;
+
+    /**
+     * @param opcPackage xlsx檔案(由讀取器負責關閉)
+     * @param options 讀取設定
+     */
+    XSSFStreamRowReader(OPCPackage opcPackage, ExcelReadOptions options) throws ExcelException {
+        this.opcPackage = opcPackage;
+        this.options = options;
+        try {
+            XSSFReader xssfReader = new XSSFReader(opcPackage);
+            this.context = new XSSFReadContext(opcPackage, xssfReader, options);
+            this.sheetIterator = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+        } catch (IOException | OpenXML4JException | SAXException e) {
+            opcPackage.revert();
+            throw new ExcelException(e.getMessage());
+        }
+    }
+
+    @Override
+    public ExcelRow nextRow() throws ExcelException {
+        try {
+            while (!finished) {
+                if (null == sheetParser && !openNextSheet()) {
+                    finished = true;
+                    break;
+                }
+                ExcelRow row = sheetParser.nextRow();
+                if (null != row) return row;
+                closeSheet();
+            }
+        } catch (IOException | XMLStreamException e) {
+            throw new ExcelException(e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * 開啟下一個需讀取的工作表
+     *
+     * @return 是否還有工作表
+     */
+    private boolean openNextSheet() throws IOException, XMLStreamException {
+        while (sheetIterator.hasNext()) {
+            InputStream inputStream = sheetIterator.next();
+            sheetIndex++;
+            if (!options.isSheetSelected(sheetIndex, sheetIterator.getSheetName())) {
+                inputStream.close();
+                continue;
+            }
+            sheetParser =
+                    new XSSFSheetParser(
+                            inputStream, sheetIndex, sheetIterator.getSheetName(), context, false);
+            return true;
+        }
+        return false;
+    }
+
+    private void closeSheet() throws XMLStreamException, IOException {
+        if (null != sheetParser) {
+            XSSFSheetParser parser = sheetParser;
+            sheetParser = null;
+            parser.close();
+        }
+    }
+
+    @Override
+    public void close() throws ExcelException {
+        if (closed) return;
+        closed = true;
+        finished = true;
+        try {
+            closeSheet();
+        } catch (IOException | XMLStreamException e) {
+            throw new ExcelException(e.getMessage());
+        } finally {
+            opcPackage.revert();
+        }
+    }
+}
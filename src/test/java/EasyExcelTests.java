@@ -1,20 +1,52 @@
 import io.github.af19git5.EasyExcel;
+import io.github.af19git5.annotation.ExcelColumn;
 import io.github.af19git5.builder.ExcelStreamWriteBuilder;
 import io.github.af19git5.builder.ExcelWriteBuilder;
 import io.github.af19git5.entity.*;
 import io.github.af19git5.exception.ExcelException;
+import io.github.af19git5.service.CachingExcelReader;
 
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.usermodel.HSSFCellStyle;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.util.LittleEndian;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.net.URISyntaxException;
+import java.math.BigDecimal;
 import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 /**
  * 單元測試
@@ -39,6 +71,8 @@ public class EasyExcelTests {
         System.out.println(xlsSheetList.get(0).toValueList());
         List<ExcelSheet> xlsxSheetList = EasyExcel.read(testXlsxFile);
         System.out.println(xlsxSheetList.get(0).toValueList());
+        // 密碼傳入null時只對應read(File, String)
+        Assertions.assertEquals(xlsxSheetList.size(), EasyExcel.read(testXlsxFile, null).size());
     }
 
 
@@ -58,6 +92,751 @@ public class EasyExcelTests {
         System.out.println(xlsxSheetList);
     }
 
+    /** 測試讀取時相同樣式共用同一個樣式物件 */
+    @Test
+    public void testReadSharedStyle() throws ExcelException {
+        ExcelStyle style =
+                ExcelStyle.init().backgroundColor("#FFF0AC").fontColor("#000079").build();
+        ExcelWriteBuilder excelWriteBuilder =
+                EasyExcel.write()
+                        .addSheet(
+                                ExcelSheet.init()
+                                        .name("工作表1")
+                                        .cells(
+                                                new ExcelCell("測試資料1", 0, 0, style),
+                                                new ExcelCell("測試資料2", 1, 0, style))
+                                        .build());
+        for (byte[] bytes :
+                List.of(excelWriteBuilder.outputXls(), excelWriteBuilder.outputXlsx())) {
+            List<ExcelCell> cellList =
+                    EasyExcel.read(new ByteArrayInputStream(bytes)).get(0).getCellList();
+            Assertions.assertNotNull(cellList.get(0).getStyle().getFontColor());
+            Assertions.assertSame(cellList.get(0).getStyle(), cellList.get(1).getStyle());
+            // 共用的樣式為唯讀, 複製後才可修改
+            ExcelStyle readStyle = cellList.get(0).getStyle();
+            Assertions.assertThrows(
+                    UnsupportedOperationException.class, () -> readStyle.setFontSize(20));
+            ExcelStyle copiedStyle = new ExcelStyle(readStyle);
+            copiedStyle.setFontSize(20);
+            Assertions.assertEquals(20, copiedStyle.getFontSize());
+            Assertions.assertEquals(readStyle.getFontColor(), copiedStyle.getFontColor());
+            Assertions.assertNotEquals(20, readStyle.getFontSize());
+        }
+    }
+
+    /** 測試資料流讀取 */
+    @Test
+    public void testReadStream() throws ExcelException, URISyntaxException, IOException {
+        URL testXlsUrl = EasyExcelTests.class.getResource("test.xls");
+        URL testXlsxUrl = EasyExcelTests.class.getResource("test.xlsx");
+        if (null == testXlsUrl || null == testXlsxUrl) {
+            throw new IOException("查無測試檔案");
+        }
+        File testXlsFile = new File(testXlsUrl.toURI());
+        File testXlsxFile = new File(testXlsxUrl.toURI());
+        for (File testFile : List.of(testXlsFile, testXlsxFile)) {
+            List<ExcelRow> rowList = new ArrayList<>();
+            EasyExcel.readStream(testFile, rowList::add);
+            Assertions.assertFalse(rowList.isEmpty());
+            for (ExcelRow row : rowList) {
+                System.out.println(
+                        row.getSheetName() + " " + row.getRow() + " " + row.getCellList().size());
+            }
+        }
+    }
+
+    /** 測試橫列資料流讀取 */
+    @Test
+    public void testRows() throws ExcelException, URISyntaxException, IOException {
+        URL testXlsUrl = EasyExcelTests.class.getResource("test.xls");
+        URL testXlsxUrl = EasyExcelTests.class.getResource("test.xlsx");
+        if (null == testXlsUrl || null == testXlsxUrl) {
+            throw new IOException("查無測試檔案");
+        }
+        File testXlsFile = new File(testXlsUrl.toURI());
+        File testXlsxFile = new File(testXlsxUrl.toURI());
+        for (File testFile : List.of(testXlsFile, testXlsxFile)) {
+            String sheetName = EasyExcel.read(testFile).get(1).getName();
+            try (Stream<ExcelRow> rows = EasyExcel.rows(testFile, sheetName)) {
+                List<ExcelRow> rowList = rows.limit(2).collect(Collectors.toList());
+                Assertions.assertEquals(2, rowList.size());
+                rowList.forEach(row -> Assertions.assertEquals(sheetName, row.getSheetName()));
+            }
+        }
+    }
+
+    /** 測試讀取設定 */
+    @Test
+    public void testReadOptions() throws ExcelException, URISyntaxException, IOException {
+        URL testXlsUrl = EasyExcelTests.class.getResource("test.xls");
+        URL testXlsxUrl = EasyExcelTests.class.getResource("test.xlsx");
+        if (null == testXlsUrl || null == testXlsxUrl) {
+            throw new IOException("查無測試檔案");
+        }
+        File testXlsFile = new File(testXlsUrl.toURI());
+        File testXlsxFile = new File(testXlsxUrl.toURI());
+        ExcelReadOptions options =
+                ExcelReadOptions.init().sheetIndexes(0).columnRange(0, 1).skipStyle().build();
+        for (File testFile : List.of(testXlsFile, testXlsxFile)) {
+            List<ExcelSheet> sheetList = EasyExcel.readWithOptions(testFile, options);
+            Assertions.assertEquals(1, sheetList.size());
+            for (ExcelCell cell : sheetList.get(0).getCellList()) {
+                Assertions.assertTrue(cell.getColumn() <= 1);
+                Assertions.assertNull(cell.getStyle());
+            }
+            System.out.println(sheetList);
+            List<ExcelRow> rowList = new ArrayList<>();
+            EasyExcel.readStream(testFile, options, rowList::add);
+            Assertions.assertFalse(rowList.isEmpty());
+            for (ExcelRow row : rowList) {
+                Assertions.assertEquals(0, row.getSheetIndex());
+                row.getCellList().forEach(cell -> Assertions.assertTrue(cell.getColumn() <= 1));
+            }
+            // 只讀取部分工作表時的結果與整份讀取相同
+            ExcelSheet projectedSheet =
+                    EasyExcel.readWithOptions(
+                                    testFile, ExcelReadOptions.init().sheetIndexes(1).build())
+                            .get(0);
+            ExcelSheet fullSheet = EasyExcel.read(testFile).get(1);
+            Assertions.assertEquals(fullSheet.getName(), projectedSheet.getName());
+            Assertions.assertEquals(fullSheet.toValueList(), projectedSheet.toValueList());
+            Assertions.assertEquals(
+                    fullSheet.getMergedRegionList().size(),
+                    projectedSheet.getMergedRegionList().size());
+        }
+    }
+
+    /** 測試同時解析工作表 */
+    @Test
+    public void testReadParallel() throws ExcelException, URISyntaxException, IOException {
+        URL testXlsxUrl = EasyExcelTests.class.getResource("test.xlsx");
+        if (null == testXlsxUrl) {
+            throw new IOException("查無測試檔案");
+        }
+        File testXlsxFile = new File(testXlsxUrl.toURI());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<ExcelSheet> sheetList = EasyExcel.read(testXlsxFile);
+            ExcelReadOptions options = ExcelReadOptions.init().parallel(executor).build();
+            List<ExcelSheet> parallelSheetList = EasyExcel.readWithOptions(testXlsxFile, options);
+            Assertions.assertEquals(sheetList.size(), parallelSheetList.size());
+            for (int i = 0; i < sheetList.size(); i++) {
+                ExcelSheet sheet = sheetList.get(i);
+                ExcelSheet parallelSheet = parallelSheetList.get(i);
+                Assertions.assertEquals(sheet.getName(), parallelSheet.getName());
+                Assertions.assertEquals(
+                        sheet.getMergedRegionList().size(),
+                        parallelSheet.getMergedRegionList().size());
+                Assertions.assertEquals(
+                        sheet.getCellList().size(), parallelSheet.getCellList().size());
+                for (int j = 0; j < sheet.getCellList().size(); j++) {
+                    Assertions.assertEquals(
+                            sheet.getCellList().get(j).getValue(),
+                            parallelSheet.getCellList().get(j).getValue());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /** 測試InputStream寫入暫存檔後讀取 */
+    @Test
+    public void testReadSpoolToTempFile() throws ExcelException, URISyntaxException, IOException {
+        URL testXlsUrl = EasyExcelTests.class.getResource("test.xls");
+        URL testXlsxUrl = EasyExcelTests.class.getResource("test.xlsx");
+        if (null == testXlsUrl || null == testXlsxUrl) {
+            throw new IOException("查無測試檔案");
+        }
+        ExcelReadOptions options = ExcelReadOptions.init().spoolToTempFile().build();
+        for (URL testUrl : List.of(testXlsUrl, testXlsxUrl)) {
+            List<ExcelSheet> sheetList = EasyExcel.read(new File(testUrl.toURI()));
+            try (InputStream inputStream = testUrl.openStream()) {
+                List<ExcelSheet> spoolSheetList = EasyExcel.readWithOptions(inputStream, options);
+                Assertions.assertEquals(sheetList.size(), spoolSheetList.size());
+                for (int i = 0; i < sheetList.size(); i++) {
+                    Assertions.assertEquals(
+                            sheetList.get(i).getCellList().size(),
+                            spoolSheetList.get(i).getCellList().size());
+                }
+            }
+            try (InputStream inputStream = testUrl.openStream();
+                    Stream<ExcelRow> rows = EasyExcel.rowsWithOptions(inputStream, options)) {
+                Assertions.assertTrue(rows.findAny().isPresent());
+            }
+        }
+    }
+
+    /** 測試以資料流讀取含圖表工作表的xls */
+    @Test
+    public void testReadStreamXlsChartSheet() throws ExcelException, IOException {
+        byte[] bytes;
+        try (HSSFWorkbook workbook = new HSSFWorkbook();
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            for (String sheetName : List.of("工作表1", "圖表", "工作表3")) {
+                workbook.createSheet(sheetName).createRow(0).createCell(0).setCellValue(sheetName);
+            }
+            workbook.write(outputStream);
+            bytes = outputStream.toByteArray();
+        }
+        // POI無法建立圖表工作表, 直接改寫紀錄: 第二個工作表改為圖表, 第一個工作表內嵌圖表子資料流
+        byte[] workbookBytes;
+        try (POIFSFileSystem fileSystem = new POIFSFileSystem(new ByteArrayInputStream(bytes));
+                InputStream inputStream = fileSystem.createDocumentInputStream("Workbook")) {
+            workbookBytes = inputStream.readAllBytes();
+        }
+        ByteArrayOutputStream recordStream = new ByteArrayOutputStream();
+        int bofCount = 0;
+        for (int offset = 0; offset + 4 <= workbookBytes.length; ) {
+            int sid = LittleEndian.getUShort(workbookBytes, offset);
+            int length = LittleEndian.getUShort(workbookBytes, offset + 2) + 4;
+            byte[] recordBytes = Arrays.copyOfRange(workbookBytes, offset, offset + length);
+            offset += length;
+            if (sid == BOFRecord.sid && ++bofCount == 3) {
+                LittleEndian.putUShort(recordBytes, 6, BOFRecord.TYPE_CHART);
+            }
+            recordStream.write(recordBytes);
+            if (sid == BOFRecord.sid && bofCount == 2) {
+                LittleEndian.putUShort(recordBytes, 6, BOFRecord.TYPE_CHART);
+                recordStream.write(recordBytes);
+                recordStream.write(new byte[] {(byte) EOFRecord.sid, 0, 0, 0});
+            }
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (POIFSFileSystem fileSystem = new POIFSFileSystem(new ByteArrayInputStream(bytes))) {
+            fileSystem.createOrUpdateDocument(
+                    new ByteArrayInputStream(recordStream.toByteArray()), "Workbook");
+            fileSystem.writeFilesystem(outputStream);
+        }
+        bytes = outputStream.toByteArray();
+
+        List<ExcelRow> rowList = new ArrayList<>();
+        EasyExcel.readStream(new ByteArrayInputStream(bytes), rowList::add);
+        Assertions.assertEquals(2, rowList.size());
+        Assertions.assertEquals(0, rowList.get(0).getSheetIndex());
+        Assertions.assertEquals("工作表1", rowList.get(0).getSheetName());
+        Assertions.assertEquals("工作表1", rowList.get(0).getCellList().get(0).getValue());
+        Assertions.assertEquals(2, rowList.get(1).getSheetIndex());
+        Assertions.assertEquals("工作表3", rowList.get(1).getSheetName());
+        Assertions.assertEquals("工作表3", rowList.get(1).getCellList().get(0).getValue());
+
+        rowList.clear();
+        EasyExcel.readStream(
+                new ByteArrayInputStream(bytes),
+                ExcelReadOptions.init().sheetIndexes(2).build(),
+                rowList::add);
+        Assertions.assertEquals(1, rowList.size());
+        Assertions.assertEquals("工作表3", rowList.get(0).getSheetName());
+    }
+
+    /** 測試讀取原始數值 */
+    @Test
+    public void testReadTypedValue() throws ExcelException {
+        ExcelWriteBuilder excelWriteBuilder =
+                EasyExcel.write()
+                        .addSheet(
+                                ExcelSheet.init()
+                                        .name("工作表1")
+                                        .cells(
+                                                new ExcelCell("12.5", 0, 0, CellType.NUMERIC),
+                                                new ExcelCell("true", 0, 1, CellType.BOOLEAN))
+                                        .build());
+        for (byte[] bytes :
+                List.of(excelWriteBuilder.outputXls(), excelWriteBuilder.outputXlsx())) {
+            List<ExcelCell> cellList =
+                    EasyExcel.readWithOptions(
+                                    new ByteArrayInputStream(bytes),
+                                    ExcelReadOptions.init().skipStyle().build())
+                            .get(0)
+                            .getCellList();
+            Assertions.assertEquals(12.5, cellList.get(0).getNumber());
+            Assertions.assertEquals("12.5", cellList.get(0).getValue());
+            Assertions.assertTrue(cellList.get(1).getBoolean());
+            Assertions.assertEquals("TRUE", cellList.get(1).getValue());
+            List<ExcelRow> rowList = new ArrayList<>();
+            EasyExcel.readStream(new ByteArrayInputStream(bytes), rowList::add);
+            Assertions.assertEquals(12.5, rowList.get(0).getCellList().get(0).getNumber());
+            Assertions.assertTrue(rowList.get(0).getCellList().get(1).getBoolean());
+        }
+    }
+
+    /** 測試讀取1904日期基準的xlsx */
+    @Test
+    public void testReadDate1904() throws ExcelException, IOException {
+        byte[] bytes;
+        try (XSSFWorkbook workbook = new XSSFWorkbook();
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            workbook.getCTWorkbook().getWorkbookPr().setDate1904(true);
+            XSSFCellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(
+                    workbook.getCreationHelper().createDataFormat().getFormat("yyyy/mm/dd"));
+            Cell cell = workbook.createSheet("工作表1").createRow(0).createCell(0);
+            cell.setCellValue(LocalDateTime.of(2024, 1, 2, 0, 0));
+            cell.setCellStyle(dateStyle);
+            workbook.write(outputStream);
+            bytes = outputStream.toByteArray();
+        }
+        LocalDateTime expected = LocalDateTime.of(2024, 1, 2, 0, 0);
+        Assertions.assertEquals(
+                expected,
+                EasyExcel.read(new ByteArrayInputStream(bytes))
+                        .get(0)
+                        .getCellList()
+                        .get(0)
+                        .getLocalDateTime());
+        List<ExcelRow> rowList = new ArrayList<>();
+        EasyExcel.readStream(new ByteArrayInputStream(bytes), rowList::add);
+        Assertions.assertEquals(
+                expected, rowList.get(0).getCellList().get(0).getLocalDateTime());
+    }
+
+    /** 測試讀取ISO 8601日期欄位(t="d")的xlsx */
+    @Test
+    public void testReadIsoDateCell() throws ExcelException, IOException {
+        byte[] bytes;
+        try (XSSFWorkbook workbook = new XSSFWorkbook();
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            XSSFRow row = workbook.createSheet("工作表1").createRow(0);
+            for (int i = 0; i < 4; i++) {
+                row.createCell(i).setCellValue(i);
+            }
+            workbook.write(outputStream);
+            bytes = outputStream.toByteArray();
+        }
+        // POI無法寫入t="d"欄位, 直接改寫工作表內容
+        String[] valueArray = {"2024-01-02T03:04:05", "2024-01-02", "12:30:00", "不是日期"};
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(bytes));
+                ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+            ZipEntry entry;
+            while (null != (entry = zipInputStream.getNextEntry())) {
+                byte[] entryBytes = zipInputStream.readAllBytes();
+                if ("xl/worksheets/sheet1.xml".equals(entry.getName())) {
+                    String xml = new String(entryBytes, StandardCharsets.UTF_8);
+                    for (int i = 0; i < valueArray.length; i++) {
+                        xml =
+                                xml.replaceFirst(
+                                        "<c r=\"" + (char) ('A' + i) + "1\"[^>]*>.*?</c>",
+                                        "<c r=\""
+                                                + (char) ('A' + i)
+                                                + "1\" t=\"d\"><v>"
+                                                + valueArray[i]
+                                                + "</v></c>");
+                    }
+                    entryBytes = xml.getBytes(StandardCharsets.UTF_8);
+                }
+                zipOutputStream.putNextEntry(new ZipEntry(entry.getName()));
+                zipOutputStream.write(entryBytes);
+                zipOutputStream.closeEntry();
+            }
+        }
+        bytes = outputStream.toByteArray();
+        List<ExcelRow> rowList = new ArrayList<>();
+        EasyExcel.readStream(new ByteArrayInputStream(bytes), rowList::add);
+        List<ExcelCell> cellList = rowList.get(0).getCellList();
+        Assertions.assertEquals(
+                LocalDateTime.of(2024, 1, 2, 3, 4, 5), cellList.get(0).getLocalDateTime());
+        Assertions.assertEquals(
+                LocalDateTime.of(2024, 1, 2, 0, 0), cellList.get(1).getLocalDateTime());
+        Assertions.assertEquals(
+                LocalDateTime.of(1899, 12, 31, 12, 30), cellList.get(2).getLocalDateTime());
+        Assertions.assertEquals(CellType.STRING, cellList.get(3).getCellType());
+        Assertions.assertEquals("不是日期", cellList.get(3).getValue());
+    }
+
+    /** 測試稀疏模式讀取 */
+    @Test
+    public void testReadSparse() throws ExcelException {
+        ExcelWriteBuilder excelWriteBuilder =
+                EasyExcel.write()
+                        .addSheet(
+                                ExcelSheet.init()
+                                        .name("工作表1")
+                                        .cells(
+                                                new ExcelCell("A", 0, 0),
+                                                new ExcelCell("B", 0, 50),
+                                                new ExcelCell("C", 2, 10))
+                                        .build());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (ExcelReadOptions options :
+                    List.of(
+                            ExcelReadOptions.init().sparse().skipStyle().build(),
+                            ExcelReadOptions.init()
+                                    .sparse()
+                                    .skipStyle()
+                                    .parallel(executor)
+                                    .build())) {
+                for (byte[] bytes :
+                        List.of(excelWriteBuilder.outputXls(), excelWriteBuilder.outputXlsx())) {
+                    List<ExcelCell> cellList =
+                            EasyExcel.readWithOptions(new ByteArrayInputStream(bytes), options)
+                                    .get(0)
+                                    .getCellList();
+                    Assertions.assertEquals(3, cellList.size());
+                    Assertions.assertEquals("B", cellList.get(1).getValue());
+                    Assertions.assertEquals(50, cellList.get(1).getColumn());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        List<ExcelRow> rowList = new ArrayList<>();
+        EasyExcel.readStream(
+                new ByteArrayInputStream(excelWriteBuilder.outputXlsx()), rowList::add);
+        ExcelRow row = rowList.get(0);
+        Assertions.assertEquals("B", row.getValue(50));
+        Assertions.assertEquals("", row.getValue(10));
+        Assertions.assertTrue(row.isBlank(10));
+        Assertions.assertNull(row.getCell(10));
+        Assertions.assertFalse(row.isBlank(0));
+    }
+
+    /** 測試欄式欄位資料讀取 */
+    @Test
+    public void testReadColumnar() throws ExcelException, URISyntaxException, IOException {
+        URL testXlsxUrl = EasyExcelTests.class.getResource("test.xlsx");
+        if (null == testXlsxUrl) {
+            throw new IOException("查無測試檔案");
+        }
+        File testXlsxFile = new File(testXlsxUrl.toURI());
+        List<ExcelSheet> sheetList = EasyExcel.read(testXlsxFile);
+        List<ExcelSheet> columnarSheetList =
+                EasyExcel.readWithOptions(testXlsxFile, ExcelReadOptions.init().columnar().build());
+        for (int i = 0; i < sheetList.size(); i++) {
+            Assertions.assertEquals(
+                    sheetList.get(i).toValueList(), columnarSheetList.get(i).toValueList());
+        }
+        List<ExcelCell> cellList = columnarSheetList.get(0).getCellList();
+        Assertions.assertSame(cellList.get(0).getStyle(), cellList.get(0).getStyle());
+        cellList.set(0, new ExcelCell("修改", 0, 0));
+        Assertions.assertEquals("修改", cellList.get(0).getValue());
+
+        LocalDateTime dateTime = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+        ExcelCell dateCell = new ExcelCell(null, 1, 0, CellType.NUMERIC);
+        dateCell.setLocalDateTime(dateTime, ExcelReadOptions.DEFAULT_DATE_TIME_FORMATTER);
+        ExcelCell numberCell = new ExcelCell(null, 1, 1, CellType.NUMERIC);
+        numberCell.setNumber(12.5);
+        cellList.add(dateCell);
+        cellList.add(numberCell);
+        Assertions.assertEquals(dateTime, cellList.get(cellList.size() - 2).getLocalDateTime());
+        Assertions.assertEquals(
+                "2024-01-02 03:04:05", cellList.get(cellList.size() - 2).getValue());
+        Assertions.assertEquals(12.5, cellList.get(cellList.size() - 1).getNumber());
+        EasyExcel.write().addSheet(columnarSheetList.get(0)).outputXlsx();
+    }
+
+    /** 測試欄式欄位資料超過記憶體上限時改存暫存檔 */
+    @Test
+    public void testReadSpillToDisk() throws ExcelException, URISyntaxException, IOException {
+        URL testXlsxUrl = EasyExcelTests.class.getResource("test.xlsx");
+        if (null == testXlsxUrl) {
+            throw new IOException("查無測試檔案");
+        }
+        File testXlsxFile = new File(testXlsxUrl.toURI());
+        List<ExcelSheet> sheetList = EasyExcel.read(testXlsxFile);
+        List<ExcelSheet> spilledSheetList =
+                EasyExcel.readWithOptions(
+                        testXlsxFile, ExcelReadOptions.init().spillToDisk(1).build());
+        for (int i = 0; i < sheetList.size(); i++) {
+            Assertions.assertEquals(
+                    sheetList.get(i).toValueList(), spilledSheetList.get(i).toValueList());
+        }
+        spilledSheetList.forEach(ExcelSheet::close);
+        for (ExcelSheet sheet : spilledSheetList) {
+            Assertions.assertTrue(sheet.estimateHeapBytes() > 0);
+        }
+
+        int cellCount = 70_000;
+        try (ExcelColumnarCellList cellList = new ExcelColumnarCellList(null, null, 1, null)) {
+            for (int i = 0; i < cellCount; i++) {
+                cellList.add(new ExcelCell("值" + i, i, 0));
+            }
+            Assertions.assertTrue(cellList.isSpilled());
+            cellList.set(1, new ExcelCell("修改", 1, 0));
+            Assertions.assertEquals("值0", cellList.get(0).getValue());
+            Assertions.assertEquals("修改", cellList.get(1).getValue());
+            Assertions.assertEquals(
+                    "值" + (cellCount - 1), cellList.get(cellCount - 1).getValue());
+            Assertions.assertEquals(cellCount - 1, cellList.get(cellCount - 1).getRow());
+            ExcelSheet sheet = new ExcelSheet("工作表1", cellList);
+            Assertions.assertEquals("值500", sheet.getCell(500, 0).getValue());
+        }
+
+        // 字串池計入記憶體上限
+        try (ExcelColumnarCellList cellList =
+                new ExcelColumnarCellList(null, null, 64 * 1024, null)) {
+            for (int i = 0; i < 100; i++) {
+                cellList.add(new ExcelCell("長字串".repeat(1000) + i, i, 0));
+            }
+            Assertions.assertTrue(cellList.isSpilled());
+            Assertions.assertEquals("長字串".repeat(1000) + 99, cellList.get(99).getValue());
+        }
+    }
+
+    /** 測試讀取時重複字串共用同一物件 */
+    @Test
+    public void testReadSharedString() throws ExcelException {
+        ExcelWriteBuilder excelWriteBuilder =
+                EasyExcel.write()
+                        .addSheet(
+                                ExcelSheet.init()
+                                        .name("工作表1")
+                                        .cells(
+                                                new ExcelCell("分類A", 0, 0),
+                                                new ExcelCell("分類A", 1, 0),
+                                                new ExcelCell("1+1", 0, 1, CellType.FORMULA),
+                                                new ExcelCell("1+1", 1, 1, CellType.FORMULA))
+                                        .build());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (ExcelReadOptions options :
+                    List.of(
+                            ExcelReadOptions.init().skipStyle().internStrings(100).build(),
+                            ExcelReadOptions.init()
+                                    .skipStyle()
+                                    .internStrings(100)
+                                    .parallel(executor)
+                                    .build())) {
+                for (byte[] bytes :
+                        List.of(excelWriteBuilder.outputXls(), excelWriteBuilder.outputXlsx())) {
+                    ExcelSheet sheet =
+                            EasyExcel.readWithOptions(new ByteArrayInputStream(bytes), options)
+                                    .get(0);
+                    Assertions.assertSame(
+                            sheet.getCell(0, 0).getValue(), sheet.getCell(1, 0).getValue());
+                    Assertions.assertSame(
+                            sheet.getCell(0, 1).getValue(), sheet.getCell(1, 1).getValue());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        List<ExcelRow> rowList = new ArrayList<>();
+        EasyExcel.readStream(
+                new ByteArrayInputStream(excelWriteBuilder.outputXlsx()), rowList::add);
+        Assertions.assertSame(rowList.get(0).getValue(0), rowList.get(1).getValue(0));
+    }
+
+    /** 測試物件欄位對應讀寫 */
+    @Test
+    public void testBeanBinding() throws ExcelException {
+        TestBean bean = new TestBean();
+        bean.name = "測試";
+        bean.amount = 12;
+        bean.price = new BigDecimal("3.25");
+        bean.enabled = true;
+        bean.createdAt = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+        ExcelWriteBuilder excelWriteBuilder =
+                EasyExcel.write().addRows(List.of(bean, new TestBean()), TestBean.class);
+        for (byte[] bytes :
+                List.of(excelWriteBuilder.outputXls(), excelWriteBuilder.outputXlsx())) {
+            List<TestBean> beanList =
+                    EasyExcel.readBeans(new ByteArrayInputStream(bytes), TestBean.class);
+            Assertions.assertEquals(2, beanList.size());
+            Assertions.assertEquals("測試", beanList.get(0).name);
+            Assertions.assertEquals(12, beanList.get(0).amount);
+            Assertions.assertEquals(0, new BigDecimal("3.25").compareTo(beanList.get(0).price));
+            Assertions.assertTrue(beanList.get(0).enabled);
+            Assertions.assertEquals(bean.createdAt, beanList.get(0).createdAt);
+            Assertions.assertNull(beanList.get(1).name);
+            Assertions.assertEquals(0, beanList.get(1).amount);
+            // 日期欄位寫入為日期數值
+            ExcelCell dateCell =
+                    EasyExcel.read(new ByteArrayInputStream(bytes)).get(0).getCell(1, 4);
+            Assertions.assertEquals(CellType.NUMERIC, dateCell.getCellType());
+            Assertions.assertEquals(bean.createdAt, dateCell.getLocalDateTime());
+        }
+        // 超出欄位類別範圍或有小數時不截斷數值
+        for (String value : List.of("3000000000", "1.5")) {
+            byte[] bytes =
+                    EasyExcel.write()
+                            .addSheet(
+                                    ExcelSheet.init()
+                                            .name("工作表1")
+                                            .cells(
+                                                    new ExcelCell("數量", 0, 3),
+                                                    new ExcelCell(value, 1, 3, CellType.NUMERIC))
+                                            .build())
+                            .outputXlsx();
+            Assertions.assertThrows(
+                    ExcelException.class,
+                    () -> EasyExcel.readBeans(new ByteArrayInputStream(bytes), TestBean.class));
+        }
+    }
+
+    /** 物件欄位對應測試資料 */
+    public static class TestBean {
+
+        @ExcelColumn("名稱")
+        private String name;
+
+        @ExcelColumn(value = "數量", index = 3)
+        private int amount;
+
+        @ExcelColumn("價格")
+        private BigDecimal price;
+
+        @ExcelColumn("啟用")
+        private Boolean enabled;
+
+        @ExcelColumn("建立時間")
+        private LocalDateTime createdAt;
+    }
+
+    /** 測試工作表快照寫出及載入 */
+    @Test
+    public void testSnapshot() throws ExcelException, URISyntaxException, IOException {
+        URL testXlsxUrl = EasyExcelTests.class.getResource("test.xlsx");
+        if (null == testXlsxUrl) {
+            throw new IOException("查無測試檔案");
+        }
+        List<ExcelSheet> sheetList = EasyExcel.read(new File(testXlsxUrl.toURI()));
+        ExcelCell numberCell = new ExcelCell(null, 100, 0, CellType.NUMERIC);
+        numberCell.setNumber(12.5);
+        ExcelCell dateCell = new ExcelCell(null, 100, 1, CellType.NUMERIC);
+        LocalDateTime dateTime = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+        dateCell.setLocalDateTime(dateTime, ExcelReadOptions.DEFAULT_DATE_TIME_FORMATTER);
+        sheetList.get(0).getCellList().add(numberCell);
+        sheetList.get(0).getCellList().add(dateCell);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        EasyExcel.writeSnapshot(sheetList, outputStream);
+        System.out.println("快照大小: " + outputStream.size());
+        List<ExcelSheet> snapshotSheetList =
+                EasyExcel.readSnapshot(new ByteArrayInputStream(outputStream.toByteArray()));
+        Assertions.assertEquals(sheetList.size(), snapshotSheetList.size());
+        for (int i = 0; i < sheetList.size(); i++) {
+            ExcelSheet sheet = sheetList.get(i);
+            ExcelSheet snapshotSheet = snapshotSheetList.get(i);
+            Assertions.assertEquals(sheet.getName(), snapshotSheet.getName());
+            Assertions.assertEquals(sheet.toValueList(), snapshotSheet.toValueList());
+            Assertions.assertEquals(
+                    sheet.getMergedRegionList().size(), snapshotSheet.getMergedRegionList().size());
+            ExcelStyle style = sheet.getCellList().get(0).getStyle();
+            ExcelStyle snapshotStyle = snapshotSheet.getCellList().get(0).getStyle();
+            Assertions.assertEquals(style.getFontName(), snapshotStyle.getFontName());
+            Assertions.assertEquals(style.getBackgroundColor(), snapshotStyle.getBackgroundColor());
+            Assertions.assertEquals(style.getBorderTop(), snapshotStyle.getBorderTop());
+        }
+        ExcelSheet snapshotSheet = snapshotSheetList.get(0);
+        Assertions.assertEquals(12.5, snapshotSheet.getCell(100, 0).getNumber());
+        Assertions.assertEquals(dateTime, snapshotSheet.getCell(100, 1).getLocalDateTime());
+        Assertions.assertThrows(
+                ExcelException.class,
+                () -> EasyExcel.readSnapshot(new ByteArrayInputStream(new byte[] {1, 2, 3})));
+    }
+
+    /** 測試讀取快取 */
+    @Test
+    public void testCachingReader() throws Exception {
+        URL testXlsxUrl = EasyExcelTests.class.getResource("test.xlsx");
+        if (null == testXlsxUrl) {
+            throw new IOException("查無測試檔案");
+        }
+        File testXlsxFile = new File(testXlsxUrl.toURI());
+        CachingExcelReader cachingReader = new CachingExcelReader(64L * 1024 * 1024);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<ExcelSheet>>> futureList = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futureList.add(executorService.submit(() -> cachingReader.read(testXlsxFile)));
+            }
+            List<ExcelSheet> sheetList = futureList.get(0).get();
+            for (Future<List<ExcelSheet>> future : futureList) {
+                Assertions.assertSame(sheetList, future.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        Assertions.assertEquals(1, cachingReader.getMissCount());
+        Assertions.assertTrue(cachingReader.getHeapBytes() > 0);
+
+        byte[] bytes = Files.readAllBytes(testXlsxFile.toPath());
+        List<ExcelSheet> streamSheetList = cachingReader.read(new ByteArrayInputStream(bytes));
+        Assertions.assertSame(
+                streamSheetList, cachingReader.read(new ByteArrayInputStream(bytes)));
+        Assertions.assertEquals(2, cachingReader.getMissCount());
+
+        cachingReader.invalidate(testXlsxFile);
+        cachingReader.read(testXlsxFile);
+        Assertions.assertEquals(3, cachingReader.getMissCount());
+
+        CachingExcelReader smallCachingReader = new CachingExcelReader(1);
+        Assertions.assertNotSame(
+                smallCachingReader.read(testXlsxFile), smallCachingReader.read(testXlsxFile));
+        Assertions.assertEquals(0, smallCachingReader.getHeapBytes());
+    }
+
+    /** 測試以橫列、直行取得欄位 */
+    @Test
+    public void testSheetCellLookup() {
+        ExcelSheet sheet =
+                ExcelSheet.init()
+                        .name("工作表1")
+                        .cells(
+                                new ExcelCell("B", 0, 1),
+                                new ExcelCell("A", 0, 0),
+                                new ExcelCell("C", 3, 2))
+                        .build();
+        Assertions.assertEquals("A", sheet.getCell(0, 0).getValue());
+        Assertions.assertEquals("C", sheet.getCell(3, 2).getValue());
+        Assertions.assertNull(sheet.getCell(1, 1));
+        Assertions.assertEquals(
+                List.of("A", "B"),
+                sheet.getRow(0).stream().map(ExcelCell::getValue).collect(Collectors.toList()));
+        Assertions.assertTrue(sheet.getRow(2).isEmpty());
+        Assertions.assertEquals(
+                List.of(
+                        List.of("A", "B", ""),
+                        List.of("", "", ""),
+                        List.of("", "", ""),
+                        List.of("", "", "C")),
+                sheet.toValueList());
+        Assertions.assertArrayEquals(new String[] {"", "", "C"}, sheet.toValueArray()[3]);
+        List<List<String>> valueList = sheet.toValueList();
+        valueList.remove(0);
+        valueList.get(0).set(0, "X");
+        Assertions.assertEquals(3, valueList.size());
+        List<List<String>> valueListView = sheet.toValueListView();
+        Assertions.assertEquals(sheet.toValueList(), valueListView);
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> valueListView.remove(0));
+
+        // 透過欄位清單修改後索引同步更新
+        sheet.getCellList().add(new ExcelCell("D", 1, 1));
+        Assertions.assertEquals("D", sheet.getCell(1, 1).getValue());
+        Assertions.assertEquals("D", valueListView.get(1).get(1));
+        sheet.getCellList().set(0, new ExcelCell("E", 2, 2));
+        Assertions.assertNull(sheet.getCell(0, 1));
+        Assertions.assertEquals("E", sheet.getCell(2, 2).getValue());
+        sheet.getCell(3, 2).setRow(4);
+        Assertions.assertEquals("C", sheet.getCell(4, 2).getValue());
+        Assertions.assertNull(sheet.getCell(3, 2));
+        sheet.getCell(4, 2).setRow(6);
+        Assertions.assertEquals("C", sheet.getRow(6).get(0).getValue());
+        Assertions.assertEquals("C", sheet.toValueArray()[6][2]);
+
+        // 新增於尾端的欄位直接加入索引
+        for (int i = 0; i < 2000; i++) {
+            sheet.getCellList().add(new ExcelCell("F" + i, 10 + i, 3 - i % 4));
+            Assertions.assertEquals("F" + i, sheet.getCell(10 + i, 3 - i % 4).getValue());
+        }
+        sheet.getCellList().add(new ExcelCell("G", 10, 0));
+        Assertions.assertEquals(
+                List.of("G", "F0"),
+                sheet.getRow(10).stream().map(ExcelCell::getValue).collect(Collectors.toList()));
+
+        // 同一欄位屬於多個工作表時, 修改位置後各工作表皆可找到
+        ExcelCell sharedCell = new ExcelCell("H", 0, 0);
+        ExcelSheet firstSheet = ExcelSheet.init().name("工作表1").cells(sharedCell).build();
+        ExcelSheet secondSheet = ExcelSheet.init().name("工作表2").cells(sharedCell).build();
+        Assertions.assertSame(sharedCell, firstSheet.getCell(0, 0));
+        Assertions.assertSame(sharedCell, secondSheet.getCell(0, 0));
+        sharedCell.setColumn(5);
+        Assertions.assertSame(sharedCell, firstSheet.getCell(0, 5));
+        Assertions.assertSame(sharedCell, secondSheet.getCell(0, 5));
+    }
+
     /** 測試寫出 */
     @Test
     public void testWrite() throws ExcelException {
@@ -88,6 +867,274 @@ public class EasyExcelTests {
         excelWriteBuilder.outputXlsx(TEST_OUTPUT_PATH + "test.xlsx");
     }
 
+    /** 測試寫出至OutputStream及WritableByteChannel */
+    @Test
+    public void testWriteOutputStream() throws ExcelException, IOException {
+        ExcelWriteBuilder excelWriteBuilder =
+                EasyExcel.write()
+                        .addSheet(
+                                ExcelSheet.init()
+                                        .name("工作表1")
+                                        .cells(
+                                                new ExcelCell("資料1", 0, 0),
+                                                new ExcelCell("資料2", 1, 1))
+                                        .build());
+        ByteArrayOutputStream xlsOutputStream = new ByteArrayOutputStream();
+        excelWriteBuilder.outputXls(xlsOutputStream);
+        ByteArrayOutputStream xlsxOutputStream = new ByteArrayOutputStream();
+        excelWriteBuilder.outputXlsx(Channels.newChannel(xlsxOutputStream));
+        ByteArrayOutputStream streamOutputStream = new ByteArrayOutputStream();
+        try (ExcelStreamWriteBuilder writeBuilder = EasyExcel.writeStream()) {
+            writeBuilder
+                    .createSheet("sheet", "工作表1")
+                    .cells("sheet", new ExcelStreamCell("資料1", 0, 0))
+                    .flush("sheet")
+                    .outputXlsx(streamOutputStream);
+        }
+        for (byte[] bytes :
+                List.of(
+                        xlsOutputStream.toByteArray(),
+                        xlsxOutputStream.toByteArray(),
+                        streamOutputStream.toByteArray())) {
+            List<ExcelSheet> sheetList =
+                    EasyExcel.readWithOptions(
+                            new ByteArrayInputStream(bytes),
+                            ExcelReadOptions.init().skipStyle().build());
+            Assertions.assertEquals("工作表1", sheetList.get(0).getName());
+            Assertions.assertEquals("資料1", sheetList.get(0).getCell(0, 0).getValue());
+        }
+    }
+
+    /** 測試內容相同的樣式共用同一個workbook樣式 */
+    @Test
+    public void testWriteStyleRegistry() throws ExcelException, IOException {
+        List<ExcelCell> cellList = new ArrayList<>();
+        for (int rowNum = 0; rowNum < 200; rowNum++) {
+            ExcelStyle style =
+                    ExcelStyle.init()
+                            .border(BorderStyle.THIN, rowNum % 2 == 0 ? "#d3526f" : "#D3526F")
+                            .backgroundColor("#FFF0AC")
+                            .bold()
+                            .build();
+            cellList.add(new ExcelCell("資料" + rowNum, rowNum, 0, style));
+        }
+        ExcelWriteBuilder excelWriteBuilder =
+                EasyExcel.write().addSheet(new ExcelSheet("工作表1", cellList));
+        // 同一建構器重複輸出時各workbook使用各自的樣式
+        excelWriteBuilder.outputXlsx();
+        try (XSSFWorkbook workbook =
+                new XSSFWorkbook(new ByteArrayInputStream(excelWriteBuilder.outputXlsx()))) {
+            Assertions.assertEquals(2, workbook.getNumCellStyles());
+        }
+        excelWriteBuilder.outputXls();
+        try (HSSFWorkbook workbook =
+                new HSSFWorkbook(new ByteArrayInputStream(excelWriteBuilder.outputXls()))) {
+            HSSFCellStyle style = workbook.getSheetAt(0).getRow(0).getCell(0).getCellStyle();
+            for (int rowNum = 1; rowNum < 200; rowNum++) {
+                Assertions.assertEquals(
+                        style.getIndex(),
+                        workbook.getSheetAt(0).getRow(rowNum).getCell(0).getCellStyle().getIndex());
+            }
+        }
+    }
+
+    /** 測試字體相同的樣式共用同一個字體 */
+    @Test
+    public void testWriteFontRegistry() throws ExcelException, IOException {
+        List<ExcelCell> cellList = new ArrayList<>();
+        for (int rowNum = 0; rowNum < 50; rowNum++) {
+            ExcelStyle style =
+                    ExcelStyle.init()
+                            .backgroundColor(String.format("#%02X%02X%02X", rowNum, 0, 0))
+                            .fontName("Arial")
+                            .fontColor("#000079")
+                            .bold()
+                            .build();
+            cellList.add(new ExcelCell("資料" + rowNum, rowNum, 0, style));
+        }
+        ExcelWriteBuilder excelWriteBuilder =
+                EasyExcel.write().addSheet(new ExcelSheet("工作表1", cellList));
+        int xlsxFontCount;
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            xlsxFontCount = workbook.getNumberOfFonts();
+        }
+        try (XSSFWorkbook workbook =
+                new XSSFWorkbook(new ByteArrayInputStream(excelWriteBuilder.outputXlsx()))) {
+            Assertions.assertEquals(51, workbook.getNumCellStyles());
+            Assertions.assertEquals(xlsxFontCount + 1, workbook.getNumberOfFonts());
+        }
+        int xlsFontCount;
+        try (HSSFWorkbook workbook = new HSSFWorkbook()) {
+            xlsFontCount = workbook.getNumberOfFonts();
+        }
+        try (HSSFWorkbook workbook =
+                new HSSFWorkbook(new ByteArrayInputStream(excelWriteBuilder.outputXls()))) {
+            Assertions.assertEquals(xlsFontCount + 1, workbook.getNumberOfFonts());
+        }
+    }
+
+    /** 測試寫出及讀取xls樣式顏色 */
+    @Test
+    public void testWriteColor() throws ExcelException {
+        Assertions.assertTrue(ExcelColors.isValidColorHex("#FFF0AC"));
+        Assertions.assertFalse(ExcelColors.isValidColorHex("FFF0AC"));
+        Assertions.assertEquals(0xFFF0AC, ExcelColors.toRgb("#FFF0AC"));
+        Assertions.assertEquals("#FF00AC", ExcelColors.toColorHex(new short[] {255, 0, 172}));
+        Assertions.assertEquals("#FFAA00", ExcelColors.normalizeColorHex("#fa0"));
+        Assertions.assertEquals(
+                ExcelStyle.init().fontColor("#ffffff").build().toStyleKey(),
+                ExcelStyle.init().fontColor("#FFF").build().toStyleKey());
+
+        ExcelStyle style =
+                ExcelStyle.init()
+                        .border(BorderStyle.THIN, "#FF0000")
+                        .backgroundColor("#FFFF00")
+                        .fontColor("#00F")
+                        .build();
+        ExcelWriteBuilder excelWriteBuilder =
+                EasyExcel.write()
+                        .addSheet(
+                                ExcelSheet.init()
+                                        .name("工作表1")
+                                        .cells(
+                                                new ExcelCell("資料1", 0, 0, style),
+                                                new ExcelCell("資料2", 1, 0))
+                                        .build());
+        for (byte[] bytes :
+                List.of(excelWriteBuilder.outputXls(), excelWriteBuilder.outputXlsx())) {
+            ExcelSheet sheet = EasyExcel.read(new ByteArrayInputStream(bytes)).get(0);
+            ExcelStyle readStyle = sheet.getCell(0, 0).getStyle();
+            Assertions.assertEquals("#FF0000", readStyle.getBorderTopColor());
+            Assertions.assertEquals("#FFFF00", readStyle.getBackgroundColor());
+            Assertions.assertEquals("#0000FF", readStyle.getFontColor());
+            Assertions.assertNotNull(sheet.getCell(1, 0).getStyle());
+        }
+    }
+
+    /** 測試合併區塊邊線樣式共用且只設定外框欄位 */
+    @Test
+    public void testWriteMergedRegionBorder() throws ExcelException, IOException {
+        ExcelSheet sheet = ExcelSheet.init().name("工作表1").cellList(new ArrayList<>()).build();
+        for (int i = 0; i < 100; i++) {
+            sheet.getCellList().add(new ExcelCell("區塊" + i, i * 4, 0));
+            sheet.getMergedRegionList()
+                    .add(
+                            ExcelMergedRegion.init(i * 4, i * 4 + 2, 0, 3)
+                                    .border(BorderStyle.THIN, "#FF0000")
+                                    .build());
+        }
+        ExcelWriteBuilder excelWriteBuilder = EasyExcel.write().addSheet(sheet);
+        try (XSSFWorkbook workbook =
+                new XSSFWorkbook(new ByteArrayInputStream(excelWriteBuilder.outputXlsx()))) {
+            XSSFSheet xssfSheet = workbook.getSheetAt(0);
+            Assertions.assertEquals(2, workbook.getNumCellStyles());
+            Assertions.assertEquals(
+                    BorderStyle.THIN,
+                    xssfSheet.getRow(2).getCell(3).getCellStyle().getBorderRight());
+            Assertions.assertNull(xssfSheet.getRow(1).getCell(1));
+        }
+        int xlsStyleCount;
+        try (HSSFWorkbook workbook = new HSSFWorkbook()) {
+            xlsStyleCount = workbook.getNumCellStyles();
+        }
+        try (HSSFWorkbook workbook =
+                new HSSFWorkbook(new ByteArrayInputStream(excelWriteBuilder.outputXls()))) {
+            Assertions.assertEquals(xlsStyleCount + 1, workbook.getNumCellStyles());
+        }
+    }
+
+    /** 測試合併區塊重疊檢查 */
+    @Test
+    public void testWriteMergedRegionOverlap() throws ExcelException {
+        Date startTime = new Date();
+        ExcelSheet sheet = ExcelSheet.init().name("工作表1").cellList(new ArrayList<>()).build();
+        for (int i = 0; i < 20000; i++) {
+            int firstColumn = (i % 2) * 2;
+            sheet.getMergedRegionList()
+                    .add(ExcelMergedRegion.init(i, i, firstColumn, firstColumn + 1).build());
+        }
+        Assertions.assertNotNull(EasyExcel.write().addSheet(sheet).outputXls());
+        Date endTime = new Date();
+        System.out.println(
+                "測試合併區塊重疊檢查，耗時" + (endTime.getTime() - startTime.getTime()) + "ms");
+
+        sheet.getMergedRegionList().add(ExcelMergedRegion.init(100, 102, 1, 1).build());
+        ExcelWriteBuilder excelWriteBuilder = EasyExcel.write().addSheet(sheet);
+        Assertions.assertThrows(IllegalStateException.class, excelWriteBuilder::outputXls);
+        Assertions.assertThrows(IllegalStateException.class, excelWriteBuilder::outputXlsx);
+
+        // 跨行較多的區塊與一般區塊混合時仍可檢查重疊
+        ExcelSheet wideSheet =
+                ExcelSheet.init().name("工作表1").cellList(new ArrayList<>()).build();
+        wideSheet.getMergedRegionList().add(ExcelMergedRegion.init(0, 0, 0, 200).build());
+        wideSheet.getMergedRegionList().add(ExcelMergedRegion.init(1, 1, 0, 1).build());
+        Assertions.assertNotNull(EasyExcel.write().addSheet(wideSheet).outputXlsx());
+        wideSheet.getMergedRegionList().add(ExcelMergedRegion.init(0, 1, 150, 151).build());
+        Assertions.assertThrows(
+                IllegalStateException.class, EasyExcel.write().addSheet(wideSheet)::outputXlsx);
+
+        try (ExcelStreamWriteBuilder writeBuilder = EasyExcel.writeStream()) {
+            writeBuilder
+                    .createSheet("sheet", "測試工作表")
+                    .mergedRegions("sheet", ExcelStreamMergedRegion.init(0, 1, 0, 3).build());
+            Assertions.assertThrows(
+                    IllegalStateException.class,
+                    () ->
+                            writeBuilder.mergedRegions(
+                                    "sheet", ExcelStreamMergedRegion.init(1, 2, 3, 4).build()));
+        }
+    }
+
+    /** 測試估算欄位寬度 */
+    @Test
+    public void testEstimateColumnWidth() throws ExcelException, IOException {
+        ExcelSheet sheet =
+                ExcelSheet.init()
+                        .name("工作表1")
+                        .cells(
+                                new ExcelCell("short", 0, 0),
+                                new ExcelCell("a much longer text value", 1, 0),
+                                new ExcelCell("中文資料中文資料", 0, 1),
+                                new ExcelCell("12345", 0, 2),
+                                new ExcelCell("合併欄位的文字不計入寬度", 0, 3))
+                        .mergedRegions(ExcelMergedRegion.init(0, 0, 3, 4).build())
+                        .overrideColumnWidth(2, 30 * 256)
+                        .build();
+        ExcelWriteBuilder excelWriteBuilder =
+                EasyExcel.write().addSheet(sheet).estimateColumnWidth();
+        try (XSSFWorkbook workbook =
+                new XSSFWorkbook(new ByteArrayInputStream(excelWriteBuilder.outputXlsx()))) {
+            XSSFSheet xssfSheet = workbook.getSheetAt(0);
+            System.out.println(
+                    "估算欄位寬度: "
+                            + xssfSheet.getColumnWidth(0)
+                            + ", "
+                            + xssfSheet.getColumnWidth(1));
+            Assertions.assertTrue(xssfSheet.getColumnWidth(0) > 20 * 256);
+            Assertions.assertTrue(xssfSheet.getColumnWidth(1) > 16 * 256);
+            Assertions.assertEquals(30 * 256, xssfSheet.getColumnWidth(2));
+            Assertions.assertEquals(
+                    xssfSheet.getDefaultColumnWidth() * 256, xssfSheet.getColumnWidth(3));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExcelStreamWriteBuilder writeBuilder = EasyExcel.writeStream()) {
+            writeBuilder
+                    .createSheet("sheet", "測試工作表")
+                    .estimateColumnWidth("sheet")
+                    .cells(
+                            "sheet",
+                            new ExcelStreamCell("short", 0, 0),
+                            new ExcelStreamCell("a much longer text value", 1, 0))
+                    .flush("sheet")
+                    .outputXlsx(out);
+        }
+        try (XSSFWorkbook workbook =
+                new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Assertions.assertTrue(workbook.getSheetAt(0).getColumnWidth(0) > 20 * 256);
+        }
+    }
+
     /** 測試寫出(大量資料) */
     @Test
     public void testWriteLargeData() throws ExcelException {